@@ -1,24 +1,48 @@
 package GUI;
 
+import data.AccumulateurStatistiques;
+import data.CacheMetaDonnees;
+import data.EcouteurRepertoire;
 import data.Fichier;
 import data.MetaDonnees;
 import data.Repertoire;
 import data.StatistiquesRepertoire;
+import data.SurveillanceRepertoire;
+import engine.Catalogue;
+import engine.Critere;
+import engine.IndexFlou;
+import engine.MoteurRequete;
+import engine.PipelineMetaDonnees;
+import engine.PlageDimensions;
 import snapshot.Snapshot;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
+import java.awt.Dimension;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 /**
  * Class to manage the core functionalities of the application via the GUI.
  */
 public class GUIOrganisation {
+    private static final int DEFAULT_FUZZY_DISTANCE = 2; // Edits allowed by a ~ search
+    private static final int PAGE_SIZE = 1000; // Rows shown for a search
+    private static final int DISK_USAGE_DEPTH = 2; // Directory levels shown by the disk usage view
+
     private DefaultTableModel tableModel;
     private List<Fichier> fichiersImage;
+    private Repertoire repertoire;
+    private MoteurRequete queryEngine; // Its catalogue follows the directory changes
+    private SurveillanceRepertoire surveillance;
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
 
     /**
      * Initialize the manager with the table model.
@@ -27,30 +51,100 @@ public class GUIOrganisation {
      */
     public GUIOrganisation(DefaultTableModel tableModel) {
         this.tableModel = tableModel;
+        openMetadataCache();
+    }
+
+    /**
+     * Open the persistent metadata cache so unchanged files are not parsed again.
+     * The cache is flushed (and compacted if needed) when the application exits.
+     */
+    private static void openMetadataCache() {
+        CacheMetaDonnees cache = new CacheMetaDonnees(CacheMetaDonnees.fichierParDefaut());
+        Fichier.setCache(cache);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                cache.close();
+            } catch (IOException e) {
+                System.err.println("Error closing metadata cache: " + e.getMessage());
+            }
+        }));
     }
 
     /**
-     * Load image files from a directory into the table.
+     * Load image files from a directory into the table, then keep the table
+     * up to date as files are added, changed or removed on disk.
      *
      * @param directory Directory to explore.
      */
     public void loadDirectory(File directory) {
-        try {
-            Repertoire repertoire = new Repertoire(directory.getName());
-            repertoire.parcourirRepertoire(directory);
-            fichiersImage = repertoire.getFichiers();
+        stopWatching();
+        try (PipelineMetaDonnees pipeline = new PipelineMetaDonnees()) {
+            repertoire = new Repertoire(directory.getName());
+            repertoire.parcourirRepertoire(directory, pipeline);
+            fichiersImage = repertoire.getTousFichiers();
+            queryEngine = new MoteurRequete(Catalogue.suivre(repertoire).indexerDimensions());
             refreshTable(fichiersImage);
         } catch (IOException e) {
             JOptionPane.showMessageDialog(null,
                     "Error accessing directory: " + e.getMessage(),
                     "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        repertoire.ajouterEcouteur(new EcouteurRepertoire() {
+            @Override
+            public void fichierAjoute(Fichier fichier) {
+                scheduleRefresh();
+            }
+
+            @Override
+            public void fichierRetire(Fichier fichier) {
+                scheduleRefresh();
+            }
+        });
+        try {
+            surveillance = new SurveillanceRepertoire(repertoire).demarrer();
+        } catch (IOException e) {
+            System.err.println("Directory watching unavailable: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Refresh the table on the Swing thread. Bursts of file events are coalesced
+     * into a single refresh.
+     */
+    private void scheduleRefresh() {
+        if (refreshPending.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(() -> {
+                refreshPending.set(false);
+                fichiersImage = repertoire.getTousFichiers();
+                refreshTable(fichiersImage);
+            });
+        }
+    }
+
+    /**
+     * Stop watching the previously loaded directory, if any.
+     */
+    private void stopWatching() {
+        if (surveillance != null) {
+            try {
+                surveillance.close();
+            } catch (IOException e) {
+                System.err.println("Error stopping directory watch: " + e.getMessage());
+            }
+            surveillance = null;
         }
     }
 
     /**
-     * Search for files by name or year and update the table.
+     * Search for files by name, year (2023), month (2023-05), dimensions
+     * (1920x1080, 1920x1080+ or 1280x720-3840x2160) or aspect ratio (ratio:16:9)
+     * and update the table. A leading ~ searches names approximately, tolerating
+     * typos: ~IMG_1234 allows two edits, ~1:IMG_1234 only one; results are
+     * ranked from the closest name. Only the first {@value #PAGE_SIZE} matches are shown.
      *
-     * @param query Search text (name or year).
+     * @param query Search text.
      */
     public void searchFiles(String query) {
         if (fichiersImage == null || fichiersImage.isEmpty()) {
@@ -60,16 +154,61 @@ public class GUIOrganisation {
             return;
         }
 
+        Critere criterion;
+        String fuzzyName = null;
+        if (query.startsWith("~")) {
+            int maxDistance = DEFAULT_FUZZY_DISTANCE;
+            fuzzyName = query.substring(1);
+            if (fuzzyName.matches("\\d+:.+")) {
+                try {
+                    maxDistance = Integer.parseInt(fuzzyName.substring(0, fuzzyName.indexOf(':')));
+                } catch (NumberFormatException e) {
+                    JOptionPane.showMessageDialog(null, "Invalid edit distance: " + fuzzyName.substring(0, fuzzyName.indexOf(':')),
+                            "Search", JOptionPane.WARNING_MESSAGE);
+                    return;
+                }
+                fuzzyName = fuzzyName.substring(fuzzyName.indexOf(':') + 1);
+            }
+            criterion = Critere.nomApproche(fuzzyName, maxDistance);
+        } else if (query.matches("\\d{4}")) {
+            criterion = Critere.annee(Integer.parseInt(query));
+        } else if (query.matches("\\d{4}-\\d{2}") && isMonth(query.substring(5))) {
+            criterion = Critere.mois(Integer.parseInt(query.substring(0, 4)), Integer.parseInt(query.substring(5)));
+        } else if (query.matches("\\s*\\d+\\s*x\\s*\\d+\\s*(\\+|-\\s*\\d+\\s*x\\s*\\d+\\s*)?")) {
+            try {
+                criterion = Critere.dimensions(PlageDimensions.analyser(query));
+            } catch (IllegalArgumentException e) {
+                JOptionPane.showMessageDialog(null, e.getMessage(), "Search", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+        } else if (query.startsWith("ratio:")) {
+            try {
+                criterion = Critere.dimensions(PlageDimensions.analyserRatio(query.substring(6)));
+            } catch (IllegalArgumentException e) {
+                JOptionPane.showMessageDialog(null, e.getMessage(), "Search", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+        } else {
+            criterion = Critere.nom(query);
+        }
+        // Only the first page is evaluated and rendered
         List<Fichier> filteredFiles;
-        try {
-            int year = Integer.parseInt(query);
-            filteredFiles = fichiersImage.stream()
-                    .filter(f -> f.getStatistiques().getAnneeModification().equals(String.valueOf(year)))
-                    .collect(Collectors.toList());
-        } catch (NumberFormatException e) {
-            filteredFiles = fichiersImage.stream()
-                    .filter(f -> f.getNom().contains(query))
-                    .collect(Collectors.toList());
+        boolean truncated;
+        if (fuzzyName != null) {
+            // Ranking by distance needs every match; fuzzy matches are few
+            filteredFiles = queryEngine.executer(criterion);
+            IndexFlou.classer(filteredFiles, Fichier::getNom, fuzzyName);
+            truncated = filteredFiles.size() > PAGE_SIZE;
+            if (truncated) {
+                filteredFiles = filteredFiles.subList(0, PAGE_SIZE);
+            }
+        } else {
+            // One extra match tells whether the search really has more than a page
+            filteredFiles = queryEngine.executer(criterion, 0, PAGE_SIZE + 1).getFichiers();
+            truncated = filteredFiles.size() > PAGE_SIZE;
+            if (truncated) {
+                filteredFiles = filteredFiles.subList(0, PAGE_SIZE);
+            }
         }
 
         refreshTable(filteredFiles);
@@ -78,21 +217,31 @@ public class GUIOrganisation {
             JOptionPane.showMessageDialog(null,
                     "No files matching the search.",
                     "Search Results", JOptionPane.INFORMATION_MESSAGE);
+        } else if (truncated) {
+            JOptionPane.showMessageDialog(null,
+                    "Showing the first " + PAGE_SIZE + " matches. Refine the search to narrow them down.",
+                    "Search Results", JOptionPane.INFORMATION_MESSAGE);
         }
     }
 
+    private static boolean isMonth(String month) {
+        int value = Integer.parseInt(month);
+        return value >= 1 && value <= 12;
+    }
+
     /**
      * Display global statistics of files.
      */
     public void viewStatistics() {
-        if (fichiersImage == null || fichiersImage.isEmpty()) {
+        if (repertoire == null || fichiersImage == null || fichiersImage.isEmpty()) {
             JOptionPane.showMessageDialog(null,
                     "No files loaded. Please select a directory.",
                     "Alert", JOptionPane.WARNING_MESSAGE);
             return;
         }
 
-        StatistiquesRepertoire stats = new StatistiquesRepertoire(fichiersImage);
+        // Kept up to date by the directory as files change: no rescan of the list
+        StatistiquesRepertoire stats = new StatistiquesRepertoire(repertoire.getStatistiques());
         JOptionPane.showMessageDialog(null,
                 "Global Statistics:\n" +
                         "Total files: " + stats.getNombreTotalFichiers() + "\n" +
@@ -103,6 +252,42 @@ public class GUIOrganisation {
                 "Global Statistics", JOptionPane.INFORMATION_MESSAGE);
     }
 
+    /**
+     * Display the size of each subdirectory, heaviest first. The totals are
+     * kept up to date by the directory itself, so no file list is walked.
+     */
+    public void viewDiskUsage() {
+        if (repertoire == null) {
+            JOptionPane.showMessageDialog(null,
+                    "No files loaded. Please select a directory.",
+                    "Alert", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        List<Map.Entry<String, AccumulateurStatistiques>> subtrees =
+                new ArrayList<>(repertoire.getRepartition(DISK_USAGE_DEPTH).entrySet());
+        subtrees.sort(Comparator.comparingLong(
+                (Map.Entry<String, AccumulateurStatistiques> e) -> e.getValue().getTailleTotale()).reversed());
+
+        DefaultTableModel model = new DefaultTableModel(
+                new Object[]{"Directory", "Size (KB)", "Files", "Oldest", "Newest"}, 0);
+        for (Map.Entry<String, AccumulateurStatistiques> subtree : subtrees) {
+            AccumulateurStatistiques stats = subtree.getValue();
+            model.addRow(new Object[]{
+                    subtree.getKey(),
+                    stats.getTailleTotale() / 1024,
+                    stats.getNombreFichiers(),
+                    stats.getDateMin() < 0 ? "" : new Date(stats.getDateMin()),
+                    stats.getDateMax() < 0 ? "" : new Date(stats.getDateMax())
+            });
+        }
+        JTable table = new JTable(model);
+        table.setFillsViewportHeight(true);
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.setPreferredSize(new Dimension(700, 400));
+        JOptionPane.showMessageDialog(null, scrollPane, "Disk Usage", JOptionPane.INFORMATION_MESSAGE);
+    }
+
     /**
      * Display statistics of a selected file.
      *
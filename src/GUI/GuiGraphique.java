@@ -59,6 +59,7 @@ public class GuiGraphique extends JFrame {
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 10));
         JButton btnSelectDirectory = new JButton("Choisir un répertoire");
         JButton btnViewStatistics = new JButton("Statistiques globales");
+        JButton btnViewDiskUsage = new JButton("Occupation disque");
         JButton btnViewFileStatistics = new JButton("Statistiques du fichier");
         JButton btnViewMetadata = new JButton("Métadonnées");
         JButton btnSnapshotSave = new JButton("Sauvegarder Snapshot");
@@ -66,6 +67,7 @@ public class GuiGraphique extends JFrame {
 
         btnSelectDirectory.addActionListener(e -> chargerRepertoire());
         btnViewStatistics.addActionListener(e -> manageGUI.viewStatistics());
+        btnViewDiskUsage.addActionListener(e -> manageGUI.viewDiskUsage());
         btnViewFileStatistics.addActionListener(e -> afficherStatsFichier());
         btnViewMetadata.addActionListener(e -> montrerMetadata());
         btnSnapshotSave.addActionListener(e -> onSnapshotSave());
@@ -73,6 +75,7 @@ public class GuiGraphique extends JFrame {
 
         buttonPanel.add(btnSelectDirectory);
         buttonPanel.add(btnViewStatistics);
+        buttonPanel.add(btnViewDiskUsage);
         buttonPanel.add(btnViewFileStatistics);
         buttonPanel.add(btnViewMetadata);
         buttonPanel.add(btnSnapshotSave);
@@ -1,15 +1,40 @@
 package cli;
 
-import data.*;
-import engine.*;
+import data.CacheMetaDonnees;
+import data.EstimateurStatistiques;
+import data.Fichier;
+import data.FiltreParcours;
+import data.ImageFile;
+import data.Repertoire;
+import engine.Catalogue;
+import engine.ControleurF;
+import engine.ControleurR;
+import engine.Critere;
+import engine.IndexDimensions;
+import engine.IndexFlou;
+import engine.IndexGeo;
+import engine.LangageRequete;
+import engine.MoteurRequete;
+import engine.PageResultats;
+import engine.PipelineMetaDonnees;
+import engine.PlageDimensions;
 import snapshot.Snapshot;
 import snapshot.Difference;
 import java.io.File;
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class CLI {
 
+    private static final int PAGE_PAR_DEFAUT = 100; // Taille des pages demandées par --after= sans --limit=
+    private static final Duration BUDGET_PAR_DEFAUT = Duration.ofSeconds(10); // Temps accordé à --stat --approx=
+
     public static void main(String[] args) {
         if (args.length == 0) {
             System.out.println("Erreur : Aucun argument fourni.");
@@ -55,63 +80,290 @@ public class CLI {
             return;
         }
 
-        Repertoire repertoire = new Repertoire(cheminRepertoire);
-
         // Initialisation des filtres
         String filtreNom = null;
+        String nomApproche = null;
+        int distanceApproche = 2;
         Integer filtreAnnee = null;
-        int[] filtreDimensions = null;
+        PlageDimensions filtreDimensions = null;
+        int[] dimensionsProches = null;
+        int nombreProches = 10;
+        double[] rectangleGeo = null;
+        double[] cercleGeo = null;
+        boolean recherche = false;
+        long tailleMin = 0;
+        long tailleMax = Long.MAX_VALUE;
+        Integer plusGros = null;
+        Integer plusPetits = null;
+        boolean rechercheTaille = false;
+        Critere requeteTexte = null;
+        Integer limite = null;
+        int decalage = 0;
+        String jetonSuite = null;
+        boolean expliquer = false;
+        int profondeurOccupation = 1;
+        Double precisionApprochee = null;
+        Duration budgetApproche = BUDGET_PAR_DEFAUT;
+        int concurrence = PipelineMetaDonnees.CONCURRENCE_PAR_DEFAUT;
+        FiltreParcours filtreParcours = new FiltreParcours();
+        File fichierCache = null;
 
         // Parcourir les arguments pour détecter les filtres
         for (int i = 2; i < args.length; i++) {
             if (args[i].startsWith("--year=")) {
                 filtreAnnee = Integer.parseInt(args[i].substring("--year=".length()));
-            } else if (args[i].startsWith("--dimension=")) {
-                String[] dims = args[i].substring("--dimension=".length()).split("x");
-                filtreDimensions = new int[]{Integer.parseInt(dims[0]), Integer.parseInt(dims[1])};
+                recherche = true;
+            } else if (args[i].startsWith("--dimension=") || args[i].startsWith("--dim=") || args[i].startsWith("--ratio=")) {
+                PlageDimensions plage;
+                try {
+                    String valeur = args[i].substring(args[i].indexOf('=') + 1);
+                    plage = args[i].startsWith("--ratio=") ? PlageDimensions.analyserRatio(valeur)
+                            : PlageDimensions.analyser(valeur);
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Erreur : " + e.getMessage());
+                    return;
+                }
+                filtreDimensions = filtreDimensions == null ? plage : filtreDimensions.et(plage);
+                recherche = true;
+            } else if (args[i].startsWith("--bbox=") || args[i].startsWith("--near=")) {
+                try {
+                    if (args[i].startsWith("--bbox=")) {
+                        rectangleGeo = lireNombres(args[i].substring("--bbox=".length()), 4);
+                    } else {
+                        cercleGeo = lireNombres(args[i].substring("--near=".length()), 3);
+                    }
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Erreur : " + e.getMessage());
+                    return;
+                }
+            } else if (args[i].startsWith("--nearest=")) {
+                String[] valeur = args[i].substring("--nearest=".length()).split(":");
+                try {
+                    String[] dims = valeur[0].split("x");
+                    dimensionsProches = new int[]{Integer.parseInt(dims[0].trim()), Integer.parseInt(dims[1].trim())};
+                    if (valeur.length > 1) {
+                        nombreProches = Integer.parseInt(valeur[1].trim());
+                    }
+                } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                    dimensionsProches = null;
+                }
+                if (dimensionsProches == null || nombreProches <= 0) {
+                    System.out.println("Erreur : --nearest= attend LxH ou LxH:N (reçu : "
+                            + args[i].substring("--nearest=".length()) + ").");
+                    return;
+                }
+            } else if (args[i].startsWith("--query=")) {
+                try {
+                    requeteTexte = LangageRequete.compiler(args[i].substring("--query=".length()));
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Erreur : " + e.getMessage());
+                    return;
+                }
+                recherche = true;
+            } else if (args[i].startsWith("--limit=")) {
+                limite = lireEntier(args[i], 1);
+                if (limite == null) {
+                    return;
+                }
+            } else if (args[i].startsWith("--offset=")) {
+                Integer valeur = lireEntier(args[i], 0);
+                if (valeur == null) {
+                    return;
+                }
+                decalage = valeur;
+            } else if (args[i].startsWith("--after=")) {
+                jetonSuite = args[i].substring("--after=".length());
+            } else if (args[i].equals("--explain")) {
+                expliquer = true;
+            } else if (args[i].startsWith("--approx=")) {
+                try {
+                    precisionApprochee = Double.parseDouble(args[i].substring("--approx=".length()));
+                } catch (NumberFormatException e) {
+                    precisionApprochee = Double.NaN;
+                }
+                if (!(precisionApprochee > 0)) {
+                    System.out.println("Erreur : la précision de --approx= doit être un nombre strictement positif (0.01 pour 1 %).");
+                    return;
+                }
+            } else if (args[i].startsWith("--budget=")) {
+                try {
+                    budgetApproche = lireDuree(args[i].substring("--budget=".length()));
+                } catch (NumberFormatException e) {
+                    budgetApproche = Duration.ofMillis(-1);
+                }
+                if (budgetApproche.isNegative()) {
+                    System.out.println("Erreur : le temps de --budget= doit être une durée positive (10s, 500ms, 2m).");
+                    return;
+                }
+            } else if (args[i].startsWith("--depth=")) {
+                Integer profondeur = lireEntier(args[i], 0);
+                if (profondeur == null) {
+                    return;
+                }
+                profondeurOccupation = profondeur;
+            } else if (args[i].startsWith("--fuzzy=")) {
+                nomApproche = args[i].substring("--fuzzy=".length());
+                recherche = true;
+            } else if (args[i].startsWith("--distance=")) {
+                Integer distance = lireEntier(args[i], 0);
+                if (distance == null) {
+                    return;
+                }
+                distanceApproche = distance;
             } else if (args[i].startsWith("--name=")) {
                 filtreNom = args[i].substring("--name=".length());
+                recherche = true;
+            } else if (args[i].startsWith("--min-size=") || args[i].startsWith("--max-size=")) {
+                long taille;
+                try {
+                    taille = LangageRequete.lireTaille(args[i].substring(args[i].indexOf('=') + 1));
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Erreur : " + e.getMessage());
+                    return;
+                }
+                if (args[i].startsWith("--min-size=")) {
+                    tailleMin = taille;
+                } else {
+                    tailleMax = taille;
+                }
+                rechercheTaille = true;
+            } else if (args[i].startsWith("--largest=")) {
+                plusGros = lireEntier(args[i], 0);
+                if (plusGros == null) {
+                    return;
+                }
+                rechercheTaille = true;
+            } else if (args[i].startsWith("--smallest=")) {
+                plusPetits = lireEntier(args[i], 0);
+                if (plusPetits == null) {
+                    return;
+                }
+                rechercheTaille = true;
+            } else if (args[i].equals("--search")) {
+                recherche = true;
+            } else if (args[i].startsWith("--io=")) {
+                Integer io = lireEntier(args[i], 1);
+                if (io == null) {
+                    return;
+                }
+                concurrence = io;
+            } else if (args[i].startsWith("--include=")) {
+                filtreParcours.inclure(args[i].substring("--include=".length()));
+            } else if (args[i].startsWith("--include-regex=")) {
+                filtreParcours.inclureRegex(args[i].substring("--include-regex=".length()));
+            } else if (args[i].startsWith("--exclude=")) {
+                filtreParcours.exclure(args[i].substring("--exclude=".length()));
+            } else if (args[i].startsWith("--exclude-regex=")) {
+                filtreParcours.exclureRegex(args[i].substring("--exclude-regex=".length()));
+            } else if (args[i].equals("--exclude-defaults")) {
+                filtreParcours.exclureParDefaut();
+            } else if (args[i].equals("--cache")) {
+                fichierCache = CacheMetaDonnees.fichierParDefaut();
+            } else if (args[i].startsWith("--cache=")) {
+                fichierCache = new File(args[i].substring("--cache=".length()));
             }
         }
 
-        try {
-            // Parcourir le répertoire pour collecter tous les fichiers
-            repertoire.parcourirRepertoire(repertoireFile);
-
-            // Utiliser le contrôleur pour rechercher les fichiers filtrés
-            ControleurR controleurR = new ControleurR();
-            List<Fichier> fichiersFiltres = controleurR.rechercherFichiers(repertoire, filtreNom, filtreAnnee, filtreDimensions);
-
-            // Affichage des fichiers filtrés
-            if (fichiersFiltres.isEmpty()) {
-                System.out.println("Aucun fichier ne correspond aux critères spécifiés.");
-            } else {
-                System.out.println("Fichiers correspondants :");
-                fichiersFiltres.forEach(System.out::println);
+        try (CacheMetaDonnees cache = fichierCache != null ? new CacheMetaDonnees(fichierCache) : null;
+             PipelineMetaDonnees pipeline = new PipelineMetaDonnees(concurrence)) {
+            Fichier.setCache(cache);
+
+            // Tous les filtres forment une seule requête, dont le moteur ordonne les critères
+            if (recherche || rechercheTaille || rectangleGeo != null || cercleGeo != null
+                    || dimensionsProches != null) {
+                Critere requete = creerRequete(filtreNom, filtreAnnee, filtreDimensions,
+                        tailleMin, tailleMax, rectangleGeo, cercleGeo);
+                if (requeteTexte != null) {
+                    requete = Critere.et(requeteTexte, requete);
+                }
+                if (nomApproche != null) {
+                    requete = Critere.et(Critere.nomApproche(nomApproche, distanceApproche), requete);
+                }
+                boolean listeSimple = dimensionsProches == null && rectangleGeo == null && cercleGeo == null
+                        && !rechercheTaille && nomApproche == null;
+                if (listeSimple && jetonSuite == null && !expliquer) {
+                    // Requête ponctuelle : chaque fichier est testé dès qu'il est trouvé, sans catalogue
+                    try (Stream<Fichier> fichiers = Repertoire.streamFichiers(repertoireFile, filtreParcours)) {
+                        if (limite != null) {
+                            afficherPage(MoteurRequete.executer(fichiers, requete, decalage, limite));
+                        } else {
+                            afficherFichiersFiltres(fichiers.filter(requete).skip(decalage));
+                        }
+                    } catch (IllegalArgumentException e) {
+                        System.out.println("Erreur : " + e.getMessage());
+                    }
+                } else {
+                    MoteurRequete moteur = creerMoteur(repertoireFile, filtreParcours, pipeline);
+                    if (expliquer) {
+                        System.out.print(moteur.expliquer(requete));
+                    }
+                    if (listeSimple && (limite != null || jetonSuite != null)) {
+                        // Seule la page demandée est évaluée
+                        int taillePage = limite != null ? limite : PAGE_PAR_DEFAUT;
+                        try {
+                            afficherPage(jetonSuite != null ? moteur.continuer(requete, jetonSuite, taillePage)
+                                    : moteur.executer(requete, decalage, taillePage));
+                        } catch (IllegalArgumentException e) {
+                            System.out.println("Erreur : " + e.getMessage());
+                        }
+                    } else if (dimensionsProches != null) {
+                        afficherDimensionsProches(moteur.executer(requete), dimensionsProches, nombreProches);
+                    } else if (rectangleGeo != null || cercleGeo != null) {
+                        afficherFichiersGeo(moteur.executer(requete), cercleGeo);
+                    } else if (rechercheTaille) {
+                        afficherFichiersParTaille(moteur.executer(requete), plusGros, plusPetits);
+                    } else {
+                        List<Fichier> resultats = moteur.executer(requete);
+                        if (nomApproche != null) {
+                            // Le classement par distance exige tous les résultats avant d'en extraire une page
+                            IndexFlou.classer(resultats, Fichier::getNom, nomApproche);
+                        }
+                        if (limite != null || decalage > 0) {
+                            int fin = limite != null ? (int) Math.min(resultats.size(), (long) decalage + limite) : resultats.size();
+                            resultats = resultats.subList(Math.min(decalage, fin), fin);
+                        }
+                        afficherFichiers(resultats);
+                    }
+                }
             }
-        } catch (IOException e) {
-            System.err.println("Erreur lors de l'analyse du répertoire : " + e.getMessage());
-        }
-
 
-
-        try {
-            repertoire.parcourirRepertoire(repertoireFile);
+            // L'arborescence complète n'est chargée que pour les options qui en ont besoin
+            Repertoire repertoire = null;
             ControleurR controleurR = new ControleurR();
 
             for (int i = 2; i < args.length; i++) {
                 switch (args[i]) {
                     case "--list":
                         System.out.println("Fichiers d'images dans le répertoire :");
-                        for (Fichier fichier : controleurR.listerFichiers(repertoire)) {
-                            System.out.println("- " + fichier.getNom());
+                        try (Stream<ImageFile> images = Repertoire.streamImages(repertoireFile, filtreParcours)) {
+                            images.forEach(image -> System.out.println("- " + image.getFileName()));
                         }
                         break;
 
                     case "--stat":
+                        if (precisionApprochee != null) {
+                            // Estimation sur un échantillon : l'arborescence n'est pas chargée
+                            new EstimateurStatistiques(repertoireFile, filtreParcours)
+                                    .estimer(precisionApprochee, budgetApproche).afficherStatistiques();
+                            break;
+                        }
+                        if (repertoire == null) {
+                            repertoire = new Repertoire(cheminRepertoire);
+                            repertoire.setFiltre(filtreParcours);
+                            repertoire.parcourirRepertoire(repertoireFile); // Les statistiques n'ouvrent aucun fichier
+                        }
                         controleurR.afficherStatistiques(repertoire);
                         break;
 
+                    case "--du":
+                        if (repertoire == null) {
+                            repertoire = new Repertoire(cheminRepertoire);
+                            repertoire.setFiltre(filtreParcours);
+                            repertoire.parcourirRepertoire(repertoireFile); // Les statistiques n'ouvrent aucun fichier
+                        }
+                        controleurR.afficherOccupation(repertoire, profondeurOccupation);
+                        break;
+
                         // Commande pour sauvegarder un snapshot
                     case "--snapshotsave":
                         String nomSnapshotSave;
@@ -124,7 +376,7 @@ public class CLI {
                             System.out.println("Aucun nom spécifié, le snapshot sera sauvegardé avec le nom : " + nomSnapshotSave);
                         }
                         try {
-                            Snapshot snapshot = creerSnapshot(cheminRepertoire); // Capture l'état du répertoire
+                            Snapshot snapshot = creerSnapshot(cheminRepertoire, filtreParcours, pipeline); // Capture l'état du répertoire
                             snapshot.sauvegarder(nomSnapshotSave); // Sauvegarde dans un fichier
                             System.out.println("Snapshot sauvegardé avec succès dans : " + new File(nomSnapshotSave).getAbsolutePath());
                         } catch (IOException e) {
@@ -151,63 +403,293 @@ public class CLI {
                         }
 
                         // Créer un snapshot de l'état actuel du répertoire
-                        Snapshot snapshotActuel = creerSnapshot(cheminRepertoire);
+                        Snapshot snapshotActuel = creerSnapshot(cheminRepertoire, filtreParcours, pipeline);
 
                         // Comparer les snapshots
                         Difference differences = snapshotActuel.comparer(snapshotSauvegarde);
                         System.out.println(differences);
                         break;
-                    case "--search":
-                        String nomRecherche = null;
-                        Integer anneeRecherche = null;
-                        int[] dimensionsRecherche = null;
-
-                        // Récupérer les arguments (par exemple, `--name`, `--year`, `--dim`)
-                        for (int j = i + 1; j < args.length && !args[j].startsWith("--"); j++) {
-                            if (args[j].startsWith("--name=")) {
-                                nomRecherche = args[j].substring(7); // Extrait la valeur après `--name=`
-                            } else if (args[j].startsWith("--year=")) {
-                                anneeRecherche = Integer.parseInt(args[j].substring(7)); // Extrait l'année
-                            } else if (args[j].startsWith("--dim=")) {
-                                String[] dim = args[j].substring(6).split("x");
-                                dimensionsRecherche = new int[]{Integer.parseInt(dim[0]), Integer.parseInt(dim[1])};
-                            }
-                        }
 
-                        // Appeler la méthode rechercherFichiers
-                        List<Fichier> resultatsRecherche = repertoire.rechercherFichiers(nomRecherche, anneeRecherche, dimensionsRecherche);
-
-                        // Afficher les résultats
-                        if (resultatsRecherche.isEmpty()) {
-                            System.out.println("Aucun fichier ne correspond aux critères spécifiés.");
-                        } else {
-                            System.out.println("Fichiers correspondants :");
-                            for (Fichier fichier : resultatsRecherche) {
-                                System.out.println(fichier);
-                            }
-                        }
+                    case "--search":
+                        // Recherche déjà effectuée à partir des filtres --name=, --year= et --dimension=
                         break;
 
-
-
                     default:
-                        System.out.println("Option invalide pour un répertoire : " + args[i]);
-                        afficherAide();
+                        if (!estParametre(args[i])) {
+                            System.out.println("Option invalide pour un répertoire : " + args[i]);
+                            afficherAide();
+                        }
                         break;
                 }
             }
         } catch (IOException e) {
             System.err.println("Erreur lors de l'analyse du répertoire : " + e.getMessage());
+        } finally {
+            Fichier.setCache(null);
         }
-        ControleurR controleurR = new ControleurR();
-        List<Fichier> fichiersFiltres = controleurR.rechercherFichiers(repertoire, filtreNom, filtreAnnee, filtreDimensions);
+    }
 
-        System.out.println("Fichiers filtrés :");
-        fichiersFiltres.forEach(System.out::println);
+    /**
+     * Construit la requête correspondant aux filtres de la ligne de commande.
+     *
+     * @param nom Fragment du nom, ou null.
+     * @param annee Année de modification, ou null.
+     * @param dimensions Plage de dimensions, ou null.
+     * @param tailleMin Taille minimale en octets (incluse).
+     * @param tailleMax Taille maximale en octets (incluse).
+     * @param rectangle [latMin, lonMin, latMax, lonMax], ou null.
+     * @param cercle [latitude, longitude, rayon en km], ou null.
+     * @return La conjonction des critères donnés.
+     */
+    private static Critere creerRequete(String nom, Integer annee, PlageDimensions dimensions,
+                                        long tailleMin, long tailleMax, double[] rectangle, double[] cercle) {
+        List<Critere> criteres = new ArrayList<>();
+        if (nom != null) {
+            criteres.add(Critere.nom(nom));
+        }
+        if (annee != null) {
+            criteres.add(Critere.annee(annee));
+        }
+        if (tailleMin > 0 || tailleMax < Long.MAX_VALUE) {
+            criteres.add(Critere.taille(tailleMin, tailleMax));
+        }
+        if (dimensions != null) {
+            criteres.add(Critere.dimensions(dimensions));
+        }
+        if (rectangle != null) {
+            criteres.add(Critere.rectangle(rectangle[0], rectangle[1], rectangle[2], rectangle[3]));
+        }
+        if (cercle != null) {
+            criteres.add(Critere.rayon(cercle[0], cercle[1], cercle[2]));
+        }
+        return Critere.et(criteres);
+    }
+
+    /**
+     * Prépare le moteur de requêtes sur les fichiers d'une arborescence.
+     *
+     * Le parcours ne capture que le nom, la taille et la date de chaque fichier ;
+     * le moteur n'ouvre les fichiers (en-têtes, métadonnées) que pour les
+     * candidats ayant passé les critères moins coûteux, et extrait leurs
+     * métadonnées en parallèle avec le pipeline. Le catalogue n'est construit
+     * que pour les requêtes qui ne peuvent pas être évaluées au fil du parcours
+     * (tri des résultats, page suivante, plan d'exécution).
+     *
+     * @param repertoireFile Le répertoire à parcourir.
+     * @param filtreParcours Les règles d'élagage du parcours.
+     * @param pipeline Le pipeline d'extraction des métadonnées.
+     * @return Le moteur, sur les fichiers dans l'ordre du parcours.
+     * @throws IOException Si le répertoire est inaccessible.
+     */
+    private static MoteurRequete creerMoteur(File repertoireFile, FiltreParcours filtreParcours,
+                                             PipelineMetaDonnees pipeline) throws IOException {
+        List<Fichier> tous;
+        try (Stream<Fichier> fichiers = Repertoire.streamFichiers(repertoireFile, filtreParcours)) {
+            tous = fichiers.collect(Collectors.toList());
+        }
+        return new MoteurRequete(new Catalogue(tous, false)).avecPipeline(pipeline);
+    }
+
+    /**
+     * Affiche une page de résultats et, s'il en reste, l'option qui donne la page suivante.
+     *
+     * @param page La page à afficher.
+     */
+    private static void afficherPage(PageResultats page) {
+        afficherFichiers(page.getFichiers());
+        if (page.aSuite()) {
+            System.out.println("Page suivante : --after=" + page.getJetonSuite());
+        }
+    }
+
+    /**
+     * Affiche les fichiers d'un flux au fur et à mesure qu'ils sont trouvés.
+     *
+     * @param resultats Le flux des fichiers correspondants.
+     */
+    private static void afficherFichiersFiltres(Stream<Fichier> resultats) {
+        System.out.println("Fichiers correspondants :");
+        AtomicLong trouves = new AtomicLong();
+        resultats.forEachOrdered(fichier -> {
+            System.out.println(fichier);
+            trouves.incrementAndGet();
+        });
+        if (trouves.get() == 0) {
+            System.out.println("Aucun fichier ne correspond aux critères spécifiés.");
+        }
+    }
+
+    /**
+     * Affiche les fichiers trouvés.
+     *
+     * @param resultats Les fichiers à afficher.
+     */
+    private static void afficherFichiers(List<Fichier> resultats) {
+        System.out.println("Fichiers correspondants :");
+        resultats.forEach(System.out::println);
+        if (resultats.isEmpty()) {
+            System.out.println("Aucun fichier ne correspond aux critères spécifiés.");
+        }
+    }
+
+    /**
+     * Affiche les fichiers trouvés selon leur taille : tous par taille croissante,
+     * les N plus gros ou les N plus petits.
+     *
+     * @param resultats Les fichiers correspondant aux critères.
+     * @param plusGros Nombre de plus gros fichiers à afficher, ou null.
+     * @param plusPetits Nombre de plus petits fichiers à afficher, ou null.
+     */
+    private static void afficherFichiersParTaille(List<Fichier> resultats, Integer plusGros, Integer plusPetits) {
+        // Requête ponctuelle : un tas de N fichiers ou un simple tri, sans construire d'index
+        ControleurF controleurF = new ControleurF();
+        if (plusGros != null) {
+            System.out.println("Plus gros fichiers :");
+            resultats = controleurF.plusGrosFichiers(resultats, plusGros);
+        } else if (plusPetits != null) {
+            System.out.println("Plus petits fichiers :");
+            resultats = controleurF.plusPetitsFichiers(resultats, plusPetits);
+        } else {
+            System.out.println("Fichiers correspondants :");
+            resultats.sort(Comparator.comparingLong(Fichier::getTaille));
+        }
+
+        long total = 0;
+        for (Fichier fichier : resultats) {
+            System.out.println(fichier.getTaille() + " octets\t" + fichier.getCheminRelatif());
+            total += fichier.getTaille();
+        }
+        if (resultats.isEmpty()) {
+            System.out.println("Aucun fichier ne correspond aux critères spécifiés.");
+        } else {
+            System.out.println(resultats.size() + " fichier(s), " + total + " octets au total.");
+        }
+    }
 
+    /**
+     * Affiche, parmi les fichiers trouvés, les images dont les dimensions sont
+     * les plus proches d'une taille donnée.
+     *
+     * @param resultats Les fichiers correspondant aux critères.
+     * @param dimensions La taille de référence [largeur, hauteur].
+     * @param nombre Le nombre d'images à afficher.
+     */
+    private static void afficherDimensionsProches(List<Fichier> resultats, int[] dimensions, int nombre) {
+        IndexDimensions<Fichier> index = IndexDimensions.pourFichiers(resultats);
+
+        System.out.println("Images les plus proches de " + dimensions[0] + "x" + dimensions[1] + " :");
+        List<Fichier> proches = index.plusProches(dimensions[0], dimensions[1], nombre);
+        for (Fichier fichier : proches) {
+            int[] dims = fichier.getDimensions();
+            System.out.println(dims[0] + "x" + dims[1] + "\t" + fichier.getCheminRelatif());
+        }
+        if (proches.isEmpty()) {
+            System.out.println("Aucun fichier ne correspond aux critères spécifiés.");
+        }
+    }
+
+    /**
+     * Affiche les images localisées trouvées, de la plus proche à la plus
+     * éloignée du centre lorsqu'une recherche par rayon est demandée.
+     *
+     * @param resultats Les fichiers correspondant aux critères.
+     * @param cercle [latitude, longitude, rayon en km], ou null.
+     */
+    private static void afficherFichiersGeo(List<Fichier> resultats, double[] cercle) {
+        if (cercle != null) {
+            resultats.sort(Comparator.comparingDouble(f -> IndexGeo.distanceKm(cercle[0], cercle[1],
+                    f.getMetaDonnees().getLatitude(), f.getMetaDonnees().getLongitude())));
+        }
+
+        System.out.println("Images localisées correspondantes :");
+        for (Fichier fichier : resultats) {
+            System.out.println(fichier.getMetaDonnees().getPositionGPS() + "\t" + fichier.getCheminRelatif());
+        }
+        if (resultats.isEmpty()) {
+            System.out.println("Aucun fichier ne correspond aux critères spécifiés.");
+        }
     }
-    
-    private static Snapshot creerSnapshot(String cheminRepertoire) throws IOException {
+
+    /**
+     * Lit la valeur entière d'une option ({@code --option=valeur}) et affiche
+     * une erreur si elle est invalide.
+     *
+     * @param argument L'argument complet.
+     * @param minimum La plus petite valeur acceptée.
+     * @return La valeur, ou null si ce n'est pas un entier au moins égal au minimum.
+     */
+    private static Integer lireEntier(String argument, int minimum) {
+        String option = argument.substring(0, argument.indexOf('=') + 1);
+        String texte = argument.substring(option.length());
+        try {
+            int valeur = Integer.parseInt(texte.trim());
+            if (valeur >= minimum) {
+                return valeur;
+            }
+        } catch (NumberFormatException e) {
+            // Signalé ci-dessous
+        }
+        System.out.println("Erreur : " + option + " attend un entier " + (minimum > 0 ? "strictement positif" : "positif ou nul")
+                + " (reçu : " + texte + ").");
+        return null;
+    }
+
+    /**
+     * Lit une liste de nombres séparés par des virgules.
+     *
+     * @param texte Le texte à lire.
+     * @param nombre Le nombre de valeurs attendues.
+     * @return Les valeurs lues.
+     */
+    private static double[] lireNombres(String texte, int nombre) {
+        String[] parties = texte.split(",");
+        if (parties.length != nombre) {
+            throw new IllegalArgumentException("Attendu " + nombre + " valeurs séparées par des virgules : " + texte);
+        }
+        double[] valeurs = new double[nombre];
+        for (int i = 0; i < nombre; i++) {
+            try {
+                valeurs[i] = Double.parseDouble(parties[i].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Nombre invalide : " + parties[i].trim());
+            }
+        }
+        return valeurs;
+    }
+
+    // Durée en secondes, ou suivie de ms, s ou m
+    private static Duration lireDuree(String texte) {
+        String valeur = texte.trim().toLowerCase();
+        if (valeur.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(valeur.substring(0, valeur.length() - 2)));
+        }
+        if (valeur.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(valeur.substring(0, valeur.length() - 1)));
+        }
+        if (valeur.endsWith("s")) {
+            valeur = valeur.substring(0, valeur.length() - 1);
+        }
+        return Duration.ofMillis(Math.round(Double.parseDouble(valeur) * 1000));
+    }
+
+    private static boolean estParametre(String argument) {
+        return argument.startsWith("--name=") || argument.startsWith("--year=")
+                || argument.startsWith("--dimension=") || argument.startsWith("--dim=")
+                || argument.startsWith("--io=") || argument.startsWith("--include")
+                || argument.startsWith("--exclude") || argument.startsWith("--cache")
+                || argument.startsWith("--min-size=") || argument.startsWith("--max-size=")
+                || argument.startsWith("--largest=") || argument.startsWith("--smallest=")
+                || argument.startsWith("--ratio=") || argument.startsWith("--nearest=")
+                || argument.startsWith("--bbox=") || argument.startsWith("--near=")
+                || argument.startsWith("--query=") || argument.equals("--explain")
+                || argument.startsWith("--fuzzy=") || argument.startsWith("--distance=")
+                || argument.startsWith("--limit=") || argument.startsWith("--offset=")
+                || argument.startsWith("--after=") || argument.startsWith("--depth=")
+                || argument.startsWith("--approx=") || argument.startsWith("--budget=");
+    }
+
+    private static Snapshot creerSnapshot(String cheminRepertoire, FiltreParcours filtreParcours,
+                                          PipelineMetaDonnees pipeline) throws IOException {
         File repertoireFile = new File(cheminRepertoire);
 
         if (!repertoireFile.exists() || !repertoireFile.isDirectory()) {
@@ -216,7 +698,8 @@ public class CLI {
 
         // Crée un objet Repertoire pour capturer les fichiers et sous-répertoires
         Repertoire repertoire = new Repertoire(cheminRepertoire);
-        repertoire.parcourirRepertoire(repertoireFile); // Parcourt le répertoire pour collecter les fichiers
+        repertoire.setFiltre(filtreParcours);
+        repertoire.parcourirRepertoire(repertoireFile, pipeline); // Parcourt le répertoire pour collecter les fichiers
 
         // Capture la date actuelle pour le snapshot
         String dateSnapshot = java.time.LocalDateTime.now().toString();
@@ -274,8 +757,43 @@ public class CLI {
         System.out.println("  -d, --directory <directory>   Analyser un répertoire");
         System.out.println("      --list                    Lister tous les fichiers d'images dans le répertoire");
         System.out.println("      --stat                    Afficher les statistiques du répertoire");
+        System.out.println("      --approx=<précision>      Avec --stat : estimer sur un échantillon, à 0.01 (1 %) près par exemple");
+        System.out.println("      --budget=<durée>          Temps maximal de l'estimation (10s par défaut ; ms, s ou m)");
+        System.out.println("      --du                      Afficher l'occupation de chaque sous-répertoire, du plus lourd au plus léger");
+        System.out.println("      --depth=<n>               Profondeur des sous-répertoires affichés par --du (1 par défaut)");
         System.out.println("      --snapshotsave [file]     Sauvegarder l'état du répertoire dans un fichier snapshot");
         System.out.println("      --snapshotcompare <file>  Comparer l'état actuel du répertoire avec un fichier snapshot");
+        System.out.println("      --search                  Rechercher avec les filtres suivants");
+        System.out.println("      --query=<expression>      Rechercher avec une expression, par exemple :");
+        System.out.println("                                year>=2019 and width>3000 and name~\"IMG_\"");
+        System.out.println("                                (champs name, type, year, date, size, width, height,");
+        System.out.println("                                ratio ; near(lat,lon,km), bbox(...) ; and, or, not)");
+        System.out.println("      --explain                 Afficher le plan d'exécution de la recherche");
+        System.out.println("      --limit=<n>               N'afficher que n résultats (une recherche sans tri s'arrête dès qu'ils sont trouvés)");
+        System.out.println("      --offset=<n>              Sauter les n premiers résultats");
+        System.out.println("      --after=<jeton>           Afficher la page suivant celle qui a donné ce jeton");
+        System.out.println("      --name=<texte>            Filtrer par nom ou partie du nom");
+        System.out.println("      --fuzzy=<nom>             Noms proches, fautes de frappe comprises (du plus proche)");
+        System.out.println("      --distance=<n>            Nombre d'erreurs tolérées par --fuzzy (2 par défaut)");
+        System.out.println("      --year=<année>            Filtrer par année de modification");
+        System.out.println("      --dimension=<L>x<H>       Filtrer par dimensions exactes");
+        System.out.println("      --dimension=<L>x<H>+      Filtrer les images d'au moins L x H");
+        System.out.println("      --dimension=<L>x<H>-<L>x<H> Filtrer les images entre deux tailles");
+        System.out.println("      --ratio=<16:9|1.7-1.8>    Filtrer par rapport largeur / hauteur");
+        System.out.println("      --nearest=<L>x<H>[:n]     Afficher les n images de taille la plus proche");
+        System.out.println("      --bbox=<latMin,lonMin,latMax,lonMax> Images prises dans un rectangle GPS");
+        System.out.println("      --near=<lat,lon,km>       Images prises à moins de km kilomètres d'un point");
+        System.out.println("      --min-size=<taille>       Taille minimale (suffixes K, M, G acceptés)");
+        System.out.println("      --max-size=<taille>       Taille maximale (suffixes K, M, G acceptés)");
+        System.out.println("      --largest=<n>             Afficher les n plus gros fichiers");
+        System.out.println("      --smallest=<n>            Afficher les n plus petits fichiers");
+        System.out.println("      --include=<glob>          Ne retenir que les fichiers correspondant au motif");
+        System.out.println("      --include-regex=<regex>   Ne retenir que les fichiers correspondant à l'expression");
+        System.out.println("      --exclude=<glob>          Ignorer les fichiers et répertoires correspondant au motif");
+        System.out.println("      --exclude-regex=<regex>   Ignorer les fichiers et répertoires correspondant à l'expression");
+        System.out.println("      --exclude-defaults        Ignorer .git, @eaDir, node_modules, caches, corbeilles...");
+        System.out.println("      --cache[=<file>]          Réutiliser les métadonnées des fichiers inchangés");
+        System.out.println("      --io=<n>                  Nombre de lectures de métadonnées simultanées");
         System.out.println("  -f, --file <file>             Analyser un fichier");
         System.out.println("      --stat                    Afficher les statistiques du fichier");
         System.out.println("      -i, --info                Extraire les métadonnées d'un fichier");
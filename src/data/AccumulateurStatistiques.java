@@ -0,0 +1,501 @@
+package data;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.stream.Collector;
+
+import engine.Critere;
+import engine.ExecutionParallele;
+
+/**
+ * Accumulateur des statistiques d'un ensemble de fichiers, calculées en un seul passage.
+ *
+ * Chaque fichier ajouté met à jour tous les compteurs à la fois : nombre de
+ * fichiers, nombre d'images valides, nombre de fichiers par extension, taille
+ * totale, plus petite et plus grande taille, plus ancienne et plus récente
+ * date de modification. L'extension n'est extraite et mise en minuscules
+ * qu'une fois par fichier.
+ *
+ * Le même passage mesure aussi les distributions : tailles et nombres de
+ * pixels dans des {@link EsquisseQuantiles} (histogrammes par puissance de
+ * deux et centiles), nombre de fichiers par mois de modification et par
+ * bande de rapport largeur / hauteur. Aucun fichier n'est ouvert pour ces
+ * deux dernières : seuls les {@link Fichier} dont les dimensions sont déjà
+ * connues y sont comptés ; les autres ne comptent que dans les autres
+ * distributions.
+ *
+ * Deux accumulateurs se fusionnent : chaque partie d'un flux parallèle, ou
+ * chaque sous-répertoire, peut être compté séparément puis regroupé.
+ *
+ * Un fichier peut aussi être retiré, ce qui permet de tenir les statistiques
+ * à jour sans tout recompter. Les compteurs restent exacts ; seuls les
+ * extrêmes (tailles et dates) ne peuvent pas être retrouvés après le retrait
+ * du fichier qui les portait ({@link #extremesExacts()}) : les statistiques
+ * doivent alors être recalculées.
+ *
+ * Un accumulateur n'est pas synchronisé.
+ *
+ * @author Youmna Saad et Seyda Ann
+ */
+public class AccumulateurStatistiques implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /** Bandes de rapport largeur / hauteur, et leurs bornes supérieures (exclues). */
+    private static final String[] BANDES_FORMAT = {"portrait", "carré", "4:3", "3:2", "16:9", "panoramique"};
+    private static final double[] LIMITES_BANDES = {0.9, 1.1, 1.42, 1.64, 2.0};
+
+    private long nombreFichiers;
+    private long nombreImagesValides;
+    private long tailleTotale;
+    private long tailleMin = Long.MAX_VALUE;
+    private long tailleMax = Long.MIN_VALUE;
+    private long dateMin = Long.MAX_VALUE; // Dates de modification en millisecondes
+    private long dateMax = Long.MIN_VALUE;
+    private boolean extremesExacts = true; // false après le retrait d'un fichier de taille ou de date extrême
+    private final Map<String, Long> nombreParExtension = new HashMap<>(); // ".png" -> nombre, "" sans extension
+    private final EsquisseQuantiles esquisseTailles = new EsquisseQuantiles();
+    private final EsquisseQuantiles esquissePixels = new EsquisseQuantiles(); // Largeur x hauteur
+    private final SortedMap<Integer, Long> nombreParMois = new TreeMap<>(); // aaaamm -> nombre
+    private final long[] nombreParBande = new long[BANDES_FORMAT.length];
+
+    /**
+     * Ajoute un fichier : il est valide si son type MIME détecté est celui d'une image prise en charge.
+     *
+     * @param fichier Le fichier à ajouter.
+     */
+    public void ajouter(Fichier fichier) {
+        ajouter(fichier.getNom(), fichier.getTaille(), fichier.getDateModificationMillis(),
+                fichier.getDimensionsConnues(), estImageValide(fichier));
+    }
+
+    /**
+     * Ajoute un fichier : il est valide si son extension est celle d'une image prise en charge.
+     *
+     * @param fichier Le fichier image à ajouter.
+     */
+    public void ajouter(ImageFile fichier) {
+        String extension = extension(fichier.getFileName());
+        ajouterExtension(extension, fichier.getFileSize(), fichier.getLastModifiedMillis(), null,
+                estExtensionImage(extension));
+    }
+
+    /**
+     * Ajoute un fichier décrit par son nom, sa taille, sa date de modification et ses dimensions.
+     *
+     * @param nom Le nom du fichier.
+     * @param taille La taille en octets (négative si inconnue : le fichier est compté sans sa taille).
+     * @param dateModification La date de modification en millisecondes (négative si inconnue).
+     * @param dimensions Les dimensions [largeur, hauteur], ou null si inconnues.
+     * @param valide true si le fichier est une image valide.
+     */
+    public void ajouter(String nom, long taille, long dateModification, int[] dimensions, boolean valide) {
+        ajouterExtension(extension(nom), taille, dateModification, dimensions, valide);
+    }
+
+    private void ajouterExtension(String extension, long taille, long dateModification, int[] dimensions,
+                                  boolean valide) {
+        nombreFichiers++;
+        if (valide) {
+            nombreImagesValides++;
+        }
+        if (taille >= 0) {
+            tailleTotale += taille;
+            tailleMin = Math.min(tailleMin, taille);
+            tailleMax = Math.max(tailleMax, taille);
+        }
+        if (dateModification >= 0) {
+            dateMin = Math.min(dateMin, dateModification);
+            dateMax = Math.max(dateMax, dateModification);
+        }
+        nombreParExtension.merge(extension, 1L, Long::sum);
+        esquisseTailles.ajouter(taille);
+        compterDistributions(dateModification, dimensions, 1);
+    }
+
+    /**
+     * Retire un fichier précédemment ajouté par {@link #ajouter(Fichier)}.
+     *
+     * @param fichier Le fichier à retirer.
+     */
+    public void retirer(Fichier fichier) {
+        retirer(fichier.getNom(), fichier.getTaille(), fichier.getDateModificationMillis(),
+                fichier.getDimensionsConnues(), estImageValide(fichier));
+    }
+
+    /**
+     * Retire un fichier précédemment ajouté, décrit comme lors de son ajout.
+     *
+     * @param nom Le nom du fichier.
+     * @param taille La taille en octets qui avait été ajoutée.
+     * @param dateModification La date de modification qui avait été ajoutée.
+     * @param dimensions Les dimensions qui avaient été ajoutées.
+     * @param valide true si le fichier avait été compté comme image valide.
+     */
+    public void retirer(String nom, long taille, long dateModification, int[] dimensions, boolean valide) {
+        nombreFichiers--;
+        if (valide) {
+            nombreImagesValides--;
+        }
+        if (taille >= 0) {
+            tailleTotale -= taille;
+            if (taille <= tailleMin || taille >= tailleMax) {
+                extremesExacts = false;
+            }
+        }
+        if (dateModification >= 0 && (dateModification <= dateMin || dateModification >= dateMax)) {
+            extremesExacts = false;
+        }
+        nombreParExtension.computeIfPresent(extension(nom), (extension, nombre) -> nombre > 1 ? nombre - 1 : null);
+        esquisseTailles.retirer(taille);
+        compterDistributions(dateModification, dimensions, -1);
+        if (nombreFichiers == 0) {
+            tailleMin = Long.MAX_VALUE;
+            tailleMax = Long.MIN_VALUE;
+            dateMin = Long.MAX_VALUE;
+            dateMax = Long.MIN_VALUE;
+            extremesExacts = true;
+        }
+    }
+
+    // Mois de modification, nombre de pixels et bande de format, ajoutés (sens 1) ou retirés (sens -1)
+    private void compterDistributions(long dateModification, int[] dimensions, int sens) {
+        if (dateModification >= 0) {
+            nombreParMois.merge(mois(dateModification), (long) sens, (a, b) -> a + b != 0 ? a + b : null);
+        }
+        if (dimensions != null && dimensions[0] > 0 && dimensions[1] > 0) {
+            long pixels = (long) dimensions[0] * dimensions[1];
+            if (sens > 0) {
+                esquissePixels.ajouter(pixels);
+            } else {
+                esquissePixels.retirer(pixels);
+            }
+            nombreParBande[bande((double) dimensions[0] / dimensions[1])] += sens;
+        }
+    }
+
+    /**
+     * Indique si les extrêmes (tailles et dates) sont exacts. Après le retrait
+     * d'un fichier qui en portait un, ils ne sont plus que des bornes.
+     *
+     * @return false si les statistiques doivent être recalculées pour connaître les extrêmes.
+     */
+    public boolean extremesExacts() {
+        return extremesExacts;
+    }
+
+    /**
+     * Retourne une copie indépendante de cet accumulateur.
+     *
+     * @return La copie.
+     */
+    public AccumulateurStatistiques copie() {
+        return new AccumulateurStatistiques().fusionner(this);
+    }
+
+    /**
+     * Ajoute à cet accumulateur les statistiques d'un autre.
+     *
+     * @param autre L'accumulateur à fusionner.
+     * @return Cet accumulateur.
+     */
+    public AccumulateurStatistiques fusionner(AccumulateurStatistiques autre) {
+        if (autre == null) {
+            throw new IllegalArgumentException("L'accumulateur à fusionner ne peut pas être null.");
+        }
+        nombreFichiers += autre.nombreFichiers;
+        nombreImagesValides += autre.nombreImagesValides;
+        tailleTotale += autre.tailleTotale;
+        tailleMin = Math.min(tailleMin, autre.tailleMin);
+        tailleMax = Math.max(tailleMax, autre.tailleMax);
+        dateMin = Math.min(dateMin, autre.dateMin);
+        dateMax = Math.max(dateMax, autre.dateMax);
+        extremesExacts &= autre.extremesExacts;
+        autre.nombreParExtension.forEach((extension, nombre) -> nombreParExtension.merge(extension, nombre, Long::sum));
+        esquisseTailles.fusionner(autre.esquisseTailles);
+        esquissePixels.fusionner(autre.esquissePixels);
+        autre.nombreParMois.forEach((mois, nombre) -> nombreParMois.merge(mois, nombre, Long::sum));
+        for (int i = 0; i < nombreParBande.length; i++) {
+            nombreParBande[i] += autre.nombreParBande[i];
+        }
+        return this;
+    }
+
+    /**
+     * Retourne un collecteur qui accumule les éléments d'un flux, séquentiel ou parallèle.
+     *
+     * @param ajout L'opération qui ajoute un élément à un accumulateur (par exemple
+     *              {@code AccumulateurStatistiques::ajouter}).
+     * @param <T> Le type des éléments.
+     * @return Le collecteur.
+     */
+    public static <T> Collector<T, AccumulateurStatistiques, AccumulateurStatistiques> collecteur(
+            BiConsumer<AccumulateurStatistiques, T> ajout) {
+        return Collector.of(AccumulateurStatistiques::new, ajout, AccumulateurStatistiques::fusionner,
+                Collector.Characteristics.IDENTITY_FINISH, Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Calcule en un passage les statistiques d'une liste de fichiers, en
+     * parallèle lorsque la liste est grande (le type MIME peut exiger la
+     * lecture de l'en-tête).
+     *
+     * @param fichiers Les fichiers.
+     * @return L'accumulateur rempli.
+     */
+    public static AccumulateurStatistiques pourFichiers(List<Fichier> fichiers) {
+        boolean parallele = ExecutionParallele.estParallele(fichiers.size(), Critere.COUT_ENTETE);
+        return (parallele ? fichiers.parallelStream() : fichiers.stream())
+                .collect(AccumulateurStatistiques.<Fichier>collecteur(AccumulateurStatistiques::ajouter));
+    }
+
+    /**
+     * Calcule en un passage les statistiques d'une liste de fichiers image, reconnus d'après leur extension.
+     *
+     * @param fichiers Les fichiers image.
+     * @return L'accumulateur rempli.
+     */
+    public static AccumulateurStatistiques pourImages(List<ImageFile> fichiers) {
+        boolean parallele = ExecutionParallele.estParallele(fichiers.size(), Critere.COUT_MEMOIRE);
+        return (parallele ? fichiers.parallelStream() : fichiers.stream())
+                .collect(AccumulateurStatistiques.<ImageFile>collecteur(AccumulateurStatistiques::ajouter));
+    }
+
+    public long getNombreFichiers() {
+        return nombreFichiers;
+    }
+
+    public long getNombreImagesValides() {
+        return nombreImagesValides;
+    }
+
+    public long getTailleTotale() {
+        return tailleTotale;
+    }
+
+    // Plus petite taille connue, 0 si aucune
+    public long getTailleMin() {
+        return tailleMax < 0 ? 0 : tailleMin;
+    }
+
+    // Plus grande taille connue, 0 si aucune
+    public long getTailleMax() {
+        return tailleMax < 0 ? 0 : tailleMax;
+    }
+
+    // Date de modification du fichier le plus ancien, -1 si aucune
+    public long getDateMin() {
+        return dateMax < 0 ? -1 : dateMin;
+    }
+
+    // Date de modification du fichier le plus récent, -1 si aucune
+    public long getDateMax() {
+        return dateMax < 0 ? -1 : dateMax;
+    }
+
+    /**
+     * Retourne le nombre de fichiers portant une extension.
+     *
+     * @param extension L'extension, avec ou sans point (ex. ".png"), sans tenir compte de la casse.
+     * @return Le nombre de fichiers.
+     */
+    public long getNombreParExtension(String extension) {
+        if (extension == null || extension.isEmpty()) {
+            throw new IllegalArgumentException("L'extension ne peut pas être null ou vide.");
+        }
+        String cle = extension.toLowerCase(Locale.ROOT);
+        return nombreParExtension.getOrDefault(cle.startsWith(".") ? cle : "." + cle, 0L);
+    }
+
+    /**
+     * Retourne le nombre de fichiers JPEG, qu'ils portent l'extension .jpeg ou .jpg.
+     *
+     * @return Le nombre de fichiers JPEG.
+     */
+    public long getNombreJpeg() {
+        return getNombreParExtension(".jpeg") + getNombreParExtension(".jpg");
+    }
+
+    /**
+     * Retourne le nombre de fichiers de chaque extension ("" pour les fichiers sans extension).
+     *
+     * @return Une vue non modifiable des compteurs.
+     */
+    public Map<String, Long> getNombreParExtension() {
+        return Collections.unmodifiableMap(nombreParExtension);
+    }
+
+    // Le type MIME est mémorisé par le fichier : un retrait le retrouve à l'identique
+    private static boolean estImageValide(Fichier fichier) {
+        String type = fichier.getTypeMime();
+        return "image/jpeg".equals(type) || "image/png".equals(type) || "image/webp".equals(type);
+    }
+
+    /**
+     * Retourne l'esquisse des tailles en octets : histogramme logarithmique et centiles
+     * (par exemple {@code getEsquisseTailles().quantile(0.9)}).
+     *
+     * @return L'esquisse, à ne pas modifier.
+     */
+    public EsquisseQuantiles getEsquisseTailles() {
+        return esquisseTailles;
+    }
+
+    /**
+     * Retourne l'esquisse des nombres de pixels (largeur x hauteur) des fichiers
+     * dont les dimensions sont connues.
+     *
+     * @return L'esquisse, à ne pas modifier.
+     */
+    public EsquisseQuantiles getEsquissePixels() {
+        return esquissePixels;
+    }
+
+    /**
+     * Retourne le nombre de fichiers modifiés chaque année.
+     *
+     * @return Les années (dans l'ordre) associées à leur nombre de fichiers.
+     */
+    public SortedMap<Integer, Long> getNombreParAnnee() {
+        SortedMap<Integer, Long> parAnnee = new TreeMap<>();
+        nombreParMois.forEach((mois, nombre) -> parAnnee.merge(mois / 100, nombre, Long::sum));
+        return parAnnee;
+    }
+
+    /**
+     * Retourne le nombre de fichiers modifiés chaque mois.
+     *
+     * @return Les mois, codés aaaamm (202403 pour mars 2024) et dans l'ordre,
+     *         associés à leur nombre de fichiers.
+     */
+    public SortedMap<Integer, Long> getNombreParMois() {
+        return Collections.unmodifiableSortedMap(nombreParMois);
+    }
+
+    /**
+     * Retourne le nombre d'images par bande de rapport largeur / hauteur :
+     * portrait (moins de 0,9), carré, 4:3, 3:2, 16:9 et panoramique (2 et plus).
+     *
+     * @return Les bandes, dans cet ordre, associées à leur nombre d'images.
+     */
+    public Map<String, Long> getNombreParBandeFormat() {
+        Map<String, Long> parBande = new LinkedHashMap<>();
+        for (int i = 0; i < BANDES_FORMAT.length; i++) {
+            parBande.put(BANDES_FORMAT[i], nombreParBande[i]);
+        }
+        return parBande;
+    }
+
+    /**
+     * Décrit les distributions : centiles et histogrammes des tailles et des
+     * mégapixels, nombre de fichiers par année (et par mois) et par bande de format.
+     *
+     * @return Le texte, une ligne par information.
+     */
+    public String decrireDistributions() {
+        StringBuilder texte = new StringBuilder();
+        if (esquisseTailles.getNombre() > 0) {
+            texte.append("Tailles : p50 = ").append(formaterTaille(esquisseTailles.quantile(0.5)))
+                    .append(", p90 = ").append(formaterTaille(esquisseTailles.quantile(0.9)))
+                    .append(", p99 = ").append(formaterTaille(esquisseTailles.quantile(0.99))).append('\n');
+            esquisseTailles.histogramme().forEach((borne, nombre) -> texte.append(String.format("  %8s - %-8s %d%n",
+                    formaterTaille(borne), formaterTaille(Math.max(1, borne * 2)), nombre)));
+        }
+        if (esquissePixels.getNombre() > 0) {
+            texte.append(String.format("Mégapixels (%d images aux dimensions connues) : p50 = %.1f, p90 = %.1f, p99 = %.1f%n",
+                    esquissePixels.getNombre(), esquissePixels.quantile(0.5) / 1e6, esquissePixels.quantile(0.9) / 1e6,
+                    esquissePixels.quantile(0.99) / 1e6));
+            esquissePixels.histogramme().forEach((borne, nombre) -> texte.append(String.format("  %8.2f - %-8.2f %d%n",
+                    borne / 1e6, Math.max(1, borne * 2) / 1e6, nombre)));
+            texte.append("Formats :");
+            getNombreParBandeFormat().forEach((bande, nombre) -> texte.append(' ').append(bande).append(" = ").append(nombre));
+            texte.append('\n');
+        }
+        if (!nombreParMois.isEmpty()) {
+            texte.append("Par année de modification :\n");
+            getNombreParAnnee().forEach((annee, nombre) -> {
+                texte.append("  ").append(annee).append(" : ").append(nombre).append("  (");
+                nombreParMois.subMap(annee * 100, annee * 100 + 100).forEach((mois, n) ->
+                        texte.append(String.format("%02d:%d ", mois % 100, n)));
+                texte.setLength(texte.length() - 1);
+                texte.append(")\n");
+            });
+        }
+        return texte.toString();
+    }
+
+    /**
+     * Formate une taille en octets avec les suffixes K, M et G (puissances de 1024).
+     *
+     * @param octets La taille.
+     * @return La taille lisible, par exemple "3.2M".
+     */
+    public static String formaterTaille(long octets) {
+        if (octets < 1024) {
+            return octets + "";
+        }
+        String unites = "KMG";
+        double valeur = octets;
+        int unite = -1;
+        while (valeur >= 1024 && unite < unites.length() - 1) {
+            valeur /= 1024;
+            unite++;
+        }
+        return String.format("%.1f%c", valeur, unites.charAt(unite));
+    }
+
+    private static int bande(double rapport) {
+        int bande = 0;
+        while (bande < LIMITES_BANDES.length && rapport >= LIMITES_BANDES[bande]) {
+            bande++;
+        }
+        return bande;
+    }
+
+    private static int mois(long millis) {
+        LocalDate date = Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault()).toLocalDate();
+        return date.getYear() * 100 + date.getMonthValue();
+    }
+
+    /**
+     * Indique si une extension (en minuscules, avec son point) est celle d'une image prise en charge.
+     *
+     * @param extension L'extension.
+     * @return true pour .png, .jpeg, .jpg et .webp.
+     */
+    public static boolean estExtensionImage(String extension) {
+        return extension.equals(".png") || extension.equals(".jpeg") || extension.equals(".jpg")
+                || extension.equals(".webp");
+    }
+
+    /**
+     * Retourne l'extension d'un nom, en minuscules et avec son point.
+     *
+     * @param nom Le nom du fichier.
+     * @return L'extension, ou "" si le nom n'en a pas.
+     */
+    public static String extension(String nom) {
+        int point = nom.lastIndexOf('.');
+        return point < 0 ? "" : nom.substring(point).toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public String toString() {
+        return "AccumulateurStatistiques {" +
+                "fichiers=" + nombreFichiers +
+                ", images valides=" + nombreImagesValides +
+                ", taille totale=" + tailleTotale +
+                ", extensions=" + nombreParExtension +
+                '}';
+    }
+}
@@ -0,0 +1,349 @@
+package data;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache persistant des métadonnées et statistiques de fichiers.
+ * 
+ * Chaque entrée est associée au chemin absolu du fichier et n'est valable que
+ * si la taille et la date de modification n'ont pas changé depuis son
+ * enregistrement. Le cache est stocké dans un journal binaire compact : les
+ * nouvelles entrées sont ajoutées en fin de fichier, et le journal est réécrit
+ * (compacté) à la fermeture lorsqu'il contient trop d'entrées obsolètes.
+ * Le nombre d'entrées est plafonné : les moins récemment utilisées sont
+ * retirées en premier.
+ * 
+ * @author Youmna Saad et Seyda Ann
+ */
+public class CacheMetaDonnees implements Closeable {
+
+    /**
+     * Nombre maximal d'entrées par défaut.
+     */
+    public static final int TAILLE_MAX_PAR_DEFAUT = 2_000_000;
+
+    private static final int MAGIQUE = 0x504D4443; // "PMDC"
+    private static final int VERSION = 2; // 2 : position GPS numérique
+    private static final int LONGUEUR_TEXTE_MAX = 16_384; // Garantit la limite de 64 Ko de writeUTF
+
+    private final Path chemin; // Fichier du journal
+    private final int tailleMax; // Nombre maximal d'entrées conservées
+    private final Map<String, Entree> entrees; // Entrées valides, de la moins à la plus récemment utilisée
+    private DataOutputStream journal; // Flux d'ajout, ouvert à la première écriture
+    private long enregistrements; // Nombre d'enregistrements présents dans le journal
+
+    /**
+     * Ouvre (ou crée) un cache avec la taille maximale par défaut. Un cache
+     * illisible ou endommagé est reconstruit.
+     *
+     * @param fichier Le fichier du cache.
+     */
+    public CacheMetaDonnees(File fichier) {
+        this(fichier, TAILLE_MAX_PAR_DEFAUT);
+    }
+
+    /**
+     * Ouvre (ou crée) un cache. Un cache illisible ou endommagé est reconstruit.
+     *
+     * @param fichier Le fichier du cache.
+     * @param tailleMax Le nombre maximal d'entrées conservées.
+     */
+    public CacheMetaDonnees(File fichier, int tailleMax) {
+        if (fichier == null) {
+            throw new IllegalArgumentException("Le fichier du cache ne peut pas être null.");
+        }
+        if (tailleMax <= 0) {
+            throw new IllegalArgumentException("La taille maximale doit être strictement positive.");
+        }
+        this.chemin = fichier.toPath();
+        this.tailleMax = tailleMax;
+        this.entrees = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entree> plusAncienne) {
+                return size() > CacheMetaDonnees.this.tailleMax;
+            }
+        };
+        charger();
+    }
+
+    /**
+     * Retourne le fichier par défaut du cache, dans le répertoire de l'utilisateur.
+     *
+     * @return Le fichier du cache par défaut.
+     */
+    public static File fichierParDefaut() {
+        return new File(System.getProperty("user.home"), ".projet-metadonnees.cache");
+    }
+
+    /**
+     * Recherche les métadonnées d'un fichier inchangé.
+     *
+     * @param file Le fichier.
+     * @param taille Sa taille actuelle.
+     * @param modification Sa date de modification actuelle (millisecondes).
+     * @return Les métadonnées en cache, ou null si absentes ou obsolètes.
+     */
+    public synchronized MetaDonnees getMetaDonnees(File file, long taille, long modification) {
+        Entree entree = valide(file, taille, modification);
+        return entree != null ? entree.metaDonnees : null;
+    }
+
+    /**
+     * Recherche les statistiques d'un fichier inchangé.
+     *
+     * @param file Le fichier.
+     * @param taille Sa taille actuelle.
+     * @param modification Sa date de modification actuelle (millisecondes).
+     * @return Les statistiques en cache, ou null si absentes ou obsolètes.
+     */
+    public synchronized StatistiquesFichier getStatistiques(File file, long taille, long modification) {
+        Entree entree = valide(file, taille, modification);
+        return entree != null ? entree.statistiques : null;
+    }
+
+    /**
+     * Enregistre les métadonnées d'un fichier.
+     *
+     * @param file Le fichier.
+     * @param taille Sa taille.
+     * @param modification Sa date de modification (millisecondes).
+     * @param metaDonnees Les métadonnées extraites.
+     */
+    public synchronized void enregistrer(File file, long taille, long modification, MetaDonnees metaDonnees) {
+        Entree entree = preparer(file, taille, modification);
+        entree.metaDonnees = metaDonnees;
+        ecrire(file.getAbsolutePath(), entree);
+    }
+
+    /**
+     * Enregistre les statistiques d'un fichier.
+     *
+     * @param file Le fichier.
+     * @param taille Sa taille.
+     * @param modification Sa date de modification (millisecondes).
+     * @param statistiques Les statistiques calculées.
+     */
+    public synchronized void enregistrer(File file, long taille, long modification, StatistiquesFichier statistiques) {
+        Entree entree = preparer(file, taille, modification);
+        entree.statistiques = statistiques;
+        ecrire(file.getAbsolutePath(), entree);
+    }
+
+    /**
+     * Retourne le nombre d'entrées valides en mémoire.
+     *
+     * @return Le nombre d'entrées.
+     */
+    public synchronized int taille() {
+        return entrees.size();
+    }
+
+    private Entree valide(File file, long taille, long modification) {
+        Entree entree = entrees.get(file.getAbsolutePath());
+        return entree != null && entree.taille == taille && entree.modification == modification ? entree : null;
+    }
+
+    private Entree preparer(File file, long taille, long modification) {
+        Entree entree = valide(file, taille, modification);
+        if (entree == null) {
+            entree = new Entree(taille, modification);
+            entrees.put(file.getAbsolutePath(), entree);
+        }
+        return entree;
+    }
+
+    private void ecrire(String cle, Entree entree) {
+        try {
+            if (journal == null) {
+                boolean nouveau = !Files.exists(chemin) || Files.size(chemin) == 0;
+                journal = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(chemin,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+                if (nouveau) {
+                    ecrireEnTete(journal);
+                }
+            }
+            ecrireEntree(journal, cle, entree);
+            enregistrements++;
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'écriture du cache : " + e.getMessage());
+        }
+    }
+
+    private void charger() {
+        if (!Files.exists(chemin)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(chemin)))) {
+            if (in.readInt() == MAGIQUE && in.readInt() == VERSION) {
+                while (!finDeFichier(in)) {
+                    String cle = in.readUTF();
+                    entrees.put(cle, lireEntree(in));
+                    enregistrements++;
+                }
+                return;
+            }
+            // Autre format : le journal est remplacé par un journal vide
+            System.err.println("Cache de métadonnées incompatible, il sera reconstruit : " + chemin);
+        } catch (IOException | RuntimeException e) {
+            // Journal tronqué (arrêt brutal) ou illisible : les entrées lues jusque-là restent valables
+            System.err.println("Cache de métadonnées endommagé, il sera reconstruit : " + chemin);
+        }
+        reconstruire();
+    }
+
+    // Vrai si le journal s'arrête exactement entre deux enregistrements
+    private static boolean finDeFichier(DataInputStream in) throws IOException {
+        in.mark(1);
+        if (in.read() < 0) {
+            return true;
+        }
+        in.reset();
+        return false;
+    }
+
+    // Réécrit aussitôt le journal avec les seules entrées lues, pour que les ajouts suivants restent lisibles
+    private void reconstruire() {
+        try {
+            compacter();
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la reconstruction du cache : " + e.getMessage());
+            entrees.clear();
+            enregistrements = 0;
+            try {
+                Files.deleteIfExists(chemin);
+            } catch (IOException suppression) {
+                System.err.println("Erreur lors de la suppression du cache : " + suppression.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Réécrit le journal en ne gardant que les entrées valides.
+     *
+     * @throws IOException En cas d'erreur d'écriture.
+     */
+    public synchronized void compacter() throws IOException {
+        fermerJournal();
+        Path temporaire = chemin.resolveSibling(chemin.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaire)))) {
+            ecrireEnTete(out);
+            for (Map.Entry<String, Entree> entree : entrees.entrySet()) {
+                ecrireEntree(out, entree.getKey(), entree.getValue());
+            }
+        }
+        Files.move(temporaire, chemin, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        enregistrements = entrees.size();
+    }
+
+    /**
+     * Ferme le cache, en le compactant si plus de la moitié du journal est obsolète.
+     *
+     * @throws IOException En cas d'erreur d'écriture.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (enregistrements > 2L * entrees.size()) {
+            compacter();
+        } else {
+            fermerJournal();
+        }
+    }
+
+    private void fermerJournal() throws IOException {
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
+    }
+
+    private static void ecrireEnTete(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIQUE);
+        out.writeInt(VERSION);
+    }
+
+    private static void ecrireEntree(DataOutputStream out, String cle, Entree entree) throws IOException {
+        out.writeUTF(cle);
+        out.writeLong(entree.taille);
+        out.writeLong(entree.modification);
+
+        MetaDonnees meta = entree.metaDonnees;
+        out.writeBoolean(meta != null);
+        if (meta != null) {
+            int[] dims = meta.getDimensions();
+            out.writeInt(dims != null ? dims[0] : 0);
+            out.writeInt(dims != null ? dims[1] : 0);
+            ecrireTexte(out, meta.getDescription());
+            out.writeBoolean(meta.hasPosition());
+            if (meta.hasPosition()) {
+                out.writeDouble(meta.getLatitude());
+                out.writeDouble(meta.getLongitude());
+            }
+            ecrireTexte(out, meta.getResolution());
+            out.writeBoolean(meta.isMiniatureExist());
+        }
+
+        StatistiquesFichier stats = entree.statistiques;
+        out.writeBoolean(stats != null);
+        if (stats != null) {
+            out.writeLong(stats.getTaille());
+            ecrireTexte(out, stats.getTypeMime());
+            ecrireTexte(out, stats.getDateModification());
+        }
+    }
+
+    private static Entree lireEntree(DataInputStream in) throws IOException {
+        Entree entree = new Entree(in.readLong(), in.readLong());
+        if (in.readBoolean()) {
+            int[] dims = {in.readInt(), in.readInt()};
+            String description = lireTexte(in);
+            double[] position = in.readBoolean() ? new double[]{in.readDouble(), in.readDouble()} : null;
+            MetaDonnees meta = new MetaDonnees(dims, description, null, lireTexte(in), in.readBoolean());
+            if (position != null) {
+                meta.setPosition(position[0], position[1]);
+            }
+            entree.metaDonnees = meta;
+        }
+        if (in.readBoolean()) {
+            entree.statistiques = new StatistiquesFichier(in.readLong(), lireTexte(in), lireTexte(in));
+        }
+        return entree;
+    }
+
+    private static void ecrireTexte(DataOutputStream out, String texte) throws IOException {
+        out.writeBoolean(texte != null);
+        if (texte != null) {
+            out.writeUTF(texte.length() > LONGUEUR_TEXTE_MAX ? texte.substring(0, LONGUEUR_TEXTE_MAX) : texte);
+        }
+    }
+
+    private static String lireTexte(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * Entrée du cache, valable pour une taille et une date de modification données.
+     */
+    private static final class Entree {
+        private final long taille;
+        private final long modification;
+        private MetaDonnees metaDonnees;
+        private StatistiquesFichier statistiques;
+
+        private Entree(long taille, long modification) {
+            this.taille = taille;
+            this.modification = modification;
+        }
+    }
+}
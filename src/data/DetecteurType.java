@@ -0,0 +1,145 @@
+package data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Détecteur du type MIME d'un fichier à partir de ses premiers octets.
+ * 
+ * Contrairement à {@link Files#probeContentType}, dont le résultat dépend des
+ * fournisseurs installés sur la machine et se limite souvent à l'extension,
+ * la détection repose sur les signatures (« magic bytes ») des formats :
+ * elle est déterministe et ne coûte qu'une petite lecture par fichier.
+ * PNG, JPEG et WebP sont reconnus par défaut ; d'autres formats peuvent être
+ * ajoutés avec {@link #enregistrer(Signature)}.
+ * 
+ * @author Youmna Saad et Seyda Ann
+ */
+public final class DetecteurType {
+
+    /**
+     * Nombre d'octets lus en tête de fichier.
+     */
+    private static final int TAILLE_ENTETE = 16;
+
+    /**
+     * Tampon réutilisé par chaque thread pour éviter une allocation par fichier.
+     */
+    private static final ThreadLocal<byte[]> TAMPON = ThreadLocal.withInitial(() -> new byte[TAILLE_ENTETE]);
+
+    /**
+     * Signatures connues, testées dans l'ordre.
+     */
+    private static final List<Signature> SIGNATURES = new CopyOnWriteArrayList<>(List.of(
+            new Signature("image/png").motif(0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A),
+            new Signature("image/jpeg").motif(0, 0xFF, 0xD8, 0xFF),
+            new Signature("image/webp").motif(0, 'R', 'I', 'F', 'F').motif(8, 'W', 'E', 'B', 'P')
+    ));
+
+    private DetecteurType() {
+    }
+
+    /**
+     * Détermine le type MIME d'un fichier d'après ses premiers octets.
+     *
+     * @param file Le fichier à analyser.
+     * @return Le type MIME reconnu, ou null si aucune signature ne correspond.
+     * @throws IOException En cas d'erreur de lecture du fichier.
+     */
+    public static String detecter(File file) throws IOException {
+        byte[] entete = TAMPON.get();
+        int lus;
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            lus = in.readNBytes(entete, 0, TAILLE_ENTETE);
+        }
+
+        for (Signature signature : SIGNATURES) {
+            if (signature.correspond(entete, lus)) {
+                return signature.getTypeMime();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Ajoute une signature reconnue par le détecteur.
+     *
+     * @param signature La signature à ajouter.
+     * @throws IllegalArgumentException Si la signature dépasse la taille de l'en-tête lu.
+     */
+    public static void enregistrer(Signature signature) {
+        if (signature == null || signature.longueur() > TAILLE_ENTETE) {
+            throw new IllegalArgumentException("La signature doit tenir dans les " + TAILLE_ENTETE + " premiers octets.");
+        }
+        SIGNATURES.add(signature);
+    }
+
+    /**
+     * Signature d'un format : un ou plusieurs motifs d'octets à des positions fixes.
+     */
+    public static final class Signature {
+        private final String typeMime; // Type MIME associé au format
+        private final List<int[]> motifs = new ArrayList<>(); // Motifs : [décalage, octet, octet, ...]
+
+        /**
+         * Crée une signature sans motif pour un type MIME.
+         *
+         * @param typeMime Le type MIME reconnu par cette signature.
+         */
+        public Signature(String typeMime) {
+            this.typeMime = typeMime;
+        }
+
+        /**
+         * Ajoute un motif d'octets attendu à une position donnée.
+         *
+         * @param decalage Position du premier octet du motif.
+         * @param octets Les octets attendus (0 à 255).
+         * @return Cette signature, pour enchaîner les motifs.
+         */
+        public Signature motif(int decalage, int... octets) {
+            int[] motif = new int[octets.length + 1];
+            motif[0] = decalage;
+            System.arraycopy(octets, 0, motif, 1, octets.length);
+            motifs.add(motif);
+            return this;
+        }
+
+        /**
+         * Retourne le type MIME reconnu par cette signature.
+         *
+         * @return Le type MIME.
+         */
+        public String getTypeMime() {
+            return typeMime;
+        }
+
+        private int longueur() {
+            int longueur = 0;
+            for (int[] motif : motifs) {
+                longueur = Math.max(longueur, motif[0] + motif.length - 1);
+            }
+            return longueur;
+        }
+
+        private boolean correspond(byte[] entete, int lus) {
+            for (int[] motif : motifs) {
+                int decalage = motif[0];
+                if (decalage + motif.length - 1 > lus) {
+                    return false;
+                }
+                for (int i = 1; i < motif.length; i++) {
+                    if ((entete[decalage + i - 1] & 0xFF) != motif[i]) {
+                        return false;
+                    }
+                }
+            }
+            return !motifs.isEmpty();
+        }
+    }
+}
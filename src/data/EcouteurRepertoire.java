@@ -0,0 +1,29 @@
+package data;
+
+/**
+ * Écouteur notifié des changements de contenu d'un {@link Repertoire}.
+ * 
+ * Une modification de fichier est signalée par un retrait de l'ancienne
+ * version suivi d'un ajout de la nouvelle. Les notifications sont émises sur
+ * le thread qui modifie le répertoire (par exemple celui de
+ * {@link SurveillanceRepertoire}) : un écouteur d'interface graphique doit
+ * donc repasser sur son propre thread.
+ * 
+ * @author Youmna Saad et Seyda Ann
+ */
+public interface EcouteurRepertoire {
+
+    /**
+     * Appelé lorsqu'un fichier image apparaît dans l'arborescence.
+     *
+     * @param fichier Le fichier ajouté.
+     */
+    void fichierAjoute(Fichier fichier);
+
+    /**
+     * Appelé lorsqu'un fichier image quitte l'arborescence.
+     *
+     * @param fichier Le fichier retiré.
+     */
+    void fichierRetire(Fichier fichier);
+}
@@ -0,0 +1,148 @@
+package data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Esquisse de la distribution de valeurs entières positives (tailles en
+ * octets, nombres de pixels), à la manière d'un histogramme HDR.
+ *
+ * Chaque puissance de deux est découpée en {@value #SOUS_INTERVALLES}
+ * intervalles de même largeur ; les valeurs inférieures sont comptées
+ * exactement. Un intervalle n'est jamais plus large que 1/32 des valeurs
+ * qu'il contient : un quantile est donc connu à 1,6 % près, quels que soient
+ * la distribution et le nombre de valeurs. La mémoire est bornée par le
+ * nombre d'intervalles occupés (quelques centaines au plus pour des tailles
+ * de fichiers).
+ *
+ * Les intervalles ne sont que des compteurs : deux esquisses se fusionnent
+ * par addition et une valeur se retire par soustraction, sans aucune perte
+ * de précision, contrairement à un t-digest.
+ *
+ * @author Youmna Saad et Seyda Ann
+ */
+public class EsquisseQuantiles implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final int PRECISION = 5;
+    private static final int SOUS_INTERVALLES = 1 << PRECISION; // Intervalles par puissance de deux
+
+    private final Map<Integer, Long> compteurs = new HashMap<>(); // Numéro d'intervalle -> nombre de valeurs
+    private long nombre;
+
+    /**
+     * Ajoute une valeur. Les valeurs négatives (inconnues) sont ignorées.
+     *
+     * @param valeur La valeur à ajouter.
+     */
+    public void ajouter(long valeur) {
+        if (valeur >= 0) {
+            compteurs.merge(intervalle(valeur), 1L, Long::sum);
+            nombre++;
+        }
+    }
+
+    /**
+     * Retire une valeur précédemment ajoutée.
+     *
+     * @param valeur La valeur à retirer.
+     */
+    public void retirer(long valeur) {
+        if (valeur >= 0) {
+            compteurs.computeIfPresent(intervalle(valeur), (i, n) -> n > 1 ? n - 1 : null);
+            nombre--;
+        }
+    }
+
+    /**
+     * Ajoute à cette esquisse les valeurs d'une autre.
+     *
+     * @param autre L'esquisse à fusionner.
+     * @return Cette esquisse.
+     */
+    public EsquisseQuantiles fusionner(EsquisseQuantiles autre) {
+        if (autre == null) {
+            throw new IllegalArgumentException("L'esquisse à fusionner ne peut pas être null.");
+        }
+        autre.compteurs.forEach((intervalle, n) -> compteurs.merge(intervalle, n, Long::sum));
+        nombre += autre.nombre;
+        return this;
+    }
+
+    /**
+     * Retourne le nombre de valeurs de l'esquisse.
+     *
+     * @return Le nombre de valeurs.
+     */
+    public long getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Retourne une estimation d'un quantile : le milieu de l'intervalle qui
+     * contient la valeur de ce rang.
+     *
+     * @param q Le quantile voulu, entre 0 et 1 (0.5 pour la médiane, 0.99 pour le 99e centile).
+     * @return La valeur estimée, ou -1 si l'esquisse est vide.
+     */
+    public long quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Le quantile doit être compris entre 0 et 1.");
+        }
+        if (nombre <= 0) {
+            return -1;
+        }
+        long rang = Math.max(1, (long) Math.ceil(q * nombre));
+        List<Integer> intervalles = new ArrayList<>(compteurs.keySet());
+        Collections.sort(intervalles);
+        long cumul = 0;
+        for (int intervalle : intervalles) {
+            cumul += compteurs.get(intervalle);
+            if (cumul >= rang) {
+                return borneInferieure(intervalle) + (largeur(intervalle) - 1) / 2;
+            }
+        }
+        int dernier = intervalles.get(intervalles.size() - 1);
+        return borneInferieure(dernier) + (largeur(dernier) - 1) / 2;
+    }
+
+    /**
+     * Retourne l'histogramme des valeurs par puissance de deux (échelle logarithmique).
+     *
+     * @return Pour chaque classe occupée, sa borne inférieure (0, 1, 2, 4, 8...)
+     *         associée au nombre de valeurs comprises entre cette borne et la suivante.
+     */
+    public SortedMap<Long, Long> histogramme() {
+        SortedMap<Long, Long> classes = new TreeMap<>();
+        compteurs.forEach((intervalle, n) -> classes.merge(Long.highestOneBit(borneInferieure(intervalle)), n, Long::sum));
+        return classes;
+    }
+
+    // Les petites valeurs ont chacune leur intervalle ; au-delà, PRECISION bits après le bit de poids fort
+    private static int intervalle(long valeur) {
+        if (valeur < SOUS_INTERVALLES) {
+            return (int) valeur;
+        }
+        int exposant = 63 - Long.numberOfLeadingZeros(valeur);
+        int sousIntervalle = (int) (valeur >>> (exposant - PRECISION)) & (SOUS_INTERVALLES - 1);
+        return (exposant - PRECISION + 1) * SOUS_INTERVALLES + sousIntervalle;
+    }
+
+    private static long borneInferieure(int intervalle) {
+        if (intervalle < SOUS_INTERVALLES) {
+            return intervalle;
+        }
+        int decalage = intervalle / SOUS_INTERVALLES - 1;
+        return (long) (SOUS_INTERVALLES + intervalle % SOUS_INTERVALLES) << decalage;
+    }
+
+    private static long largeur(int intervalle) {
+        return intervalle < SOUS_INTERVALLES ? 1 : 1L << (intervalle / SOUS_INTERVALLES - 1);
+    }
+}
@@ -0,0 +1,349 @@
+package data;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Estimation des statistiques d'une très grande arborescence sans la parcourir entièrement.
+ *
+ * L'estimateur descend plusieurs fois de la racine vers une feuille en
+ * choisissant à chaque niveau un sous-répertoire au hasard (estimateur de
+ * Knuth). Le contenu de chaque répertoire traversé compte autant de fois
+ * qu'il y avait de choix possibles jusqu'à lui (produit du nombre de
+ * sous-répertoires des répertoires au-dessus) : chaque descente donne une
+ * estimation sans biais des totaux. Les descentes étant indépendantes,
+ * l'écart entre leurs estimations donne l'intervalle de confiance de la
+ * moyenne, qui se resserre à mesure qu'elles s'accumulent.
+ *
+ * Dans chaque répertoire traversé, les fichiers image sont comptés d'après
+ * leur nom (sans lecture de leur contenu), et seule la taille d'un
+ * échantillon aléatoire d'au plus {@link #ECHANTILLON_FICHIERS} d'entre eux
+ * est lue. Un répertoire n'est listé qu'une fois, même s'il est traversé par
+ * plusieurs descentes : l'erreur de son échantillon est la même pour toutes
+ * et n'apparaît donc pas dans l'écart entre descentes. La variance de cet
+ * échantillon est estimée elle aussi par les descentes, et ajoutée à celle de
+ * la taille totale.
+ *
+ * L'estimation s'arrête dès que la précision voulue est atteinte pour le
+ * nombre de fichiers et la taille totale, ou à la fin du temps accordé. Si
+ * tous les répertoires ont été listés avant, les totaux sont exacts : les
+ * tailles non encore lues le sont alors, dans la limite du temps restant.
+ *
+ * @author Youmna Saad et Seyda Ann
+ */
+public class EstimateurStatistiques {
+
+    /** Nombre maximal de fichiers dont la taille est lue dans chaque répertoire. */
+    public static final int ECHANTILLON_FICHIERS = 16;
+
+    private static final int PARCOURS_MIN = 30; // En deçà, l'écart entre descentes n'est pas fiable
+    private static final double Z_95 = 1.96;
+    private static final String[] FORMATS = {"PNG", "JPEG", "WEBP"};
+
+    private final Path racine;
+    private final FiltreParcours filtre;
+    private final Random hasard;
+    private final Map<Path, Noeud> noeuds = new HashMap<>();
+    private final Set<Path> aLister = new HashSet<>(); // Sous-répertoires découverts mais pas encore listés
+
+    /**
+     * Crée un estimateur pour une arborescence.
+     *
+     * @param racine Le répertoire racine.
+     * @param filtre Les règles d'inclusion et d'exclusion à appliquer.
+     * @throws IOException Si le répertoire est invalide ou inaccessible.
+     */
+    public EstimateurStatistiques(File racine, FiltreParcours filtre) throws IOException {
+        this(racine, filtre, new Random());
+    }
+
+    /**
+     * Crée un estimateur dont les tirages sont reproductibles.
+     *
+     * @param racine Le répertoire racine.
+     * @param filtre Les règles d'inclusion et d'exclusion à appliquer.
+     * @param hasard Le générateur des tirages.
+     * @throws IOException Si le répertoire est invalide ou inaccessible.
+     */
+    public EstimateurStatistiques(File racine, FiltreParcours filtre, Random hasard) throws IOException {
+        if (racine == null || !racine.isDirectory()) {
+            throw new IOException("Répertoire invalide ou inexistant.");
+        }
+        if (filtre == null || hasard == null) {
+            throw new IllegalArgumentException("Le filtre et le générateur ne peuvent pas être null.");
+        }
+        this.racine = racine.toPath();
+        this.filtre = filtre;
+        this.hasard = hasard;
+    }
+
+    /**
+     * Estime les statistiques de l'arborescence.
+     *
+     * @param precision La marge relative visée pour le nombre de fichiers et la
+     *                  taille totale (0.01 pour ± 1 %).
+     * @param budget Le temps maximal accordé ; les estimations sont rendues avec
+     *               la précision atteinte s'il est épuisé.
+     * @return Les statistiques estimées.
+     */
+    public StatistiquesEstimees estimer(double precision, Duration budget) {
+        if (precision <= 0 || budget == null || budget.isNegative()) {
+            throw new IllegalArgumentException("La précision doit être strictement positive et le budget positif.");
+        }
+        long debut = System.nanoTime();
+        long fin = debut + budget.toNanos();
+
+        // Par mesure : somme et somme des carrés des estimations de chaque descente
+        Moyenne nombre = new Moyenne();
+        Moyenne octets = new Moyenne();
+        Moyenne[] parFormat = {new Moyenne(), new Moyenne(), new Moyenne()};
+        Moyenne varianceEchantillons = new Moyenne(); // Somme des variances des échantillons de tailles
+        long parcours = 0;
+        do {
+            double[] estimation = parcourir();
+            nombre.ajouter(estimation[0]);
+            octets.ajouter(estimation[1]);
+            for (int i = 0; i < FORMATS.length; i++) {
+                parFormat[i].ajouter(estimation[2 + i]);
+            }
+            varianceEchantillons.ajouter(estimation[2 + FORMATS.length]);
+            parcours++;
+            if (aLister.isEmpty()) {
+                // Tous les répertoires sont listés : les descentes n'apprendraient plus rien
+                return totaux(parcours, debut, fin);
+            }
+        } while (System.nanoTime() < fin && (parcours < PARCOURS_MIN || !nombre.precise(precision, 0)
+                || !octets.precise(precision, varianceEchantillons.moyenne())));
+
+        Map<String, StatistiquesEstimees.Estimation> formats = new LinkedHashMap<>();
+        for (int i = 0; i < FORMATS.length; i++) {
+            formats.put(FORMATS[i], parFormat[i].estimation(0));
+        }
+        return new StatistiquesEstimees(nombre.estimation(0), octets.estimation(varianceEchantillons.moyenne()),
+                formats, parcours, noeuds.size(), (System.nanoTime() - debut) / 1_000_000);
+    }
+
+    /**
+     * Totaux de l'arborescence entièrement listée : les nombres de fichiers sont
+     * exacts ; les tailles encore estimées sont lues tant que le temps le permet.
+     */
+    private StatistiquesEstimees totaux(long parcours, long debut, long fin) {
+        long nombre = 0;
+        long[] parFormat = new long[FORMATS.length];
+        double octets = 0;
+        double variance = 0;
+        for (Noeud noeud : noeuds.values()) {
+            if (noeud.nonLues != null && System.nanoTime() < fin) {
+                lireTailles(noeud);
+            }
+            nombre += noeud.nombreImages;
+            for (int i = 0; i < FORMATS.length; i++) {
+                parFormat[i] += noeud.nombreParFormat[i];
+            }
+            octets += noeud.octets;
+            variance += noeud.varianceOctets;
+        }
+
+        Map<String, StatistiquesEstimees.Estimation> formats = new LinkedHashMap<>();
+        for (int i = 0; i < FORMATS.length; i++) {
+            formats.put(FORMATS[i], new StatistiquesEstimees.Estimation(parFormat[i], 0));
+        }
+        return new StatistiquesEstimees(new StatistiquesEstimees.Estimation(nombre, 0),
+                new StatistiquesEstimees.Estimation(octets, Z_95 * Math.sqrt(variance)), formats, parcours,
+                noeuds.size(), (System.nanoTime() - debut) / 1_000_000);
+    }
+
+    /**
+     * Descend de la racine vers une feuille au hasard.
+     *
+     * @return Les estimations de cette descente : nombre de fichiers, octets,
+     *         nombre de fichiers de chaque format, puis somme des variances des
+     *         échantillons de tailles.
+     */
+    private double[] parcourir() {
+        double[] estimation = new double[3 + FORMATS.length];
+        Path courant = racine;
+        double poids = 1; // Inverse de la probabilité d'atteindre le répertoire courant
+        while (true) {
+            Noeud noeud = lister(courant);
+            estimation[0] += poids * noeud.nombreImages;
+            estimation[1] += poids * noeud.octets;
+            for (int i = 0; i < FORMATS.length; i++) {
+                estimation[2 + i] += poids * noeud.nombreParFormat[i];
+            }
+            estimation[2 + FORMATS.length] += poids * noeud.varianceOctets;
+            if (noeud.sousRepertoires.isEmpty()) {
+                return estimation;
+            }
+            poids *= noeud.sousRepertoires.size();
+            courant = noeud.sousRepertoires.get(hasard.nextInt(noeud.sousRepertoires.size()));
+        }
+    }
+
+    /**
+     * Liste un répertoire (une seule fois) : ses sous-répertoires, le nombre de
+     * ses fichiers image par format et leur taille totale, extrapolée d'un échantillon.
+     */
+    private Noeud lister(Path repertoire) {
+        Noeud noeud = noeuds.get(repertoire);
+        if (noeud != null) {
+            return noeud;
+        }
+        noeud = new Noeud();
+        noeuds.put(repertoire, noeud);
+        aLister.remove(repertoire);
+
+        List<Path> images = new ArrayList<>();
+        try (DirectoryStream<Path> entrees = Files.newDirectoryStream(repertoire)) {
+            for (Path entree : entrees) {
+                String extension = AccumulateurStatistiques.extension(entree.getFileName().toString());
+                if (AccumulateurStatistiques.estExtensionImage(extension)) {
+                    // Nom d'image : compté sans lire ses attributs
+                    if (filtre.accepterFichier(entree)) {
+                        images.add(entree);
+                        noeud.nombreParFormat[format(extension)]++;
+                    }
+                    continue;
+                }
+                try {
+                    BasicFileAttributes attrs = Files.readAttributes(entree, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    if (attrs.isDirectory() && filtre.accepterRepertoire(entree)) {
+                        noeud.sousRepertoires.add(entree);
+                        if (!noeuds.containsKey(entree)) {
+                            aLister.add(entree);
+                        }
+                    }
+                } catch (IOException e) {
+                    System.err.println("Erreur lors de l'accès à : " + entree + " - " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'accès à : " + repertoire + " - " + e.getMessage());
+        }
+        noeud.nombreImages = images.size();
+
+        // Taille moyenne d'un échantillon tiré sans remise, appliquée à tous les fichiers du répertoire
+        if (images.size() > ECHANTILLON_FICHIERS) {
+            Collections.shuffle(images, hasard);
+        }
+        int taille = Math.min(ECHANTILLON_FICHIERS, images.size());
+        double somme = 0;
+        double sommeCarres = 0;
+        int lus = 0;
+        for (Path image : images.subList(0, taille)) {
+            long octets = lireTaille(image);
+            if (octets >= 0) {
+                somme += octets;
+                sommeCarres += (double) octets * octets;
+                lus++;
+            }
+        }
+        double moyenne = lus > 0 ? somme / lus : 0;
+        noeud.octets = moyenne * images.size();
+        if (taille < images.size()) {
+            noeud.nonLues = new ArrayList<>(images.subList(taille, images.size()));
+            noeud.sommeLues = somme;
+            // Variance du total extrapolé, avec correction pour un tirage sans remise
+            double varianceTailles = lus > 1 ? Math.max(0, (sommeCarres - somme * moyenne) / (lus - 1))
+                    : moyenne * moyenne; // Un seul fichier lu : dispersion supposée de l'ordre de la moyenne
+            double n = Math.max(1, lus);
+            noeud.varianceOctets = (double) images.size() * images.size() * (1 - n / images.size()) * varianceTailles / n;
+        }
+        return noeud;
+    }
+
+    // Lit les tailles restantes d'un répertoire : son total devient exact
+    private void lireTailles(Noeud noeud) {
+        double somme = noeud.sommeLues;
+        for (Path image : noeud.nonLues) {
+            somme += Math.max(0, lireTaille(image));
+        }
+        noeud.octets = somme;
+        noeud.varianceOctets = 0;
+        noeud.nonLues = null;
+    }
+
+    private static long lireTaille(Path image) {
+        try {
+            return Files.readAttributes(image, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS).size();
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'accès à : " + image + " - " + e.getMessage());
+            return -1;
+        }
+    }
+
+    private static int format(String extension) {
+        switch (extension) {
+            case ".png":
+                return 0;
+            case ".webp":
+                return 2;
+            default:
+                return 1; // .jpeg et .jpg
+        }
+    }
+
+    /**
+     * Contenu d'un répertoire listé.
+     */
+    private static final class Noeud {
+        private final List<Path> sousRepertoires = new ArrayList<>();
+        private final long[] nombreParFormat = new long[FORMATS.length];
+        private long nombreImages;
+        private double octets; // Estimée d'après l'échantillon
+        private double varianceOctets; // Variance de cette estimation (0 si toutes les tailles sont lues)
+        private List<Path> nonLues; // Images dont la taille n'a pas été lue (null si aucune)
+        private double sommeLues; // Somme des tailles de l'échantillon
+    }
+
+    /**
+     * Moyenne des estimations des descentes et marge de son intervalle de confiance.
+     */
+    private static final class Moyenne {
+        private long n;
+        private double somme;
+        private double sommeCarres;
+
+        void ajouter(double valeur) {
+            n++;
+            somme += valeur;
+            sommeCarres += valeur * valeur;
+        }
+
+        double moyenne() {
+            return somme / n;
+        }
+
+        // Marge de la moyenne, augmentée d'une variance qui ne dépend pas des descentes
+        double marge(double varianceSupplementaire) {
+            if (n < 2) {
+                return Double.POSITIVE_INFINITY;
+            }
+            double variance = Math.max(0, (sommeCarres - somme * somme / n) / (n - 1));
+            return Z_95 * Math.sqrt(variance / n + varianceSupplementaire);
+        }
+
+        boolean precise(double precision, double varianceSupplementaire) {
+            return marge(varianceSupplementaire) <= precision * Math.abs(moyenne());
+        }
+
+        StatistiquesEstimees.Estimation estimation(double varianceSupplementaire) {
+            return new StatistiquesEstimees.Estimation(moyenne(), marge(varianceSupplementaire));
+        }
+    }
+}
@@ -1,37 +1,113 @@
 package data;
 
 import com.drew.imaging.ImageMetadataReader;
+import com.drew.lang.GeoLocation;
 import com.drew.metadata.Metadata;
 import com.drew.metadata.Directory;
 import com.drew.metadata.Tag;
+import com.drew.metadata.exif.GpsDirectory;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
-import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Date;
 import java.util.Objects;
 
 public class Fichier implements Serializable {
     private static final long serialVersionUID = 1L;
+    private static volatile CacheMetaDonnees cache; // Cache persistant partagé (null si désactivé)
     private File file; // Instance de File représentant le fichier
     private String nom; // Nom du fichier
-    private StatistiquesFichier statistiques; // Statistiques associées au fichier
-    private MetaDonnees metaDonnees; // Métadonnées associées au fichier
+    private volatile StatistiquesFichier statistiques; // Statistiques, calculées au premier accès
+    private volatile MetaDonnees metaDonnees; // Métadonnées, extraites au premier accès
+    private long taille = -1; // Taille capturée lors du parcours (-1 si inconnue)
+    private long dateModification = -1; // Date de modification capturée (-1 si inconnue)
+    private String typeMime; // Type MIME déjà détecté lors du parcours (null si inconnu)
+    private volatile int[] dimensions; // Dimensions [largeur, hauteur], lues au premier accès
+    private transient volatile int[] dimensionsConnues; // Dimensions vues par les statistiques, figées au premier appel
 
     public Fichier(File file) {
         this.file = file;
         this.nom = file.getName();
-        this.metaDonnees = extraireMetaDonnees();
-        this.statistiques = calculerStatistiques();
+    }
+
+    // Réutilise les attributs lus pendant le parcours pour éviter un nouveau stat
+    public Fichier(File file, BasicFileAttributes attributs) {
+        this.file = file;
+        this.nom = file.getName();
+        this.taille = attributs.size();
+        this.dateModification = attributs.lastModifiedTime().toMillis();
+    }
+
+    // Utilisé par les parcours, qui ont déjà identifié le type du fichier
+    Fichier(File file, BasicFileAttributes attributs, String typeMime) {
+        this(file, attributs);
+        this.typeMime = typeMime;
+    }
+
+    // Reprend les informations déjà capturées par un ImageFile (-1 et null si inconnues)
+    Fichier(File file, long taille, long dateModification, String typeMime) {
+        this(file);
+        this.taille = taille;
+        this.dateModification = dateModification;
+        this.typeMime = typeMime;
+    }
+
+    // Active (ou désactive avec null) le cache persistant des métadonnées et statistiques
+    public static void setCache(CacheMetaDonnees nouveauCache) {
+        cache = nouveauCache;
+    }
+
+    // Le cache n'est utilisable que si la taille et la date ont été capturées lors du parcours
+    private CacheMetaDonnees cacheUtilisable() {
+        CacheMetaDonnees courant = cache;
+        return courant != null && taille >= 0 && dateModification >= 0 ? courant : null;
     }
 
     private StatistiquesFichier calculerStatistiques() {
+        CacheMetaDonnees courant = cacheUtilisable();
+        if (courant != null) {
+            StatistiquesFichier enCache = courant.getStatistiques(file, taille, dateModification);
+            if (enCache != null) {
+                return enCache;
+            }
+        }
+
+        StatistiquesFichier resultat = lireStatistiques();
+        if (courant != null) {
+            courant.enregistrer(file, taille, dateModification, resultat);
+        }
+        return resultat;
+    }
+
+    private MetaDonnees chargerMetaDonnees() {
+        CacheMetaDonnees courant = cacheUtilisable();
+        if (courant != null) {
+            MetaDonnees enCache = courant.getMetaDonnees(file, taille, dateModification);
+            if (enCache != null) {
+                return enCache;
+            }
+        }
+
+        MetaDonnees resultat = extraireMetaDonnees();
+        if (courant != null) {
+            courant.enregistrer(file, taille, dateModification, resultat);
+        }
+        return resultat;
+    }
+
+    private StatistiquesFichier lireStatistiques() {
         try {
-            String typeMime = Files.probeContentType(file.toPath());
-            long taille = file.length();
-            String dateModification = new Date(file.lastModified()).toString();
-            return new StatistiquesFichier((int) taille, typeMime, dateModification);
+            String typeMime = this.typeMime != null ? this.typeMime : DetecteurType.detecter(file);
+            if (typeMime == null) {
+                typeMime = "inconnu"; // Aucune signature reconnue
+            }
+            long taille = this.taille >= 0 ? this.taille : file.length();
+            long modification = this.dateModification >= 0 ? this.dateModification : file.lastModified();
+            String dateModification = new Date(modification).toString();
+            return new StatistiquesFichier(taille, typeMime, dateModification);
         } catch (IOException e) {
             System.err.println("Erreur lors du calcul des statistiques : " + e.getMessage());
             return new StatistiquesFichier(0, "inconnu", "inconnue");
@@ -44,6 +120,13 @@ public class Fichier implements Serializable {
             Metadata metadata = ImageMetadataReader.readMetadata(file);
 
             for (Directory directory : metadata.getDirectories()) {
+                if (directory instanceof GpsDirectory gps) {
+                    // Coordonnées décodées par la bibliothèque, en degrés décimaux signés
+                    GeoLocation position = gps.getGeoLocation();
+                    if (position != null && MetaDonnees.estPositionValide(position.getLatitude(), position.getLongitude())) {
+                        metaDonnees.setPosition(position.getLatitude(), position.getLongitude());
+                    }
+                }
                 for (Tag tag : directory.getTags()) {
                     String tagName = tag.getTagName();
                     String tagValue = tag.getDescription();
@@ -59,14 +142,6 @@ public class Fichier implements Serializable {
                         case "Y Resolution":
                             metaDonnees.setResolution(tagValue + " dpi");
                             break;
-                        case "GPS Latitude":
-                        case "GPS Longitude":
-                            if (metaDonnees.getPositionGPS() == null) {
-                                metaDonnees.setPositionGPS(tagValue);
-                            } else {
-                                metaDonnees.setPositionGPS(metaDonnees.getPositionGPS() + ", " + tagValue);
-                            }
-                            break;
                         case "Image Description":
                         case "Caption/Abstract":
                             metaDonnees.setDescription(tagValue);
@@ -86,7 +161,7 @@ public class Fichier implements Serializable {
     }
 
     public boolean verifierTypeMIME() {
-        String type = statistiques.getTypeMime();
+        String type = getStatistiques().getTypeMime();
         return type.equals("image/jpeg") || type.equals("image/png") || type.equals("image/webp");
     }
 
@@ -94,12 +169,111 @@ public class Fichier implements Serializable {
         return nom;
     }
 
+    // Type MIME détecté lors du parcours, ou d'après les premiers octets (null si non reconnu)
+    public String getTypeMime() {
+        String resultat = typeMime;
+        if (resultat == null) {
+            StatistiquesFichier dejaCalculees = statistiques;
+            if (dejaCalculees != null) {
+                resultat = dejaCalculees.getTypeMime();
+            } else {
+                try {
+                    resultat = DetecteurType.detecter(file);
+                } catch (IOException e) {
+                    System.err.println("Erreur lors de la détection du type : " + e.getMessage());
+                }
+            }
+            typeMime = resultat;
+        }
+        return resultat;
+    }
+
+    // Taille en octets, capturée lors du parcours lorsque c'est possible
+    public long getTaille() {
+        return taille >= 0 ? taille : file.length();
+    }
+
+    // Date de dernière modification en millisecondes, capturée lors du parcours lorsque c'est possible
+    public long getDateModificationMillis() {
+        return dateModification >= 0 ? dateModification : file.lastModified();
+    }
+
+    // Lit seulement l'en-tête de l'image ; l'analyse complète ne sert que de solution de repli
+    public int[] getDimensions() {
+        int[] resultat = dimensions;
+        if (resultat == null) {
+            MetaDonnees dejaExtraites = metaDonnees;
+            if (dejaExtraites != null) {
+                resultat = dejaExtraites.getDimensions();
+            } else {
+                try {
+                    resultat = LecteurDimensions.lire(file);
+                } catch (IOException e) {
+                    System.err.println("Erreur lors de la lecture des dimensions : " + e.getMessage());
+                }
+                if (resultat == null) {
+                    resultat = getMetaDonnees().getDimensions();
+                }
+            }
+            dimensions = resultat;
+        }
+        return resultat;
+    }
+
+    /**
+     * Retourne les dimensions si elles sont déjà connues (lues, extraites ou en
+     * cache), sans jamais lire le fichier. La réponse est figée au premier
+     * appel : des statistiques qui comptent le fichier puis le retirent voient
+     * les mêmes dimensions, même si elles ont été lues entre-temps.
+     *
+     * @return Les dimensions [largeur, hauteur], ou null si elles ne sont pas connues.
+     */
+    int[] getDimensionsConnues() {
+        int[] resultat = dimensionsConnues;
+        if (resultat == null) {
+            synchronized (this) {
+                resultat = dimensionsConnues;
+                if (resultat == null) {
+                    resultat = dimensions;
+                    MetaDonnees connues = metaDonnees;
+                    CacheMetaDonnees courant = cacheUtilisable();
+                    if (resultat == null && connues == null && courant != null) {
+                        connues = courant.getMetaDonnees(file, taille, dateModification);
+                    }
+                    if (resultat == null && connues != null) {
+                        resultat = connues.getDimensions();
+                    }
+                    resultat = resultat != null ? resultat.clone() : new int[0];
+                    dimensionsConnues = resultat;
+                }
+            }
+        }
+        return resultat.length == 2 ? resultat : null;
+    }
+
+    // Calcul paresseux : un double calcul concurrent est sans effet, le résultat étant identique
     public StatistiquesFichier getStatistiques() {
-        return statistiques;
+        StatistiquesFichier resultat = statistiques;
+        if (resultat == null) {
+            resultat = calculerStatistiques();
+            statistiques = resultat;
+        }
+        return resultat;
     }
 
+    // Extraction paresseuse et unique : la lecture EXIF n'a lieu qu'au premier accès
     public MetaDonnees getMetaDonnees() {
-        return metaDonnees;
+        MetaDonnees resultat = metaDonnees;
+        if (resultat == null) {
+            synchronized (this) {
+                resultat = metaDonnees;
+                if (resultat == null) {
+                    resultat = chargerMetaDonnees();
+                    metaDonnees = resultat;
+                }
+            }
+        }
+        return resultat;
     }
 
     // Nouvelle méthode : Retourne le chemin relatif du fichier
@@ -121,7 +295,14 @@ public class Fichier implements Serializable {
         return Objects.hash(getCheminRelatif());
     }
     public StatistiquesFichier getStatFichier() {
-        return this.statistiques; // Si `statistiques` est l'attribut de type `StatistiquesFichier`.
+        return getStatistiques();
+    }
+
+    // Un snapshot doit rester lisible sans accès au fichier : tout est calculé avant l'écriture
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        getStatistiques();
+        getMetaDonnees();
+        out.defaultWriteObject();
     }
 
 
@@ -129,8 +310,8 @@ public class Fichier implements Serializable {
     public String toString() {
         return "Fichier{" +
                 "nom='" + nom + '\'' +
-                ", statistiques=" + statistiques +
-                ", metaDonnees=" + metaDonnees +
+                ", statistiques=" + getStatistiques() +
+                ", metaDonnees=" + getMetaDonnees() +
                 '}';
     }
 }
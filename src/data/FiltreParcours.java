@@ -0,0 +1,154 @@
+package data;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Règles d'inclusion et d'exclusion appliquées pendant le parcours d'un répertoire.
+ * 
+ * Les exclusions sont évaluées sur les répertoires avant d'y descendre : un
+ * répertoire exclu (par exemple {@code .git} ou {@code @eaDir}) n'est jamais
+ * listé, ce qui élague tout son sous-arbre. Les inclusions ne concernent que
+ * les fichiers. Chaque règle est comparée au nom de l'entrée puis à son chemin
+ * complet, en syntaxe glob ou en expression régulière.
+ * 
+ * @author Youmna Saad et Seyda Ann
+ */
+public class FiltreParcours {
+
+    /**
+     * Répertoires de service ignorés par {@link #parDefaut()}.
+     */
+    private static final String[] EXCLUSIONS_PAR_DEFAUT = {
+            ".git", ".svn", ".hg", "@eaDir", "#recycle", "node_modules",
+            ".thumbnails", ".cache", ".Trash*", "$RECYCLE.BIN", "System Volume Information"
+    };
+
+    private final List<PathMatcher> inclusions = new ArrayList<>(); // Au moins une doit correspondre (fichiers)
+    private final List<PathMatcher> exclusions = new ArrayList<>(); // Aucune ne doit correspondre
+
+    /**
+     * Crée un filtre sans aucune règle : tout est accepté.
+     */
+    public FiltreParcours() {
+    }
+
+    /**
+     * Crée un filtre excluant les répertoires de service et de cache courants
+     * (gestionnaires de versions, miniatures de NAS, corbeilles, etc.).
+     *
+     * @return Un nouveau filtre avec les exclusions par défaut.
+     */
+    public static FiltreParcours parDefaut() {
+        return new FiltreParcours().exclureParDefaut();
+    }
+
+    /**
+     * Ajoute les exclusions des répertoires de service et de cache courants.
+     *
+     * @return Ce filtre, pour enchaîner les règles.
+     * @see #parDefaut()
+     */
+    public FiltreParcours exclureParDefaut() {
+        for (String glob : EXCLUSIONS_PAR_DEFAUT) {
+            exclure(glob);
+        }
+        return this;
+    }
+
+    /**
+     * Ajoute un motif glob de fichiers à inclure.
+     *
+     * @param glob Le motif glob (ex. "*.jpg" ou "IMG_*").
+     * @return Ce filtre, pour enchaîner les règles.
+     */
+    public FiltreParcours inclure(String glob) {
+        inclusions.add(creerMotif("glob:", glob));
+        return this;
+    }
+
+    /**
+     * Ajoute une expression régulière de fichiers à inclure.
+     *
+     * @param regex L'expression régulière.
+     * @return Ce filtre, pour enchaîner les règles.
+     */
+    public FiltreParcours inclureRegex(String regex) {
+        inclusions.add(creerMotif("regex:", regex));
+        return this;
+    }
+
+    /**
+     * Ajoute un motif glob de fichiers ou de répertoires à exclure.
+     *
+     * @param glob Le motif glob (ex. ".git" ou "*cache*").
+     * @return Ce filtre, pour enchaîner les règles.
+     */
+    public FiltreParcours exclure(String glob) {
+        exclusions.add(creerMotif("glob:", glob));
+        return this;
+    }
+
+    /**
+     * Ajoute une expression régulière de fichiers ou de répertoires à exclure.
+     *
+     * @param regex L'expression régulière.
+     * @return Ce filtre, pour enchaîner les règles.
+     */
+    public FiltreParcours exclureRegex(String regex) {
+        exclusions.add(creerMotif("regex:", regex));
+        return this;
+    }
+
+    private static PathMatcher creerMotif(String syntaxe, String motif) {
+        if (motif == null || motif.isEmpty()) {
+            throw new IllegalArgumentException("Le motif ne peut pas être null ou vide.");
+        }
+        return FileSystems.getDefault().getPathMatcher(syntaxe + motif);
+    }
+
+    /**
+     * Indique si le parcours doit descendre dans un répertoire.
+     *
+     * @param repertoire Le répertoire rencontré.
+     * @return false si le répertoire (et donc tout son sous-arbre) est exclu.
+     */
+    public boolean accepterRepertoire(Path repertoire) {
+        return !correspond(exclusions, repertoire);
+    }
+
+    /**
+     * Indique si un fichier doit être retenu.
+     *
+     * @param fichier Le fichier rencontré.
+     * @return true si le fichier n'est pas exclu et correspond aux inclusions éventuelles.
+     */
+    public boolean accepterFichier(Path fichier) {
+        if (correspond(exclusions, fichier)) {
+            return false;
+        }
+        return inclusions.isEmpty() || correspond(inclusions, fichier);
+    }
+
+    /**
+     * Indique si le filtre ne contient aucune règle.
+     *
+     * @return true si tout est accepté.
+     */
+    public boolean estVide() {
+        return inclusions.isEmpty() && exclusions.isEmpty();
+    }
+
+    private static boolean correspond(List<PathMatcher> motifs, Path chemin) {
+        Path nom = chemin.getFileName();
+        for (PathMatcher motif : motifs) {
+            if ((nom != null && motif.matches(nom)) || motif.matches(chemin)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
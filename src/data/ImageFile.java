@@ -2,7 +2,8 @@ package data;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.Serializable;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Date;
 
 /**
@@ -14,8 +15,12 @@ import java.util.Date;
  * 
  * @author Youmna Saad et Seyda Ann
  */
-public class ImageFile {
+public class ImageFile implements Serializable {
+    private static final long serialVersionUID = 1L;
     private File fichierPhysique; // Instance du fichier physique sur le système
+    private long taille = -1; // Taille capturée lors du parcours (-1 si inconnue)
+    private long dateModification = -1; // Date de modification capturée (-1 si inconnue)
+    private String typeMime; // Type MIME détecté, mémorisé après la première détection
 
     /**
      * Constructeur pour initialiser un objet ImageFile à partir d'un fichier existant.
@@ -26,6 +31,43 @@ public class ImageFile {
         this.fichierPhysique = fichier;
     }
 
+    /**
+     * Constructeur réutilisant les attributs déjà lus pendant le parcours du répertoire.
+     * 
+     * La taille et la date de modification sont conservées, ce qui évite un nouvel
+     * appel système à chaque lecture de ces informations.
+     * 
+     * @param fichier Le fichier sur le disque.
+     * @param attributs Les attributs du fichier lus une seule fois.
+     */
+    public ImageFile(File fichier, BasicFileAttributes attributs) {
+        this.fichierPhysique = fichier;
+        this.taille = attributs.size();
+        this.dateModification = attributs.lastModifiedTime().toMillis();
+    }
+
+    /**
+     * Constructeur utilisé par les parcours, qui ont déjà identifié le type du fichier.
+     * 
+     * @param fichier Le fichier sur le disque.
+     * @param attributs Les attributs du fichier lus une seule fois.
+     * @param typeMime Le type MIME déjà détecté.
+     */
+    ImageFile(File fichier, BasicFileAttributes attributs, String typeMime) {
+        this(fichier, attributs);
+        this.typeMime = typeMime;
+    }
+
+    /**
+     * Convertit ce fichier en {@link Fichier}, en conservant la taille, la date
+     * et le type déjà connus.
+     * 
+     * @return Le fichier correspondant.
+     */
+    public Fichier versFichier() {
+        return new Fichier(fichierPhysique, taille, dateModification, typeMime);
+    }
+
     /**
      * Récupère le nom du fichier.
      * 
@@ -50,7 +92,7 @@ public class ImageFile {
      * @return La taille en octets.
      */
     public long getFileSize() {
-        return fichierPhysique.length();
+        return taille >= 0 ? taille : fichierPhysique.length();
     }
 
     /**
@@ -59,18 +101,31 @@ public class ImageFile {
      * @return La date de modification sous forme d'objet Date.
      */
     public Date getLastModified() {
-        return new Date(fichierPhysique.lastModified());
+        return new Date(getLastModifiedMillis());
+    }
+
+    /**
+     * Récupère la date de dernière modification sans créer d'objet Date.
+     * 
+     * @return La date de modification en millisecondes depuis l'époque.
+     */
+    public long getLastModifiedMillis() {
+        return dateModification >= 0 ? dateModification : fichierPhysique.lastModified();
     }
 
     /**
      * Identifie le type MIME du fichier.
      * 
-     * Utilise les fonctionnalités de Java NIO pour déterminer le type MIME.
+     * Le type est déterminé par {@link DetecteurType} à partir des premiers octets
+     * du fichier, puis mémorisé.
      * 
-     * @return Le type MIME sous forme de chaîne de caractères.
+     * @return Le type MIME sous forme de chaîne de caractères, ou null s'il n'est pas reconnu.
      * @throws IOException En cas d'erreur d'accès au fichier.
      */
     public String getMimeType() throws IOException {
-        return Files.probeContentType(fichierPhysique.toPath());
+        if (typeMime == null) {
+            typeMime = DetecteurType.detecter(fichierPhysique);
+        }
+        return typeMime;
     }
 }
@@ -25,7 +25,8 @@ public class ImageMetadata {
     private String dpiResolution = "Indisponible";
     private String title = "Non spécifié";
     private String description = "Non spécifiée";
-    private String gpsCoordinates = "Non spécifiées";
+    private Double latitude;  // Degrés décimaux, null si absente
+    private Double longitude; // Degrés décimaux, null si absente
     private boolean thumbnailAvailable = false;
 
     /**
@@ -74,9 +75,10 @@ public class ImageMetadata {
             }
 
             if (directory instanceof GpsDirectory gpsDir) {
-                gpsCoordinates = Optional.ofNullable(gpsDir.getGeoLocation())
-                        .map(location -> "Lat: " + location.getLatitude() + ", Lon: " + location.getLongitude())
-                        .orElse("Non spécifiées");
+                Optional.ofNullable(gpsDir.getGeoLocation()).ifPresent(location -> {
+                    latitude = location.getLatitude();
+                    longitude = location.getLongitude();
+                });
             }
 
             if (directory instanceof ExifThumbnailDirectory) {
@@ -98,6 +100,24 @@ public class ImageMetadata {
         return thumbnailAvailable;
     }
 
+    /**
+     * Retourne la latitude de prise de vue.
+     *
+     * @return La latitude en degrés décimaux, ou null si elle est absente.
+     */
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    /**
+     * Retourne la longitude de prise de vue.
+     *
+     * @return La longitude en degrés décimaux, ou null si elle est absente.
+     */
+    public Double getLongitude() {
+        return longitude;
+    }
+
     /**
      * Fournit une vue lisible des métadonnées de l'image.
      *
@@ -111,7 +131,7 @@ public class ImageMetadata {
                 "Résolution DPI : " + dpiResolution + "\n" +
                 "Titre : " + title + "\n" +
                 "Description : " + description + "\n" +
-                "Coordonnées GPS : " + gpsCoordinates + "\n" +
+                "Coordonnées GPS : " + (latitude != null ? "Lat: " + latitude + ", Lon: " + longitude : "Non spécifiées") + "\n" +
                 "Miniature : " + (thumbnailAvailable ? "Oui" : "Non");
     }
 }
@@ -0,0 +1,142 @@
+package data;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Itérateur paresseux sur les fichiers image d'une arborescence.
+ * 
+ * Le parcours est effectué en profondeur à la demande : seuls les flux des
+ * répertoires en cours d'exploration sont ouverts, la mémoire utilisée dépend
+ * donc de la profondeur de l'arborescence et non du nombre de fichiers.
+ * Chaque entrée n'est lue qu'une seule fois avec {@link BasicFileAttributes}.
+ * 
+ * @param <T> Le type d'élément produit pour chaque fichier image.
+ * @author Youmna Saad et Seyda Ann
+ */
+class IterateurImages<T> implements Iterator<T>, Closeable {
+
+    private final Fabrique<T> fabrique; // Construit l'élément à partir du fichier
+    private final FiltreParcours filtre; // Règles d'élagage du parcours
+    private final Deque<DirectoryStream<Path>> flux = new ArrayDeque<>(); // Répertoires ouverts
+    private final Deque<Iterator<Path>> positions = new ArrayDeque<>(); // Position dans chaque répertoire
+    private T suivant; // Prochain élément déjà calculé
+
+    /**
+     * Crée un itérateur à partir d'un répertoire racine.
+     *
+     * @param racine Le répertoire racine à parcourir.
+     * @param filtre Les règles d'inclusion et d'exclusion.
+     * @param fabrique La fonction construisant un élément pour chaque fichier image.
+     * @throws IOException Si le répertoire racine ne peut pas être ouvert.
+     */
+    IterateurImages(Path racine, FiltreParcours filtre, Fabrique<T> fabrique) throws IOException {
+        this.fabrique = fabrique;
+        this.filtre = filtre;
+        ouvrir(racine);
+    }
+
+    private void ouvrir(Path repertoire) throws IOException {
+        DirectoryStream<Path> entrees = Files.newDirectoryStream(repertoire);
+        flux.push(entrees);
+        positions.push(entrees.iterator());
+    }
+
+    private void fermerCourant() {
+        positions.pop();
+        try {
+            flux.pop().close();
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la fermeture d'un répertoire : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Avance dans l'arborescence jusqu'au prochain fichier image.
+     *
+     * @return Le prochain élément, ou null si le parcours est terminé.
+     */
+    private T avancer() {
+        while (!positions.isEmpty()) {
+            Iterator<Path> courant = positions.peek();
+            Path entree;
+            try {
+                if (!courant.hasNext()) {
+                    fermerCourant();
+                    continue;
+                }
+                entree = courant.next();
+            } catch (DirectoryIteratorException e) {
+                System.err.println("Erreur lors de la lecture d'un répertoire : " + e.getCause().getMessage());
+                fermerCourant();
+                continue;
+            }
+
+            try {
+                BasicFileAttributes attrs = Files.readAttributes(entree, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                if (attrs.isDirectory()) {
+                    if (filtre.accepterRepertoire(entree)) {
+                        ouvrir(entree);
+                    }
+                } else if (attrs.isRegularFile() && filtre.accepterFichier(entree)) {
+                    String typeMime = Repertoire.typeImage(entree.toFile());
+                    if (typeMime != null) {
+                        return fabrique.creer(entree.toFile(), attrs, typeMime);
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Erreur lors de l'accès à : " + entree + " - " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (suivant == null) {
+            suivant = avancer();
+        }
+        return suivant != null;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T element = suivant;
+        suivant = null;
+        return element;
+    }
+
+    /**
+     * Construit un élément à partir d'un fichier image et des informations déjà lues.
+     *
+     * @param <T> Le type d'élément produit.
+     */
+    @FunctionalInterface
+    interface Fabrique<T> {
+        T creer(File file, BasicFileAttributes attrs, String typeMime);
+    }
+
+    /**
+     * Ferme tous les répertoires encore ouverts.
+     */
+    @Override
+    public void close() {
+        while (!positions.isEmpty()) {
+            fermerCourant();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ * Lecteur rapide des dimensions d'une image à partir de son seul en-tête.
+ * 
+ * Seules les structures contenant la largeur et la hauteur sont lues :
+ * le bloc IHDR pour PNG, le marqueur SOFn pour JPEG (les segments précédents,
+ * comme les blocs EXIF, sont sautés sans être lus) et l'en-tête VP8, VP8L ou
+ * VP8X pour WebP. Pour un en-tête inhabituel, {@link #lire(File)} retourne null
+ * et l'appelant peut se rabattre sur une analyse complète des métadonnées.
+ * 
+ * @author Youmna Saad et Seyda Ann
+ */
+public final class LecteurDimensions {
+
+    /**
+     * Nombre d'octets lus en tête de fichier, suffisant pour PNG et WebP.
+     */
+    private static final int TAILLE_ENTETE = 30;
+
+    /**
+     * Nombre maximal de segments JPEG parcourus avant d'abandonner.
+     */
+    private static final int SEGMENTS_JPEG_MAX = 64;
+
+    private LecteurDimensions() {
+    }
+
+    /**
+     * Lit les dimensions d'une image PNG, JPEG ou WebP.
+     *
+     * @param file Le fichier image.
+     * @return Les dimensions [largeur, hauteur], ou null si l'en-tête n'est pas reconnu.
+     * @throws IOException En cas d'erreur de lecture du fichier.
+     */
+    public static int[] lire(File file) throws IOException {
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            byte[] entete = new byte[TAILLE_ENTETE];
+            int lus = lireAuPlus(in, entete);
+
+            if (lus >= 24 && octet(entete, 0) == 0x89 && entete[1] == 'P' && entete[2] == 'N' && entete[3] == 'G'
+                    && entete[12] == 'I' && entete[13] == 'H' && entete[14] == 'D' && entete[15] == 'R') {
+                return new int[]{entierBE(entete, 16), entierBE(entete, 20)};
+            }
+            if (lus >= 4 && octet(entete, 0) == 0xFF && octet(entete, 1) == 0xD8) {
+                return lireJpeg(in);
+            }
+            if (lus >= 16 && entete[0] == 'R' && entete[1] == 'I' && entete[2] == 'F' && entete[3] == 'F'
+                    && entete[8] == 'W' && entete[9] == 'E' && entete[10] == 'B' && entete[11] == 'P') {
+                return lireWebp(entete, lus);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Parcourt les segments JPEG jusqu'au marqueur SOFn.
+     */
+    private static int[] lireJpeg(RandomAccessFile in) throws IOException {
+        long position = 2; // Après le marqueur SOI
+        byte[] segment = new byte[9];
+
+        for (int i = 0; i < SEGMENTS_JPEG_MAX; i++) {
+            in.seek(position);
+            int lus = lireAuPlus(in, segment); // Le tampon est réutilisé : seuls ces octets sont à jour
+            if (lus < 4 || octet(segment, 0) != 0xFF) {
+                return null;
+            }
+
+            int marqueur = octet(segment, 1);
+            if (marqueur == 0xFF) { // Octet de remplissage
+                position++;
+                continue;
+            }
+            if (marqueur == 0xD8 || marqueur == 0x01 || (marqueur >= 0xD0 && marqueur <= 0xD7)) {
+                position += 2; // Marqueurs sans longueur
+                continue;
+            }
+            if (marqueur == 0xD9 || marqueur == 0xDA) {
+                return null; // Fin d'image ou début des données sans SOFn
+            }
+
+            int longueur = (octet(segment, 2) << 8) | octet(segment, 3);
+            boolean sof = marqueur >= 0xC0 && marqueur <= 0xCF
+                    && marqueur != 0xC4 && marqueur != 0xC8 && marqueur != 0xCC;
+            if (sof) {
+                if (lus < segment.length) {
+                    return null; // Segment SOFn tronqué
+                }
+                int hauteur = (octet(segment, 5) << 8) | octet(segment, 6);
+                int largeur = (octet(segment, 7) << 8) | octet(segment, 8);
+                return largeur > 0 && hauteur > 0 ? new int[]{largeur, hauteur} : null;
+            }
+            if (longueur < 2) {
+                return null;
+            }
+            position += 2 + longueur; // Saut du segment (EXIF, ICC...) sans le lire
+        }
+        return null;
+    }
+
+    /**
+     * Lit les dimensions dans le premier bloc d'un fichier WebP.
+     */
+    private static int[] lireWebp(byte[] entete, int lus) {
+        if (entete[12] == 'V' && entete[13] == 'P' && entete[14] == '8') {
+            switch (entete[15]) {
+                case ' ': // Format avec perte
+                    if (lus >= 30 && octet(entete, 23) == 0x9D && octet(entete, 24) == 0x01 && octet(entete, 25) == 0x2A) {
+                        return new int[]{entierLE16(entete, 26) & 0x3FFF, entierLE16(entete, 28) & 0x3FFF};
+                    }
+                    break;
+                case 'L': // Format sans perte
+                    if (lus >= 25 && octet(entete, 20) == 0x2F) {
+                        int b0 = octet(entete, 21), b1 = octet(entete, 22), b2 = octet(entete, 23), b3 = octet(entete, 24);
+                        int largeur = 1 + (b0 | ((b1 & 0x3F) << 8));
+                        int hauteur = 1 + ((b1 >> 6) | (b2 << 2) | ((b3 & 0x0F) << 10));
+                        return new int[]{largeur, hauteur};
+                    }
+                    break;
+                case 'X': // Format étendu
+                    if (lus >= 30) {
+                        return new int[]{1 + entierLE24(entete, 24), 1 + entierLE24(entete, 27)};
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return null;
+    }
+
+    private static int lireAuPlus(RandomAccessFile in, byte[] tampon) throws IOException {
+        int total = 0;
+        while (total < tampon.length) {
+            int n = in.read(tampon, total, tampon.length - total);
+            if (n < 0) {
+                break;
+            }
+            total += n;
+        }
+        return total;
+    }
+
+    private static int octet(byte[] tampon, int index) {
+        return tampon[index] & 0xFF;
+    }
+
+    private static int entierBE(byte[] tampon, int index) {
+        return (octet(tampon, index) << 24) | (octet(tampon, index + 1) << 16)
+                | (octet(tampon, index + 2) << 8) | octet(tampon, index + 3);
+    }
+
+    private static int entierLE16(byte[] tampon, int index) {
+        return octet(tampon, index) | (octet(tampon, index + 1) << 8);
+    }
+
+    private static int entierLE24(byte[] tampon, int index) {
+        return octet(tampon, index) | (octet(tampon, index + 1) << 8) | (octet(tampon, index + 2) << 16);
+    }
+}
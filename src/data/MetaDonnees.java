@@ -1,6 +1,7 @@
 package data;
 
 import java.io.Serializable;
+import java.util.Locale;
 
 /**
  * Représente les métadonnées associées à un fichier.
@@ -9,7 +10,10 @@ public class MetaDonnees  implements Serializable {
     private static final long serialVersionUID = 1L;
     private int[] dimensions; // Dimensions de l'image [largeur, hauteur]
     private String description; // Description ou légende de l'image
-    private String positionGPS; // Coordonnées GPS (latitude et longitude)
+    private String positionGPS; // Coordonnées GPS (latitude et longitude), pour l'affichage
+    private boolean positionConnue; // Indique si latitude et longitude sont renseignées
+    private double latitude; // Latitude en degrés décimaux (positive au nord)
+    private double longitude; // Longitude en degrés décimaux (positive à l'est)
     private String resolution; // Résolution de l'image (ex. 300 dpi)
     private boolean miniatureExistance; // Indique si une miniature existe
 
@@ -54,6 +58,30 @@ public class MetaDonnees  implements Serializable {
         return positionGPS;
     }
 
+    /**
+     * Indique si les coordonnées GPS numériques sont disponibles.
+     * @return true si la latitude et la longitude sont connues.
+     */
+    public boolean hasPosition() {
+        return positionConnue;
+    }
+
+    /**
+     * Retourne la latitude en degrés décimaux.
+     * @return La latitude, ou NaN si la position est inconnue.
+     */
+    public double getLatitude() {
+        return positionConnue ? latitude : Double.NaN;
+    }
+
+    /**
+     * Retourne la longitude en degrés décimaux.
+     * @return La longitude, ou NaN si la position est inconnue.
+     */
+    public double getLongitude() {
+        return positionConnue ? longitude : Double.NaN;
+    }
+
     public String getResolution() {
         return resolution;
     }
@@ -76,6 +104,31 @@ public class MetaDonnees  implements Serializable {
         this.positionGPS = positionGPS;
     }
 
+    /**
+     * Définit la position GPS ; le texte affiché est mis à jour en conséquence.
+     * @param latitude Latitude en degrés décimaux, entre -90 et 90.
+     * @param longitude Longitude en degrés décimaux, entre -180 et 180.
+     */
+    public void setPosition(double latitude, double longitude) {
+        if (!estPositionValide(latitude, longitude)) {
+            throw new IllegalArgumentException("Coordonnées GPS invalides : " + latitude + ", " + longitude);
+        }
+        this.positionConnue = true;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.positionGPS = String.format(Locale.ROOT, "%.6f, %.6f", latitude, longitude);
+    }
+
+    /**
+     * Vérifie que des coordonnées sont dans les bornes géographiques.
+     * @param latitude Latitude en degrés décimaux.
+     * @param longitude Longitude en degrés décimaux.
+     * @return true si la latitude est dans [-90, 90] et la longitude dans [-180, 180].
+     */
+    public static boolean estPositionValide(double latitude, double longitude) {
+        return latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
+    }
+
     public void setResolution(String resolution) {
         this.resolution = resolution;
     }
@@ -2,10 +2,35 @@ package data;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import engine.Catalogue;
+import engine.Critere;
+import engine.MoteurRequete;
+import engine.PlageDimensions;
+import engine.PipelineMetaDonnees;
 import engine.StatR;
 import engine.StatF;
 
@@ -17,18 +42,67 @@ import engine.StatF;
  * 
  * @author Youmna Saad et Seyda Ann
  */
-public class Repertoire {
+public class Repertoire implements Serializable {
+    private static final long serialVersionUID = 1L;
 
     /**
      * Liste des fichiers image détectés.
      */
     private List<ImageFile> imageFiles;
 
+    /**
+     * Nom du répertoire.
+     */
+    private String nom;
+
+    /**
+     * Chemin du répertoire sur le disque (null tant qu'il n'a pas été parcouru).
+     */
+    private File chemin;
+
+    /**
+     * Fichiers image situés directement dans ce répertoire.
+     */
+    private List<Fichier> fichiers;
+
+    /**
+     * Sous-répertoires de ce répertoire.
+     */
+    private List<Repertoire> sousRepertoires;
+
+    /**
+     * Règles d'inclusion et d'exclusion appliquées pendant les parcours.
+     */
+    private transient FiltreParcours filtre;
+
+    /**
+     * Écouteurs notifiés des mises à jour incrémentales.
+     */
+    private transient List<EcouteurRepertoire> ecouteurs;
+
+    /**
+     * Statistiques du sous-arbre (ce répertoire et ses descendants), calculées
+     * à la première lecture puis tenues à jour par les mises à jour incrémentales.
+     */
+    private transient volatile AccumulateurStatistiques statistiques;
+
     /**
      * Constructeur par défaut qui initialise une liste vide.
      */
     public Repertoire() {
+        this("");
+    }
+
+    /**
+     * Constructeur initialisant un répertoire vide avec un nom.
+     *
+     * @param nom Le nom du répertoire.
+     */
+    public Repertoire(String nom) {
+        this.nom = nom;
         this.imageFiles = new ArrayList<>();
+        this.fichiers = new ArrayList<>();
+        this.sousRepertoires = new ArrayList<>();
     }
 
     /**
@@ -49,33 +123,706 @@ public class Repertoire {
         if (files != null) {
             for (File file : files) {
                 if (file.isDirectory()) {
-                    scanDirectory(file); // Récursion pour les sous-dossiers
-                } else if (file.isFile() && isValidImage(file)) {
+                    if (getFiltre().accepterRepertoire(file.toPath())) {
+                        scanDirectory(file); // Récursion pour les sous-dossiers
+                    }
+                } else if (file.isFile() && getFiltre().accepterFichier(file.toPath()) && isValidImage(file)) {
                     imageFiles.add(new ImageFile(file)); // Ajout à la liste des fichiers image
                 }
             }
         }
     }
 
+    /**
+     * Construit l'arborescence des fichiers image d'un répertoire.
+     *
+     * Les fichiers image sont ajoutés à {@link #getFichiers()} et chaque
+     * sous-répertoire devient un {@link Repertoire} de {@link #getSousRepertoires()}.
+     *
+     * @param directory Le répertoire à analyser.
+     * @throws IOException Si le répertoire est invalide ou inaccessible.
+     */
+    public void parcourirRepertoire(File directory) throws IOException {
+        explorer(directory, attente -> attente.repertoire().fichiers.add(
+                new Fichier(attente.file(), attente.attrs(), attente.typeMime())));
+        statistiques = null;
+    }
+
+    /**
+     * Construit l'arborescence en extrayant les métadonnées de chaque fichier
+     * image avec un pipeline, pour les appelants qui en ont besoin (affichage,
+     * snapshot). Les statistiques seules n'exigent pas ce parcours.
+     *
+     * Chaque fichier trouvé est soumis au pipeline pendant le parcours : celui-ci
+     * ne prend de l'avance que sur les lectures en vol, ce qui borne la mémoire
+     * utilisée. L'ordre des fichiers dans chaque répertoire est le même qu'avec
+     * {@link #parcourirRepertoire(File)}.
+     *
+     * @param directory Le répertoire à analyser.
+     * @param pipeline Le pipeline exécutant les lectures de métadonnées.
+     * @throws IOException Si le répertoire est invalide ou inaccessible.
+     */
+    public void parcourirRepertoire(File directory, PipelineMetaDonnees pipeline) throws IOException {
+        PipelineMetaDonnees.Lot<FichierEnAttente, Fichier> lot = pipeline.ouvrirLot(attente -> {
+            Fichier fichier = new Fichier(attente.file(), attente.attrs(), attente.typeMime());
+            fichier.getMetaDonnees(); // Lecture effectuée sur un thread du pipeline
+            return fichier;
+        }, true, (attente, fichier) -> attente.repertoire().fichiers.add(fichier));
+
+        try {
+            explorer(directory, lot::soumettre);
+            lot.terminer();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Analyse du répertoire interrompue.", e);
+        }
+        statistiques = null;
+    }
+
+    /**
+     * Parcourt la structure d'un répertoire et signale chaque fichier image trouvé.
+     *
+     * @param directory Le répertoire à analyser.
+     * @param collecteur Reçoit chaque fichier image avec son répertoire de destination.
+     * @param <E> L'exception que peut lever le collecteur.
+     * @throws IOException Si le répertoire est invalide ou inaccessible.
+     * @throws E Si le collecteur échoue.
+     */
+    private <E extends Exception> void explorer(File directory, Collecteur<E> collecteur) throws IOException, E {
+        if (directory == null || !directory.isDirectory()) {
+            throw new IOException("Répertoire invalide ou inexistant.");
+        }
+        this.chemin = directory;
+
+        try (DirectoryStream<Path> entrees = Files.newDirectoryStream(directory.toPath())) {
+            for (Path entree : entrees) {
+                BasicFileAttributes attrs;
+                try {
+                    attrs = Files.readAttributes(entree, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                } catch (IOException e) {
+                    System.err.println("Erreur lors de l'accès à : " + entree + " - " + e.getMessage());
+                    continue;
+                }
+
+                File file = entree.toFile();
+                if (attrs.isDirectory()) {
+                    if (!getFiltre().accepterRepertoire(entree)) {
+                        continue; // Sous-arbre élagué
+                    }
+                    Repertoire sousRepertoire = new Repertoire(file.getName());
+                    sousRepertoire.filtre = filtre;
+                    sousRepertoire.explorer(file, collecteur); // Récursion pour les sous-dossiers
+                    sousRepertoires.add(sousRepertoire);
+                } else if (attrs.isRegularFile() && getFiltre().accepterFichier(entree)) {
+                    String typeMime = typeImage(file);
+                    if (typeMime != null) {
+                        collecteur.accepter(new FichierEnAttente(this, file, attrs, typeMime));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reçoit les fichiers image trouvés par {@link #explorer(File, Collecteur)}.
+     */
+    @FunctionalInterface
+    private interface Collecteur<E extends Exception> {
+        void accepter(FichierEnAttente attente) throws E;
+    }
+
+    /**
+     * Fichier image découvert dont l'objet {@link Fichier} reste à créer.
+     */
+    private record FichierEnAttente(Repertoire repertoire, File file, BasicFileAttributes attrs, String typeMime) {
+    }
+
+    /**
+     * Ouvre un flux paresseux sur les fichiers image d'une arborescence.
+     *
+     * Les fichiers sont produits au fur et à mesure de leur découverte : le premier
+     * résultat est disponible sans attendre la fin du parcours et l'arborescence
+     * n'est jamais chargée entièrement en mémoire. Le flux doit être fermé
+     * (try-with-resources) pour libérer les répertoires ouverts.
+     *
+     * @param directory Le répertoire à analyser.
+     * @return Un flux séquentiel des fichiers image.
+     * @throws IOException Si le répertoire est invalide ou inaccessible.
+     */
+    public static Stream<ImageFile> streamImages(File directory) throws IOException {
+        return streamImages(directory, new FiltreParcours());
+    }
+
+    /**
+     * Ouvre un flux paresseux sur les fichiers image d'une arborescence filtrée.
+     *
+     * @param directory Le répertoire à analyser.
+     * @param filtre Les règles d'inclusion et d'exclusion à appliquer.
+     * @return Un flux séquentiel des fichiers image.
+     * @throws IOException Si le répertoire est invalide ou inaccessible.
+     * @see #streamImages(File)
+     */
+    public static Stream<ImageFile> streamImages(File directory, FiltreParcours filtre) throws IOException {
+        return ouvrirFlux(directory, filtre, ImageFile::new);
+    }
+
+    /**
+     * Ouvre un flux paresseux de {@link Fichier} sur une arborescence.
+     *
+     * @param directory Le répertoire à analyser.
+     * @return Un flux séquentiel des fichiers image.
+     * @throws IOException Si le répertoire est invalide ou inaccessible.
+     * @see #streamImages(File)
+     */
+    public static Stream<Fichier> streamFichiers(File directory) throws IOException {
+        return streamFichiers(directory, new FiltreParcours());
+    }
+
+    /**
+     * Ouvre un flux paresseux de {@link Fichier} sur une arborescence filtrée.
+     *
+     * @param directory Le répertoire à analyser.
+     * @param filtre Les règles d'inclusion et d'exclusion à appliquer.
+     * @return Un flux séquentiel des fichiers image.
+     * @throws IOException Si le répertoire est invalide ou inaccessible.
+     * @see #streamImages(File)
+     */
+    public static Stream<Fichier> streamFichiers(File directory, FiltreParcours filtre) throws IOException {
+        return ouvrirFlux(directory, filtre, Fichier::new);
+    }
+
+    private static <T> Stream<T> ouvrirFlux(File directory, FiltreParcours filtre,
+            IterateurImages.Fabrique<T> fabrique) throws IOException {
+        if (directory == null || !directory.isDirectory()) {
+            throw new IOException("Répertoire invalide ou inexistant.");
+        }
+        if (filtre == null) {
+            throw new IllegalArgumentException("Le filtre ne peut pas être null.");
+        }
+
+        IterateurImages<T> iterateur = new IterateurImages<>(directory.toPath(), filtre, fabrique);
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(iterateur,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(iterateur::close);
+    }
+
+    /**
+     * Crée un filtre combinant les critères de recherche fournis.
+     *
+     * Les critères nuls sont ignorés. Le filtre peut être appliqué aussi bien à
+     * l'arborescence chargée qu'à un flux obtenu par {@link #streamFichiers(File)}.
+     *
+     * @param nomPartiel Nom ou partie du nom (insensible à la casse), ou null.
+     * @param annee Année de dernière modification, ou null.
+     * @param dimensions Dimensions exactes [largeur, hauteur], ou null.
+     * @return Le filtre correspondant.
+     */
+    public static Predicate<Fichier> creerFiltre(String nomPartiel, Integer annee, int[] dimensions) {
+        return creerFiltre(nomPartiel, annee, dimensions == null ? null
+                : PlageDimensions.entre(dimensions[0], dimensions[0], dimensions[1], dimensions[1]));
+    }
+
+    /**
+     * Crée un filtre combinant les critères de recherche fournis, avec une plage de dimensions.
+     *
+     * Le filtre est un {@link Critere} du moteur de requêtes : les critères sont
+     * testés du moins coûteux au plus coûteux, et les dimensions, qui exigent la
+     * lecture de l'en-tête, ne sont lues que pour les fichiers ayant passé les autres.
+     *
+     * @param nomPartiel Nom ou partie du nom (insensible à la casse), ou null.
+     * @param annee Année de dernière modification, ou null.
+     * @param dimensions Plage de dimensions (intervalles, bande de rapports), ou null.
+     * @return Le filtre correspondant.
+     */
+    public static Predicate<Fichier> creerFiltre(String nomPartiel, Integer annee, PlageDimensions dimensions) {
+        return Critere.depuis(nomPartiel, annee, dimensions);
+    }
+
+    /**
+     * Recherche des fichiers dans ce répertoire et ses sous-répertoires.
+     *
+     * @param nomPartiel Nom ou partie du nom (insensible à la casse), ou null.
+     * @param annee Année de dernière modification, ou null.
+     * @param dimensions Dimensions exactes [largeur, hauteur], ou null.
+     * @return La liste des fichiers correspondant à tous les critères.
+     */
+    public List<Fichier> rechercherFichiers(String nomPartiel, Integer annee, int[] dimensions) {
+        return rechercherFichiers(Critere.depuis(nomPartiel, annee, dimensions == null ? null
+                : PlageDimensions.entre(dimensions[0], dimensions[0], dimensions[1], dimensions[1])));
+    }
+
+    /**
+     * Recherche des fichiers dans ce répertoire et ses sous-répertoires, avec une plage de dimensions.
+     *
+     * @param nomPartiel Nom ou partie du nom (insensible à la casse), ou null.
+     * @param annee Année de dernière modification, ou null.
+     * @param dimensions Plage de dimensions, ou null.
+     * @return La liste des fichiers correspondant à tous les critères.
+     */
+    public List<Fichier> rechercherFichiers(String nomPartiel, Integer annee, PlageDimensions dimensions) {
+        return rechercherFichiers(Critere.depuis(nomPartiel, annee, dimensions));
+    }
+
+    /**
+     * Recherche des fichiers dans ce répertoire et ses sous-répertoires avec le moteur de requêtes.
+     *
+     * @param critere Le critère à satisfaire.
+     * @return La liste des fichiers correspondants.
+     */
+    public List<Fichier> rechercherFichiers(Critere critere) {
+        return new MoteurRequete(new Catalogue(getTousFichiers(), false)).executer(critere);
+    }
+
+    /**
+     * Retourne un flux sur tous les fichiers de l'arborescence déjà chargée.
+     *
+     * @return Les fichiers de ce répertoire puis ceux des sous-répertoires.
+     */
+    public Stream<Fichier> streamArborescence() {
+        return Stream.concat(fichiers.stream(),
+                sousRepertoires.stream().flatMap(Repertoire::streamArborescence));
+    }
+
+    /**
+     * Ajoute un écouteur notifié des mises à jour incrémentales de l'arborescence.
+     *
+     * @param ecouteur L'écouteur à ajouter.
+     */
+    public void ajouterEcouteur(EcouteurRepertoire ecouteur) {
+        if (ecouteurs == null) {
+            ecouteurs = new CopyOnWriteArrayList<>();
+        }
+        ecouteurs.add(ecouteur);
+    }
+
+    /**
+     * Retire un écouteur précédemment ajouté.
+     *
+     * @param ecouteur L'écouteur à retirer.
+     */
+    public void retirerEcouteur(EcouteurRepertoire ecouteur) {
+        if (ecouteurs != null) {
+            ecouteurs.remove(ecouteur);
+        }
+    }
+
+    /**
+     * Met à jour un fichier de l'arborescence après sa création ou sa modification.
+     *
+     * Cette méthode, comme les autres mises à jour incrémentales, doit être appelée
+     * sur le répertoire racine parcouru par {@link #parcourirRepertoire(File)}.
+     *
+     * @param fichier Le chemin du fichier créé ou modifié.
+     */
+    public synchronized void actualiserFichier(Path fichier) {
+        List<Repertoire> ancetres = new ArrayList<>();
+        Repertoire parent = trouverRepertoire(fichier.getParent(), true, ancetres);
+        if (parent == null) {
+            return; // Hors de l'arborescence ou dans un répertoire exclu
+        }
+
+        Fichier ancien = parent.retirerFichierLocal(fichier.getFileName().toString());
+        Fichier nouveau = null;
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(fichier, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            if (ancien != null && attrs.size() == ancien.getTaille()
+                    && attrs.lastModifiedTime().toMillis() == ancien.getDateModificationMillis()) {
+                parent.fichiers.add(ancien); // Événement en double : rien n'a changé
+                return;
+            }
+            if (attrs.isRegularFile() && getFiltre().accepterFichier(fichier)) {
+                String typeMime = typeImage(fichier.toFile());
+                if (typeMime != null) {
+                    nouveau = new Fichier(fichier.toFile(), attrs, typeMime);
+                    parent.fichiers.add(nouveau);
+                }
+            }
+        } catch (IOException e) {
+            // Le fichier a disparu entre l'événement et sa lecture : il reste retiré
+        }
+
+        mettreAJourStatistiques(ancetres, ancien != null ? List.of(ancien) : List.of(),
+                nouveau != null ? List.of(nouveau) : List.of());
+        if (ancien != null) {
+            notifierRetrait(ancien);
+        }
+        if (nouveau != null) {
+            notifierAjout(nouveau);
+        }
+    }
+
+    /**
+     * Retire de l'arborescence un fichier ou un répertoire supprimé.
+     *
+     * @param entree Le chemin du fichier ou du répertoire supprimé.
+     */
+    public synchronized void retirerEntree(Path entree) {
+        List<Repertoire> ancetres = new ArrayList<>();
+        Repertoire parent = trouverRepertoire(entree.getParent(), false, ancetres);
+        if (parent == null) {
+            return;
+        }
+
+        String nomEntree = entree.getFileName().toString();
+        Fichier ancien = parent.retirerFichierLocal(nomEntree);
+        if (ancien != null) {
+            mettreAJourStatistiques(ancetres, List.of(ancien), List.of());
+            notifierRetrait(ancien);
+            return;
+        }
+
+        Repertoire sousRepertoire = parent.getSousRepertoire(nomEntree);
+        if (sousRepertoire != null) {
+            parent.sousRepertoires.remove(sousRepertoire);
+            List<Fichier> retires = sousRepertoire.streamArborescence().collect(Collectors.toList());
+            mettreAJourStatistiques(ancetres, retires, List.of());
+            retires.forEach(this::notifierRetrait);
+        }
+    }
+
+    /**
+     * Parcourt à nouveau un seul répertoire de l'arborescence et applique les différences.
+     *
+     * Utilisé lorsqu'un sous-répertoire apparaît ou lorsque des événements ont été
+     * perdus : seul le sous-arbre concerné est relu. Les fichiers inchangés
+     * (même taille et même date) conservent leur objet {@link Fichier}.
+     *
+     * @param repertoire Le chemin du répertoire à relire.
+     * @throws IOException Si le répertoire ne peut pas être lu.
+     */
+    public synchronized void actualiserRepertoire(Path repertoire) throws IOException {
+        List<Repertoire> ancetres = new ArrayList<>();
+        Repertoire noeud = trouverRepertoire(repertoire, true, ancetres);
+        if (noeud == null) {
+            return;
+        }
+
+        Repertoire nouveau = new Repertoire(noeud.nom);
+        nouveau.filtre = filtre;
+        nouveau.parcourirRepertoire(repertoire.toFile());
+
+        Map<String, Fichier> anciens = new HashMap<>();
+        noeud.streamArborescence().forEach(f -> anciens.put(f.getCheminRelatif(), f));
+        List<Fichier> ajoutes = new ArrayList<>();
+        nouveau.conserverInchanges(anciens, ajoutes);
+
+        noeud.chemin = nouveau.chemin;
+        noeud.fichiers = nouveau.fichiers;
+        noeud.sousRepertoires = nouveau.sousRepertoires;
+
+        mettreAJourStatistiques(ancetres, anciens.values(), ajoutes);
+        anciens.values().forEach(this::notifierRetrait); // Fichiers disparus ou modifiés
+        ajoutes.forEach(this::notifierAjout);
+    }
+
+    /**
+     * Remplace les fichiers inchangés par leur ancienne instance et collecte les nouveaux.
+     */
+    private void conserverInchanges(Map<String, Fichier> anciens, List<Fichier> ajoutes) {
+        for (int i = 0; i < fichiers.size(); i++) {
+            Fichier courant = fichiers.get(i);
+            Fichier ancien = anciens.get(courant.getCheminRelatif());
+            if (ancien != null && ancien.getTaille() == courant.getTaille()
+                    && ancien.getDateModificationMillis() == courant.getDateModificationMillis()) {
+                anciens.remove(courant.getCheminRelatif());
+                fichiers.set(i, ancien);
+            } else {
+                ajoutes.add(courant);
+            }
+        }
+        for (Repertoire sousRepertoire : sousRepertoires) {
+            sousRepertoire.conserverInchanges(anciens, ajoutes);
+        }
+    }
+
+    /**
+     * Retourne une copie de tous les fichiers de l'arborescence, cohérente même
+     * pendant des mises à jour incrémentales.
+     *
+     * @return La liste de tous les fichiers.
+     */
+    public synchronized List<Fichier> getTousFichiers() {
+        return streamArborescence().collect(Collectors.toList());
+    }
+
+    /**
+     * Retourne les statistiques de toute l'arborescence.
+     *
+     * Chaque répertoire garde les statistiques de son sous-arbre, calculées à
+     * partir de ses propres fichiers et des statistiques de ses sous-répertoires.
+     * Elles sont ensuite tenues à jour par {@link #actualiserFichier(Path)},
+     * {@link #retirerEntree(Path)} et {@link #actualiserRepertoire(Path)}, qui
+     * appliquent chaque changement aux seuls ancêtres du fichier concerné : une
+     * lecture ne parcourt plus l'arborescence. Seuls les sous-arbres qui ont
+     * perdu leur plus petit, plus gros, plus ancien ou plus récent fichier sont
+     * recalculés, à partir des statistiques de leurs sous-répertoires.
+     * Chaque changement est appliqué d'un seul tenant : une lecture concurrente
+     * voit l'état d'avant ou celui d'après.
+     *
+     * Comme les mises à jour incrémentales, cette méthode doit être appelée sur
+     * la racine ; les sous-arbres sont lus par {@link #getRepartition(int)}.
+     *
+     * @return Une copie des statistiques, que l'appelant peut conserver.
+     */
+    public AccumulateurStatistiques getStatistiques() {
+        AccumulateurStatistiques courantes = statistiques;
+        if (courantes != null) {
+            synchronized (courantes) {
+                if (courantes.extremesExacts()) {
+                    return courantes.copie();
+                }
+            }
+        }
+        return recalculerStatistiques();
+    }
+
+    // Verrou de l'arborescence puis ceux des statistiques, dans le même ordre que les mises à jour
+    private synchronized AccumulateurStatistiques recalculerStatistiques() {
+        AccumulateurStatistiques courantes = agreger();
+        synchronized (courantes) {
+            return courantes.copie();
+        }
+    }
+
+    /**
+     * Retourne les statistiques de chaque sous-arbre jusqu'à une profondeur
+     * donnée, à la manière de la commande du.
+     *
+     * @param profondeur La profondeur maximale (0 pour la racine seule).
+     * @return Les statistiques de chaque répertoire, indexées par leur chemin
+     *         relatif à la racine ("." pour la racine), dans l'ordre de l'arborescence.
+     */
+    public synchronized Map<String, AccumulateurStatistiques> getRepartition(int profondeur) {
+        if (profondeur < 0) {
+            throw new IllegalArgumentException("La profondeur doit être positive.");
+        }
+        Map<String, AccumulateurStatistiques> repartition = new LinkedHashMap<>();
+        repartir(".", profondeur, repartition);
+        return repartition;
+    }
+
+    private void repartir(String cheminRelatif, int profondeur, Map<String, AccumulateurStatistiques> repartition) {
+        AccumulateurStatistiques courantes = agreger();
+        synchronized (courantes) {
+            repartition.put(cheminRelatif, courantes.copie());
+        }
+        if (profondeur > 0) {
+            for (Repertoire sousRepertoire : sousRepertoires) {
+                String chemin = cheminRelatif.equals(".") ? sousRepertoire.nom : cheminRelatif + "/" + sousRepertoire.nom;
+                sousRepertoire.repartir(chemin, profondeur - 1, repartition);
+            }
+        }
+    }
+
+    /**
+     * Retourne les statistiques du sous-arbre, en les calculant si elles sont
+     * absentes ou si leurs extrêmes sont périmés. Appelée sous le verrou de la racine.
+     */
+    private AccumulateurStatistiques agreger() {
+        AccumulateurStatistiques courantes = statistiques;
+        if (courantes != null) {
+            synchronized (courantes) {
+                if (courantes.extremesExacts()) {
+                    return courantes;
+                }
+            }
+        }
+        AccumulateurStatistiques nouvelles = new AccumulateurStatistiques();
+        fichiers.forEach(nouvelles::ajouter);
+        for (Repertoire sousRepertoire : sousRepertoires) {
+            AccumulateurStatistiques sousArbre = sousRepertoire.agreger();
+            synchronized (sousArbre) {
+                nouvelles.fusionner(sousArbre);
+            }
+        }
+        statistiques = nouvelles;
+        return nouvelles;
+    }
+
+    // Appelée sous le verrou de la racine, avant la notification des écouteurs
+    private static void mettreAJourStatistiques(List<Repertoire> ancetres, Collection<Fichier> retires,
+                                                Collection<Fichier> ajoutes) {
+        for (Repertoire ancetre : ancetres) {
+            AccumulateurStatistiques courantes = ancetre.statistiques;
+            if (courantes == null) {
+                continue; // Pas encore calculées : elles le seront à la première lecture
+            }
+            synchronized (courantes) {
+                retires.forEach(courantes::retirer);
+                ajoutes.forEach(courantes::ajouter);
+            }
+        }
+    }
+
+    /**
+     * Retrouve le nœud correspondant à un répertoire sur le disque.
+     *
+     * @param repertoire Le chemin du répertoire.
+     * @param creer true pour créer les nœuds manquants (s'ils ne sont pas exclus).
+     * @param ancetres Reçoit les nœuds traversés, de la racine au nœud trouvé inclus.
+     * @return Le nœud, ou null s'il est hors de l'arborescence, exclu ou absent.
+     */
+    private Repertoire trouverRepertoire(Path repertoire, boolean creer, List<Repertoire> ancetres) {
+        if (chemin == null || repertoire == null) {
+            return null;
+        }
+        Path relatif = chemin.toPath().toAbsolutePath().normalize()
+                .relativize(repertoire.toAbsolutePath().normalize());
+        if (relatif.startsWith("..")) {
+            return null;
+        }
+
+        Repertoire noeud = this;
+        ancetres.add(noeud);
+        for (Path segment : relatif) {
+            String nomSegment = segment.toString();
+            if (nomSegment.isEmpty()) {
+                continue; // Le répertoire est la racine elle-même
+            }
+            Repertoire suivant = noeud.getSousRepertoire(nomSegment);
+            if (suivant == null) {
+                File cheminSuivant = new File(noeud.chemin, nomSegment);
+                if (!creer || !getFiltre().accepterRepertoire(cheminSuivant.toPath())) {
+                    return null;
+                }
+                suivant = new Repertoire(nomSegment);
+                suivant.chemin = cheminSuivant;
+                suivant.filtre = filtre;
+                noeud.sousRepertoires.add(suivant);
+            }
+            noeud = suivant;
+            ancetres.add(noeud);
+        }
+        return noeud;
+    }
+
+    private Repertoire getSousRepertoire(String nomSousRepertoire) {
+        for (Repertoire sousRepertoire : sousRepertoires) {
+            if (sousRepertoire.nom.equals(nomSousRepertoire)) {
+                return sousRepertoire;
+            }
+        }
+        return null;
+    }
+
+    private Fichier retirerFichierLocal(String nomFichier) {
+        for (Iterator<Fichier> it = fichiers.iterator(); it.hasNext(); ) {
+            Fichier fichier = it.next();
+            if (fichier.getNom().equals(nomFichier)) {
+                it.remove();
+                return fichier;
+            }
+        }
+        return null;
+    }
+
+    private void notifierAjout(Fichier fichier) {
+        if (ecouteurs != null) {
+            ecouteurs.forEach(ecouteur -> ecouteur.fichierAjoute(fichier));
+        }
+    }
+
+    private void notifierRetrait(Fichier fichier) {
+        if (ecouteurs != null) {
+            ecouteurs.forEach(ecouteur -> ecouteur.fichierRetire(fichier));
+        }
+    }
+
+    /**
+     * Parcourt un répertoire et ses sous-répertoires avec {@link Files#walkFileTree}.
+     *
+     * Les attributs de chaque entrée ne sont lus qu'une seule fois et conservés
+     * dans l'{@link ImageFile} correspondant : la taille et la date de modification
+     * ne nécessitent ensuite plus aucun accès au système de fichiers.
+     *
+     * @param directory Le répertoire à analyser.
+     * @throws IOException Si le répertoire est invalide ou inaccessible.
+     */
+    public void scanDirectoryNio(File directory) throws IOException {
+        if (directory == null || !directory.isDirectory()) {
+            throw new IOException("Répertoire invalide ou inexistant.");
+        }
+
+        Files.walkFileTree(directory.toPath(), new VisiteurImages(imageFiles, directory.toPath(), getFiltre()));
+    }
+
+    /**
+     * Parcourt un répertoire et ses sous-répertoires en parallèle.
+     *
+     * Utilise autant de threads que de processeurs disponibles.
+     *
+     * @param directory Le répertoire à analyser.
+     * @throws IOException Si le répertoire est invalide ou inaccessible.
+     * @see #scanDirectoryParallel(File, int)
+     */
+    public void scanDirectoryParallel(File directory) throws IOException {
+        scanDirectoryParallel(directory, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Parcourt un répertoire et ses sous-répertoires en parallèle à l'aide d'un {@link ForkJoinPool}.
+     *
+     * Chaque sous-répertoire devient une tâche indépendante et les fichiers image
+     * sont collectés dans une file concurrente. L'ordre des fichiers obtenus
+     * n'est donc pas garanti, contrairement à {@link #scanDirectory(File)}.
+     *
+     * @param directory Le répertoire à analyser.
+     * @param parallelisme Le nombre de threads de travail à utiliser.
+     * @throws IOException Si le répertoire est invalide ou inaccessible.
+     * @throws IllegalArgumentException Si le parallélisme n'est pas strictement positif.
+     */
+    public void scanDirectoryParallel(File directory, int parallelisme) throws IOException {
+        if (directory == null || !directory.exists() || !directory.isDirectory()) {
+            throw new IOException("Répertoire invalide ou inexistant.");
+        }
+        if (parallelisme <= 0) {
+            throw new IllegalArgumentException("Le parallélisme doit être strictement positif.");
+        }
+
+        Queue<ImageFile> collecteur = new ConcurrentLinkedQueue<>();
+        ForkJoinPool pool = new ForkJoinPool(parallelisme);
+        try {
+            pool.invoke(new TacheScanRepertoire(directory, collecteur, getFiltre()));
+        } finally {
+            pool.shutdown();
+        }
+        imageFiles.addAll(collecteur);
+    }
+
     /**
      * Vérifie si un fichier est une image valide (PNG, JPEG, JPG, WEBP).
      *
      * @param file Le fichier à analyser.
      * @return true si le fichier est une image valide, sinon false.
      */
-    private boolean isValidImage(File file) {
-        try {
-            String fileName = file.getName().toLowerCase();
-            boolean validExtension = fileName.endsWith(".png") || fileName.endsWith(".jpeg") || 
-                                      fileName.endsWith(".jpg") || fileName.endsWith(".webp");
+    static boolean isValidImage(File file) {
+        return typeImage(file) != null;
+    }
 
-            String mimeType = Files.probeContentType(file.toPath());
-            boolean validMimeType = "image/png".equals(mimeType) || "image/jpeg".equals(mimeType) || "image/webp".equals(mimeType);
+    /**
+     * Détermine le type MIME d'un fichier image valide (PNG, JPEG, JPG, WEBP).
+     *
+     * L'extension est vérifiée en premier : les autres fichiers ne sont jamais lus.
+     * Le contenu est ensuite identifié par {@link DetecteurType}.
+     *
+     * @param file Le fichier à analyser.
+     * @return Le type MIME si le fichier est une image valide, sinon null.
+     */
+    static String typeImage(File file) {
+        String fileName = file.getName().toLowerCase();
+        boolean validExtension = fileName.endsWith(".png") || fileName.endsWith(".jpeg") ||
+                                  fileName.endsWith(".jpg") || fileName.endsWith(".webp");
+        if (!validExtension) {
+            return null;
+        }
 
-            return validExtension && validMimeType;
+        try {
+            String mimeType = DetecteurType.detecter(file);
+            boolean validMimeType = "image/png".equals(mimeType) || "image/jpeg".equals(mimeType) || "image/webp".equals(mimeType);
+            return validMimeType ? mimeType : null;
         } catch (IOException e) {
             System.err.println("Erreur lors de la vérification : " + file.getName() + " - " + e.getMessage());
-            return false;
+            return null;
         }
     }
 
@@ -104,6 +851,64 @@ public class Repertoire {
         return imageFiles;
     }
 
+    /**
+     * Définit les règles d'inclusion et d'exclusion utilisées par les parcours
+     * ({@link #scanDirectory(File)}, {@link #parcourirRepertoire(File)}, etc.).
+     *
+     * @param filtre Les règles à appliquer, ou null pour tout accepter.
+     */
+    public void setFiltre(FiltreParcours filtre) {
+        this.filtre = filtre;
+    }
+
+    /**
+     * Retourne les règles d'inclusion et d'exclusion utilisées par les parcours.
+     *
+     * @return Le filtre courant (jamais null).
+     */
+    public FiltreParcours getFiltre() {
+        if (filtre == null) {
+            filtre = new FiltreParcours();
+        }
+        return filtre;
+    }
+
+    /**
+     * Retourne le nom du répertoire.
+     *
+     * @return Le nom du répertoire.
+     */
+    public String getNom() {
+        return nom;
+    }
+
+    /**
+     * Retourne le chemin du répertoire parcouru.
+     *
+     * @return Le chemin sur le disque, ou null si le répertoire n'a pas été parcouru.
+     */
+    public File getChemin() {
+        return chemin;
+    }
+
+    /**
+     * Retourne les fichiers image situés directement dans ce répertoire.
+     *
+     * @return La liste des fichiers du répertoire.
+     */
+    public List<Fichier> getFichiers() {
+        return fichiers;
+    }
+
+    /**
+     * Retourne les sous-répertoires de ce répertoire.
+     *
+     * @return La liste des sous-répertoires.
+     */
+    public List<Repertoire> getSousRepertoires() {
+        return sousRepertoires;
+    }
+
     /**
      * Affiche les statistiques globales sur les fichiers image trouvés.
      *
@@ -0,0 +1,120 @@
+package data;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Statistiques d'une arborescence estimées par {@link EstimateurStatistiques},
+ * chacune avec la marge de son intervalle de confiance à 95 %.
+ *
+ * @author Youmna Saad et Seyda Ann
+ */
+public final class StatistiquesEstimees {
+
+    private final Estimation nombreFichiers;
+    private final Estimation tailleTotale;
+    private final Map<String, Estimation> nombreParFormat;
+    private final long nombreParcours;
+    private final int nombreRepertoiresLus;
+    private final long dureeMillis;
+
+    StatistiquesEstimees(Estimation nombreFichiers, Estimation tailleTotale, Map<String, Estimation> nombreParFormat,
+                         long nombreParcours, int nombreRepertoiresLus, long dureeMillis) {
+        this.nombreFichiers = nombreFichiers;
+        this.tailleTotale = tailleTotale;
+        this.nombreParFormat = Collections.unmodifiableMap(nombreParFormat);
+        this.nombreParcours = nombreParcours;
+        this.nombreRepertoiresLus = nombreRepertoiresLus;
+        this.dureeMillis = dureeMillis;
+    }
+
+    public Estimation getNombreFichiers() {
+        return nombreFichiers;
+    }
+
+    public Estimation getTailleTotale() {
+        return tailleTotale;
+    }
+
+    /**
+     * Retourne le nombre estimé d'images de chaque format ("PNG", "JPEG" pour
+     * .jpeg et .jpg, "WEBP").
+     *
+     * @return Les estimations par format.
+     */
+    public Map<String, Estimation> getNombreParFormat() {
+        return nombreParFormat;
+    }
+
+    // Nombre de descentes aléatoires de la racine vers une feuille
+    public long getNombreParcours() {
+        return nombreParcours;
+    }
+
+    // Nombre de répertoires distincts listés pendant l'estimation
+    public int getNombreRepertoiresLus() {
+        return nombreRepertoiresLus;
+    }
+
+    public long getDureeMillis() {
+        return dureeMillis;
+    }
+
+    /**
+     * Affiche les statistiques estimées.
+     */
+    public void afficherStatistiques() {
+        System.out.println("Statistiques estimées du répertoire (" + nombreParcours + " parcours, "
+                + nombreRepertoiresLus + " répertoires lus en " + dureeMillis + " ms) :");
+        System.out.println("Nombre de fichiers image : " + nombreFichiers);
+        nombreParFormat.forEach((format, estimation) ->
+                System.out.println("Nombre d'images " + format + " : " + estimation));
+        System.out.println("Taille totale des fichiers : "
+                + AccumulateurStatistiques.formaterTaille(Math.round(tailleTotale.getValeur())) + " ± "
+                + AccumulateurStatistiques.formaterTaille(Math.round(tailleTotale.getMarge()))
+                + String.format(" (± %.1f %%)", 100 * tailleTotale.getMargeRelative()));
+        System.out.println("Marges : intervalle de confiance à 95 %.");
+    }
+
+    @Override
+    public String toString() {
+        return "StatistiquesEstimees {" +
+                "Nombre de fichiers=" + nombreFichiers +
+                ", Par format=" + nombreParFormat +
+                ", Taille totale=" + tailleTotale + " octets" +
+                ", Parcours=" + nombreParcours +
+                '}';
+    }
+
+    /**
+     * Valeur estimée et marge de son intervalle de confiance à 95 %.
+     */
+    public static final class Estimation {
+        private final double valeur;
+        private final double marge;
+
+        Estimation(double valeur, double marge) {
+            this.valeur = valeur;
+            this.marge = marge;
+        }
+
+        public double getValeur() {
+            return valeur;
+        }
+
+        // La valeur réelle est entre valeur - marge et valeur + marge avec une confiance de 95 %
+        public double getMarge() {
+            return marge;
+        }
+
+        // Marge rapportée à la valeur (0 pour une valeur nulle)
+        public double getMargeRelative() {
+            return valeur > 0 ? marge / valeur : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.0f ± %.0f (± %.1f %%)", valeur, marge, 100 * getMargeRelative());
+        }
+    }
+}
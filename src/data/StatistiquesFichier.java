@@ -5,10 +5,10 @@ package data;
 import java.io.Serializable;
 
 public class StatistiquesFichier implements Serializable {
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 2L; // La taille est passée de int à long
 
     // Attributs principaux
-    private int taille; // Taille du fichier en octets
+    private long taille; // Taille du fichier en octets (long : les fichiers de plus de 2 Go ne débordent pas)
     private String typeMime; // Type MIME du fichier
     private String dateModification; // Date de dernière modification du fichier
 
@@ -18,7 +18,7 @@ public class StatistiquesFichier implements Serializable {
      * @param typeMime Type MIME.
      * @param dateModification Date de dernière modification.
      */
-    public StatistiquesFichier(int taille, String typeMime, String dateModification) {
+    public StatistiquesFichier(long taille, String typeMime, String dateModification) {
         this.taille = taille;
         this.typeMime = typeMime;
         this.dateModification = dateModification;
@@ -28,7 +28,7 @@ public class StatistiquesFichier implements Serializable {
      * Retourne la taille du fichier.
      * @return Taille en octets.
      */
-    public int getTaille() {
+    public long getTaille() {
         return taille;
     }
 
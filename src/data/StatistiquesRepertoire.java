@@ -7,6 +7,7 @@ public class StatistiquesRepertoire implements Serializable {
     private static final long serialVersionUID = 1L;
 
     private List<Fichier> fichiersImage; // Liste des fichiers image dans le répertoire
+    private AccumulateurStatistiques accumulateur; // Calculé au premier accès, en un seul passage
 
     /**
      * Constructeur pour initialiser la liste des fichiers.
@@ -19,12 +20,25 @@ public class StatistiquesRepertoire implements Serializable {
         this.fichiersImage = fichiersImage;
     }
 
+    /**
+     * Constructeur à partir de statistiques déjà calculées, par exemple celles
+     * tenues à jour par {@link Repertoire#getStatistiques()}.
+     * @param accumulateur Les statistiques du répertoire.
+     */
+    public StatistiquesRepertoire(AccumulateurStatistiques accumulateur) {
+        if (accumulateur == null) {
+            throw new IllegalArgumentException("Les statistiques ne peuvent pas être null.");
+        }
+        this.fichiersImage = List.of();
+        this.accumulateur = accumulateur;
+    }
+
     /**
      * Retourne le nombre total de fichiers dans le répertoire.
      * @return Nombre total de fichiers.
      */
     public int getNombreTotalFichiers() {
-        return fichiersImage.size();
+        return (int) getAccumulateur().getNombreFichiers();
     }
 
     /**
@@ -32,9 +46,7 @@ public class StatistiquesRepertoire implements Serializable {
      * @return Nombre d'images détectées.
      */
     public int getNombreImagesValides() {
-        return (int) fichiersImage.stream()
-                .filter(Fichier::verifierTypeMIME) // Utilise directement la méthode de Fichier
-                .count();
+        return (int) getAccumulateur().getNombreImagesValides();
     }
 
     /**
@@ -43,12 +55,7 @@ public class StatistiquesRepertoire implements Serializable {
      * @return Nombre d'images correspondant.
      */
     public int getNombreImagesParFormat(String extension) {
-        if (extension == null || extension.isEmpty()) {
-            throw new IllegalArgumentException("L'extension ne peut pas être null ou vide.");
-        }
-        return (int) fichiersImage.stream()
-                .filter(f -> f.getNom().toLowerCase().endsWith(extension.toLowerCase()))
-                .count();
+        return (int) getAccumulateur().getNombreParExtension(extension);
     }
 
     /**
@@ -56,22 +63,36 @@ public class StatistiquesRepertoire implements Serializable {
      * @return Taille totale en octets.
      */
     public long getTailleTotale() {
-        return fichiersImage.stream()
-                .mapToLong(f -> f.getStatistiques().getTaille())
-                .sum();
+        return getAccumulateur().getTailleTotale();
+    }
+
+    /**
+     * Retourne les statistiques calculées en un seul passage sur la liste,
+     * lors du premier accès.
+     * @return L'accumulateur des statistiques.
+     */
+    public synchronized AccumulateurStatistiques getAccumulateur() {
+        if (accumulateur == null) {
+            accumulateur = AccumulateurStatistiques.pourFichiers(fichiersImage);
+        }
+        return accumulateur;
     }
 
     /**
      * Affiche les statistiques globales pour le répertoire.
      */
     public void afficherStatistiques() {
+        AccumulateurStatistiques stats = getAccumulateur();
         System.out.println("Statistiques du répertoire :");
         System.out.println("Nombre total de fichiers : " + getNombreTotalFichiers());
-        System.out.println("Nombre d'images valides : " + getNombreImagesValides());
-        System.out.println("Nombre d'images PNG : " + getNombreImagesParFormat(".png"));
-        System.out.println("Nombre d'images JPEG : " + (getNombreImagesParFormat(".jpeg") + getNombreImagesParFormat(".jpg")));
-        System.out.println("Nombre d'images WEBP : " + getNombreImagesParFormat(".webp"));
-        System.out.println("Taille totale des fichiers : " + getTailleTotale() + " octets");
+        System.out.println("Nombre d'images valides : " + stats.getNombreImagesValides());
+        System.out.println("Nombre d'images PNG : " + stats.getNombreParExtension(".png"));
+        System.out.println("Nombre d'images JPEG : " + stats.getNombreJpeg());
+        System.out.println("Nombre d'images WEBP : " + stats.getNombreParExtension(".webp"));
+        System.out.println("Taille totale des fichiers : " + stats.getTailleTotale() + " octets");
+        System.out.println("Plus petit fichier : " + stats.getTailleMin() + " octets");
+        System.out.println("Plus gros fichier : " + stats.getTailleMax() + " octets");
+        System.out.print(stats.decrireDistributions());
     }
 
     /**
@@ -80,13 +101,16 @@ public class StatistiquesRepertoire implements Serializable {
      */
     @Override
     public String toString() {
+        AccumulateurStatistiques stats = getAccumulateur();
         return "StatistiquesRepertoire {" +
                 "Nombre total de fichiers=" + getNombreTotalFichiers() +
-                ", Nombre d'images valides=" + getNombreImagesValides() +
-                ", Images PNG=" + getNombreImagesParFormat(".png") +
-                ", Images JPEG=" + (getNombreImagesParFormat(".jpeg") + getNombreImagesParFormat(".jpg")) +
-                ", Images WEBP=" + getNombreImagesParFormat(".webp") +
-                ", Taille totale=" + getTailleTotale() + " octets" +
+                ", Nombre d'images valides=" + stats.getNombreImagesValides() +
+                ", Images PNG=" + stats.getNombreParExtension(".png") +
+                ", Images JPEG=" + stats.getNombreJpeg() +
+                ", Images WEBP=" + stats.getNombreParExtension(".webp") +
+                ", Taille totale=" + stats.getTailleTotale() + " octets" +
+                ", Taille min=" + stats.getTailleMin() + " octets" +
+                ", Taille max=" + stats.getTailleMax() + " octets" +
                 '}';
     }
 }
@@ -0,0 +1,157 @@
+package data;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.LinkOption;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maintient un {@link Repertoire} à jour à partir des événements du système de fichiers.
+ * 
+ * Chaque répertoire accepté par le filtre est enregistré auprès d'un
+ * {@link WatchService}. Les créations et modifications de fichiers sont
+ * appliquées une à une, les suppressions retirent le fichier ou le sous-arbre,
+ * et un nouveau sous-répertoire (ou une perte d'événements) déclenche un
+ * parcours ciblé du seul répertoire concerné au lieu d'un nouveau parcours complet.
+ * 
+ * @author Youmna Saad et Seyda Ann
+ */
+public class SurveillanceRepertoire implements Runnable, Closeable {
+
+    private final Repertoire racine;
+    private final WatchService service;
+    private final Map<WatchKey, Path> repertoires = new ConcurrentHashMap<>();
+    private volatile Thread thread;
+
+    /**
+     * Crée une surveillance pour une arborescence déjà parcourue.
+     *
+     * @param racine Le répertoire racine, rempli par {@link Repertoire#parcourirRepertoire(java.io.File)}.
+     * @throws IOException Si le service de surveillance ne peut pas être créé.
+     */
+    public SurveillanceRepertoire(Repertoire racine) throws IOException {
+        if (racine.getChemin() == null) {
+            throw new IllegalArgumentException("Le répertoire doit avoir été parcouru avant d'être surveillé.");
+        }
+        this.racine = racine;
+        this.service = FileSystems.getDefault().newWatchService();
+        enregistrerArborescence(racine.getChemin().toPath());
+    }
+
+    /**
+     * Démarre la surveillance sur un thread démon.
+     *
+     * @return Cette surveillance.
+     */
+    public SurveillanceRepertoire demarrer() {
+        Thread t = new Thread(this, "surveillance-" + racine.getNom());
+        t.setDaemon(true);
+        thread = t;
+        t.start();
+        return this;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                WatchKey cle = service.take();
+                Path repertoire = repertoires.get(cle);
+                if (repertoire != null) {
+                    traiterEvenements(repertoire, cle);
+                }
+                if (!cle.reset()) {
+                    repertoires.remove(cle); // Répertoire supprimé ou inaccessible
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Fermeture normale
+        }
+    }
+
+    private void traiterEvenements(Path repertoire, WatchKey cle) {
+        for (WatchEvent<?> evenement : cle.pollEvents()) {
+            WatchEvent.Kind<?> type = evenement.kind();
+            try {
+                if (type == StandardWatchEventKinds.OVERFLOW) {
+                    // Des événements ont été perdus : on relit le répertoire concerné
+                    enregistrerArborescence(repertoire);
+                    racine.actualiserRepertoire(repertoire);
+                    continue;
+                }
+
+                Path entree = repertoire.resolve((Path) evenement.context());
+                if (type == StandardWatchEventKinds.ENTRY_DELETE) {
+                    racine.retirerEntree(entree);
+                } else if (Files.isDirectory(entree, LinkOption.NOFOLLOW_LINKS)) {
+                    if (type == StandardWatchEventKinds.ENTRY_CREATE && racine.getFiltre().accepterRepertoire(entree)) {
+                        enregistrerArborescence(entree);
+                        racine.actualiserRepertoire(entree);
+                    }
+                } else {
+                    racine.actualiserFichier(entree);
+                }
+            } catch (IOException e) {
+                System.err.println("Erreur lors de la mise à jour de " + repertoire + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Enregistre un répertoire et tous ses sous-répertoires acceptés par le filtre.
+     */
+    private void enregistrerArborescence(Path depart) throws IOException {
+        FiltreParcours filtre = racine.getFiltre();
+        Files.walkFileTree(depart, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (!dir.equals(depart) && !filtre.accepterRepertoire(dir)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                WatchKey cle = dir.register(service,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE,
+                        StandardWatchEventKinds.ENTRY_MODIFY);
+                repertoires.put(cle, dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                System.err.println("Erreur lors de l'accès à " + file + ": " + exc.getMessage());
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Arrête la surveillance et libère le service.
+     */
+    @Override
+    public void close() throws IOException {
+        service.close();
+        Thread t = thread;
+        if (t != null) {
+            t.interrupt();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package data;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Tâche fork-join explorant un seul répertoire.
+ *
+ * Les fichiers image du répertoire sont déposés dans un collecteur partagé
+ * et chaque sous-répertoire devient une nouvelle tâche, ce qui permet au
+ * {@link java.util.concurrent.ForkJoinPool} de répartir l'arborescence sur
+ * tous les threads disponibles. Les attributs de chaque entrée ne sont lus
+ * qu'une seule fois et réutilisés par {@link ImageFile}.
+ *
+ * @author Youmna Saad et Seyda Ann
+ */
+class TacheScanRepertoire extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final File repertoire; // Répertoire exploré par cette tâche
+    private final Queue<ImageFile> collecteur; // Collecteur concurrent partagé entre les tâches
+    private final FiltreParcours filtre; // Règles d'élagage du parcours
+
+    /**
+     * Crée une tâche pour un répertoire donné.
+     *
+     * @param repertoire Le répertoire à explorer.
+     * @param collecteur Le collecteur concurrent recevant les fichiers image.
+     * @param filtre Les règles d'inclusion et d'exclusion.
+     */
+    TacheScanRepertoire(File repertoire, Queue<ImageFile> collecteur, FiltreParcours filtre) {
+        this.repertoire = repertoire;
+        this.collecteur = collecteur;
+        this.filtre = filtre;
+    }
+
+    @Override
+    protected void compute() {
+        List<TacheScanRepertoire> sousTaches = new ArrayList<>();
+        try (DirectoryStream<Path> entrees = Files.newDirectoryStream(repertoire.toPath())) {
+            for (Path entree : entrees) {
+                BasicFileAttributes attrs;
+                try {
+                    attrs = Files.readAttributes(entree, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                } catch (IOException e) {
+                    System.err.println("Erreur lors de l'accès à : " + entree + " - " + e.getMessage());
+                    continue;
+                }
+
+                File file = entree.toFile();
+                if (attrs.isDirectory()) {
+                    if (filtre.accepterRepertoire(entree)) {
+                        sousTaches.add(new TacheScanRepertoire(file, collecteur, filtre));
+                    }
+                } else if (attrs.isRegularFile() && filtre.accepterFichier(entree)) {
+                    String typeMime = Repertoire.typeImage(file);
+                    if (typeMime != null) {
+                        collecteur.add(new ImageFile(file, attrs, typeMime));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la lecture du répertoire : " + repertoire + " - " + e.getMessage());
+        }
+
+        if (!sousTaches.isEmpty()) {
+            invokeAll(sousTaches); // Un sous-répertoire = une tâche
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package data;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+
+/**
+ * Visiteur NIO collectant les fichiers image d'une arborescence.
+ * 
+ * Les attributs fournis par {@link java.nio.file.Files#walkFileTree} sont lus une
+ * seule fois par entrée et transmis directement à {@link ImageFile}, ce qui évite
+ * les appels système répétés (isDirectory, isFile, length, lastModified).
+ * 
+ * @author Youmna Saad et Seyda Ann
+ */
+class VisiteurImages extends SimpleFileVisitor<Path> {
+
+    private final List<ImageFile> imageFiles; // Liste recevant les fichiers image
+    private final Path racine; // Racine du parcours, jamais élaguée
+    private final FiltreParcours filtre; // Règles d'élagage du parcours
+
+    /**
+     * Crée un visiteur alimentant la liste donnée.
+     *
+     * @param imageFiles La liste des fichiers image à compléter.
+     * @param racine La racine du parcours.
+     * @param filtre Les règles d'inclusion et d'exclusion.
+     */
+    VisiteurImages(List<ImageFile> imageFiles, Path racine, FiltreParcours filtre) {
+        this.imageFiles = imageFiles;
+        this.racine = racine;
+        this.filtre = filtre;
+    }
+
+    @Override
+    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+        if (!dir.equals(racine) && !filtre.accepterRepertoire(dir)) {
+            return FileVisitResult.SKIP_SUBTREE;
+        }
+        return FileVisitResult.CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+        if (attrs.isRegularFile() && filtre.accepterFichier(file)) {
+            String typeMime = Repertoire.typeImage(file.toFile());
+            if (typeMime != null) {
+                imageFiles.add(new ImageFile(file.toFile(), attrs, typeMime));
+            }
+        }
+        return FileVisitResult.CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult visitFileFailed(Path file, IOException exc) {
+        System.err.println("Erreur lors de l'accès à : " + file + " - " + exc.getMessage());
+        return FileVisitResult.CONTINUE;
+    }
+}
@@ -0,0 +1,222 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import data.EcouteurRepertoire;
+import data.Fichier;
+import data.Repertoire;
+
+/**
+ * Ensemble de fichiers interrogé par le {@link MoteurRequete}, avec ses index.
+ *
+ * Les index sur le nom, la date et la taille ne reposent que sur des
+ * informations déjà en mémoire ; ils sont construits à la première requête
+ * qui en a besoin lorsque l'indexation automatique est active (catalogue
+ * interrogé plusieurs fois, comme dans l'interface graphique). Les index sur
+ * les dimensions et la position GPS exigent de lire chaque fichier : ils ne
+ * sont construits que s'ils sont explicitement demandés.
+ *
+ * Un catalogue créé par {@link #suivre(Repertoire)} reste à jour lorsque le
+ * répertoire change : les index des noms (exact et approché) sont mis à jour
+ * fichier par fichier, les autres sont reconstruits à la requête suivante.
+ *
+ * @author Youmna Saad et Seyda Ann
+ */
+public class Catalogue {
+
+    private final Repertoire source; // null pour un catalogue fixe
+    private final boolean indexationAutomatique;
+    private boolean indexerDimensions;
+    private boolean indexerPositions;
+
+    private List<Fichier> fichiers;
+    private boolean perime; // La liste doit être relue depuis la source
+    private int version; // Incrémentée à chaque changement de la source
+    private Map<Fichier, Integer> positions;
+    private IndexNoms<Fichier> indexNoms;
+    private IndexFlou<Fichier> indexFlou;
+    private IndexDates<Fichier> indexDates;
+    private IndexTailles<Fichier> indexTailles;
+    private IndexDimensions<Fichier> indexDimensions;
+    private IndexGeo<Fichier> indexGeo;
+
+    /**
+     * Crée un catalogue fixe.
+     *
+     * @param fichiers Les fichiers du catalogue.
+     * @param indexationAutomatique true pour construire les index peu coûteux à la
+     *                              demande (catalogue interrogé plusieurs fois).
+     */
+    public Catalogue(Collection<Fichier> fichiers, boolean indexationAutomatique) {
+        if (fichiers == null) {
+            throw new IllegalArgumentException("La liste des fichiers ne peut pas être nulle.");
+        }
+        this.source = null;
+        this.indexationAutomatique = indexationAutomatique;
+        this.fichiers = Collections.unmodifiableList(new ArrayList<>(fichiers));
+    }
+
+    private Catalogue(Repertoire source) {
+        this.source = source;
+        this.indexationAutomatique = true;
+        this.fichiers = Collections.unmodifiableList(source.getTousFichiers());
+    }
+
+    /**
+     * Crée un catalogue indexé qui suit les changements d'une arborescence.
+     *
+     * @param repertoire Le répertoire racine déjà parcouru.
+     * @return Le catalogue.
+     */
+    public static Catalogue suivre(Repertoire repertoire) {
+        Catalogue catalogue = new Catalogue(repertoire);
+        repertoire.ajouterEcouteur(new EcouteurRepertoire() {
+            @Override
+            public void fichierAjoute(Fichier fichier) {
+                catalogue.modifie(fichier, true);
+            }
+
+            @Override
+            public void fichierRetire(Fichier fichier) {
+                catalogue.modifie(fichier, false);
+            }
+        });
+        return catalogue;
+    }
+
+    /**
+     * Demande la construction de l'index des dimensions (lecture de l'en-tête de chaque fichier).
+     *
+     * @return Ce catalogue.
+     */
+    public synchronized Catalogue indexerDimensions() {
+        indexerDimensions = true;
+        return this;
+    }
+
+    /**
+     * Demande la construction de l'index des positions GPS (analyse des métadonnées de chaque fichier).
+     *
+     * @return Ce catalogue.
+     */
+    public synchronized Catalogue indexerPositions() {
+        indexerPositions = true;
+        return this;
+    }
+
+    /**
+     * Retourne les fichiers du catalogue.
+     *
+     * @return La liste (non modifiable) des fichiers.
+     */
+    public synchronized List<Fichier> getFichiers() {
+        if (perime) {
+            fichiers = Collections.unmodifiableList(source.getTousFichiers());
+            positions = null;
+            perime = false;
+        }
+        return fichiers;
+    }
+
+    /**
+     * Retourne le nombre de fichiers du catalogue.
+     *
+     * @return Le nombre de fichiers.
+     */
+    public int taille() {
+        return getFichiers().size();
+    }
+
+    /**
+     * Retourne le numéro de version du catalogue : il change à chaque ajout ou
+     * retrait de fichier, ce qui invalide les jetons de pagination.
+     */
+    synchronized int getVersion() {
+        return version;
+    }
+
+    synchronized IndexNoms<Fichier> getIndexNoms() {
+        if (indexNoms == null && indexationAutomatique) {
+            indexNoms = new IndexNoms<>(getFichiers(), Fichier::getNom);
+        }
+        return indexNoms;
+    }
+
+    synchronized IndexFlou<Fichier> getIndexFlou() {
+        if (indexFlou == null && indexationAutomatique) {
+            indexFlou = IndexFlou.pourFichiers(getFichiers());
+        }
+        return indexFlou;
+    }
+
+    synchronized IndexDates<Fichier> getIndexDates() {
+        if (indexDates == null && indexationAutomatique) {
+            indexDates = new IndexDates<>(getFichiers(), Fichier::getDateModificationMillis);
+        }
+        return indexDates;
+    }
+
+    synchronized IndexTailles<Fichier> getIndexTailles() {
+        if (indexTailles == null && indexationAutomatique) {
+            indexTailles = IndexTailles.pourFichiers(getFichiers());
+        }
+        return indexTailles;
+    }
+
+    synchronized IndexDimensions<Fichier> getIndexDimensions() {
+        if (indexDimensions == null && indexerDimensions) {
+            indexDimensions = IndexDimensions.pourFichiers(getFichiers());
+        }
+        return indexDimensions;
+    }
+
+    synchronized IndexGeo<Fichier> getIndexGeo() {
+        if (indexGeo == null && indexerPositions) {
+            indexGeo = IndexGeo.pourFichiers(getFichiers());
+        }
+        return indexGeo;
+    }
+
+    /**
+     * Retourne la position d'un fichier dans la liste du catalogue, ou -1.
+     */
+    synchronized int position(Fichier fichier) {
+        List<Fichier> liste = getFichiers();
+        if (positions == null) {
+            positions = new IdentityHashMap<>(liste.size() * 2);
+            for (int i = 0; i < liste.size(); i++) {
+                positions.put(liste.get(i), i);
+            }
+        }
+        Integer position = positions.get(fichier);
+        return position != null ? position : -1;
+    }
+
+    private synchronized void modifie(Fichier fichier, boolean ajoute) {
+        perime = true;
+        version++;
+        if (indexNoms != null) {
+            if (ajoute) {
+                indexNoms.ajouter(fichier);
+            } else {
+                indexNoms.retirer(fichier);
+            }
+        }
+        if (indexFlou != null) {
+            if (ajoute) {
+                indexFlou.ajouter(fichier);
+            } else {
+                indexFlou.retirer(fichier);
+            }
+        }
+        indexDates = null;
+        indexTailles = null;
+        indexDimensions = null;
+        indexGeo = null;
+    }
+}
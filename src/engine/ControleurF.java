@@ -5,6 +5,9 @@ import data.MetaDonnees;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
 
 /**
  * Classe de contrôle pour les opérations liées aux fichiers.
@@ -36,8 +39,25 @@ public class ControleurF  implements Serializable {
             throw new IllegalArgumentException("La liste des fichiers ou le nom ne peuvent pas être null.");
         }
 
+        return ExecutionParallele.filtrer(fichiers, fichier -> fichier.getNom().contains(nom), Critere.COUT_MEMOIRE);
+    }
+
+    /**
+     * Cherche des fichiers par nom partiel à l'aide d'un index de trigrammes,
+     * sans parcourir toute la liste.
+     *
+     * @param index Index des noms de fichiers.
+     * @param nom Nom partiel à chercher.
+     * @return Liste des fichiers correspondant.
+     */
+    public ArrayList<Fichier> chercherFichiersParNom(IndexNoms<Fichier> index, String nom) {
+        if (index == null || nom == null) {
+            throw new IllegalArgumentException("L'index ou le nom ne peuvent pas être null.");
+        }
+
+        // L'index est insensible à la casse : on conserve la comparaison exacte de la version par liste
         ArrayList<Fichier> resultats = new ArrayList<>();
-        for (Fichier fichier : fichiers) {
+        for (Fichier fichier : index.rechercher(nom)) {
             if (fichier.getNom().contains(nom)) {
                 resultats.add(fichier);
             }
@@ -45,6 +65,41 @@ public class ControleurF  implements Serializable {
         return resultats;
     }
 
+    /**
+     * Cherche des fichiers dont le nom est proche d'un texte (fautes de frappe
+     * comprises) à l'aide d'un index de recherche approchée.
+     *
+     * @param index Index de recherche approchée des noms.
+     * @param nom Nom recherché.
+     * @param distanceMax Distance d'édition maximale.
+     * @return Liste des fichiers correspondant, du plus proche au plus éloigné.
+     */
+    public ArrayList<Fichier> chercherFichiersParNomApproche(IndexFlou<Fichier> index, String nom, int distanceMax) {
+        if (index == null || nom == null) {
+            throw new IllegalArgumentException("L'index ou le nom ne peuvent pas être null.");
+        }
+        return new ArrayList<>(index.rechercher(nom, distanceMax));
+    }
+
+    /**
+     * Cherche des fichiers dont le nom est proche d'un texte (fautes de frappe
+     * comprises), sans index : chaque nom est comparé avec une distance bornée.
+     *
+     * @param fichiers Liste de fichiers à chercher.
+     * @param nom Nom recherché.
+     * @param distanceMax Distance d'édition maximale.
+     * @return Liste des fichiers correspondant, du plus proche au plus éloigné.
+     */
+    public ArrayList<Fichier> chercherFichiersParNomApproche(List<Fichier> fichiers, String nom, int distanceMax) {
+        if (fichiers == null || nom == null) {
+            throw new IllegalArgumentException("La liste des fichiers ou le nom ne peuvent pas être null.");
+        }
+        Critere critere = Critere.nomApproche(nom, distanceMax);
+        ArrayList<Fichier> resultats = ExecutionParallele.filtrer(fichiers, critere, critere.cout());
+        IndexFlou.classer(resultats, Fichier::getNom, nom);
+        return resultats;
+    }
+
     /**
      * Cherche des fichiers par taille minimale.
      *
@@ -52,7 +107,7 @@ public class ControleurF  implements Serializable {
      * @param tailleMin Taille minimale (en octets).
      * @return Liste des fichiers correspondant.
      */
-    public ArrayList<Fichier> chercherFichiersParTaille(ArrayList<Fichier> fichiers, int tailleMin) {
+    public ArrayList<Fichier> chercherFichiersParTaille(ArrayList<Fichier> fichiers, long tailleMin) {
         if (fichiers == null) {
             throw new IllegalArgumentException("La liste des fichiers ne peut pas être null.");
         }
@@ -60,12 +115,72 @@ public class ControleurF  implements Serializable {
             throw new IllegalArgumentException("La taille minimale ne peut pas être négative.");
         }
 
-        ArrayList<Fichier> resultats = new ArrayList<>();
+        return ExecutionParallele.filtrer(fichiers, fichier -> fichier.getTaille() >= tailleMin, Critere.COUT_MEMOIRE);
+    }
+
+    /**
+     * Cherche des fichiers dont la taille est comprise dans un intervalle, à l'aide d'un index.
+     *
+     * @param index Index des tailles de fichiers.
+     * @param tailleMin Taille minimale (en octets, incluse).
+     * @param tailleMax Taille maximale (en octets, incluse).
+     * @return Liste des fichiers correspondant.
+     */
+    public ArrayList<Fichier> chercherFichiersParTaille(IndexTailles<Fichier> index, long tailleMin, long tailleMax) {
+        if (index == null) {
+            throw new IllegalArgumentException("L'index ne peut pas être null.");
+        }
+        return new ArrayList<>(index.rechercherIntervalle(tailleMin, tailleMax));
+    }
+
+    /**
+     * Retourne les N plus gros fichiers d'une liste.
+     *
+     * Un tas de N éléments suffit : la liste n'est pas triée.
+     *
+     * @param fichiers Liste de fichiers à examiner.
+     * @param n Nombre de fichiers voulus.
+     * @return Les N plus gros fichiers, du plus gros au plus petit.
+     */
+    public ArrayList<Fichier> plusGrosFichiers(List<Fichier> fichiers, int n) {
+        return premiers(fichiers, n, Comparator.comparingLong(Fichier::getTaille));
+    }
+
+    /**
+     * Retourne les N plus petits fichiers d'une liste.
+     *
+     * Un tas de N éléments suffit : la liste n'est pas triée.
+     *
+     * @param fichiers Liste de fichiers à examiner.
+     * @param n Nombre de fichiers voulus.
+     * @return Les N plus petits fichiers, du plus petit au plus gros.
+     */
+    public ArrayList<Fichier> plusPetitsFichiers(List<Fichier> fichiers, int n) {
+        return premiers(fichiers, n, Comparator.comparingLong(Fichier::getTaille).reversed());
+    }
+
+    // Les N fichiers les plus grands selon l'ordre donné, du plus grand au plus petit
+    private static ArrayList<Fichier> premiers(List<Fichier> fichiers, int n, Comparator<Fichier> ordre) {
+        if (fichiers == null) {
+            throw new IllegalArgumentException("La liste des fichiers ne peut pas être null.");
+        }
+        if (n < 0) {
+            throw new IllegalArgumentException("Le nombre de fichiers demandés ne peut pas être négatif.");
+        }
+
+        // Tas : la racine est le moins bien classé des N meilleurs trouvés jusqu'ici
+        PriorityQueue<Fichier> tas = new PriorityQueue<>(Math.max(1, n), ordre);
         for (Fichier fichier : fichiers) {
-            if (fichier.getStatistiques().getTaille() >= tailleMin) {
-                resultats.add(fichier);
+            if (tas.size() < n) {
+                tas.add(fichier);
+            } else if (n > 0 && ordre.compare(fichier, tas.peek()) > 0) {
+                tas.poll();
+                tas.add(fichier);
             }
         }
+
+        ArrayList<Fichier> resultats = new ArrayList<>(tas);
+        resultats.sort(ordre.reversed());
         return resultats;
     }
 }
@@ -1,12 +1,17 @@
 package engine;
 
+import data.AccumulateurStatistiques;
 import data.Repertoire;
 import data.StatistiquesRepertoire;
 import data.Fichier;
 
 import java.io.Serializable;
+import java.time.Instant;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Classe de contrôle pour les opérations liées aux répertoires.
@@ -24,14 +29,19 @@ public class ControleurR  implements Serializable {
             throw new IllegalArgumentException("Le répertoire ne peut pas être null.");
         }
 
-        ArrayList<Fichier> tousFichiers = new ArrayList<>(repertoire.getFichiers());
+        ArrayList<Fichier> tousFichiers = new ArrayList<>();
+        ajouterFichiers(repertoire, tousFichiers);
+        return tousFichiers;
+    }
+
+    // Remplit une seule liste : chaque fichier n'est copié qu'une fois, quelle que soit sa profondeur
+    private void ajouterFichiers(Repertoire repertoire, ArrayList<Fichier> tousFichiers) {
+        tousFichiers.addAll(repertoire.getFichiers());
 
         // Parcourt récursivement les sous-répertoires
         for (Repertoire sousRepertoire : repertoire.getSousRepertoires()) {
-            tousFichiers.addAll(listerFichiers(sousRepertoire));
+            ajouterFichiers(sousRepertoire, tousFichiers);
         }
-
-        return tousFichiers;
     }
 
     /**
@@ -45,11 +55,8 @@ public class ControleurR  implements Serializable {
             throw new IllegalArgumentException("Le répertoire ne peut pas être null.");
         }
 
-        // Collecte tous les fichiers du répertoire principal et des sous-répertoires
-        ArrayList<Fichier> tousFichiers = listerFichiers(repertoire);
-
-        // Crée un objet StatistiquesRepertoire basé sur la liste complète des fichiers
-        return new StatistiquesRepertoire(tousFichiers);
+        // Statistiques tenues à jour par le répertoire : aucune liste n'est recopiée
+        return new StatistiquesRepertoire(repertoire.getStatistiques());
     }
     
     public List<Fichier> rechercherFichiers(Repertoire repertoire, String nomPartiel, Integer annee, int[] dimensions) {
@@ -73,4 +80,34 @@ public class ControleurR  implements Serializable {
         // Affiche uniquement les statistiques calculées
         stats.afficherStatistiques();
     }
+
+    /**
+     * Affiche l'occupation de chaque sous-arbre jusqu'à une profondeur donnée,
+     * des plus lourds aux plus légers (à la manière de la commande du).
+     *
+     * @param repertoire Le répertoire racine.
+     * @param profondeur La profondeur maximale affichée (0 pour la racine seule).
+     */
+    public void afficherOccupation(Repertoire repertoire, int profondeur) {
+        if (repertoire == null) {
+            throw new IllegalArgumentException("Le répertoire ne peut pas être null.");
+        }
+
+        List<Map.Entry<String, AccumulateurStatistiques>> sousArbres =
+                new ArrayList<>(repertoire.getRepartition(profondeur).entrySet());
+        sousArbres.sort(Comparator.comparingLong(
+                (Map.Entry<String, AccumulateurStatistiques> e) -> e.getValue().getTailleTotale()).reversed());
+
+        System.out.println("Occupation du répertoire (taille, fichiers, plus ancien .. plus récent, chemin) :");
+        for (Map.Entry<String, AccumulateurStatistiques> sousArbre : sousArbres) {
+            AccumulateurStatistiques stats = sousArbre.getValue();
+            System.out.printf("%8s %8d  %s .. %s  %s%n", AccumulateurStatistiques.formaterTaille(stats.getTailleTotale()),
+                    stats.getNombreFichiers(), formaterDate(stats.getDateMin()),
+                    formaterDate(stats.getDateMax()), sousArbre.getKey());
+        }
+    }
+
+    private static String formaterDate(long millis) {
+        return millis < 0 ? "----------" : Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault()).toLocalDate().toString();
+    }
 }
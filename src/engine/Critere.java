@@ -0,0 +1,926 @@
+package engine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import data.Fichier;
+import data.MetaDonnees;
+
+/**
+ * Critère de recherche sur un {@link Fichier}, évaluable par le {@link MoteurRequete}.
+ *
+ * Chaque critère annonce un coût estimé d'évaluation par fichier et une
+ * sélectivité (la proportion de fichiers qu'il laisse passer). Les
+ * conjonctions et disjonctions évaluent leurs termes du plus avantageux au
+ * moins avantageux : un critère bon marché et très sélectif (le nom) passe
+ * avant un critère qui exige de lire l'en-tête (les dimensions), lui-même
+ * avant l'analyse complète des métadonnées (la position GPS).
+ *
+ * Un critère peut aussi fournir directement ses candidats à partir d'un index
+ * du {@link Catalogue}, ce qui évite de parcourir tout le catalogue.
+ *
+ * Un critère est aussi un {@link Predicate} : il peut filtrer un flux de fichiers.
+ *
+ * @author Youmna Saad et Seyda Ann
+ */
+public abstract class Critere implements Predicate<Fichier> {
+
+    /** Coût d'un test sur des informations déjà en mémoire (nom, taille et date capturées). */
+    public static final int COUT_MEMOIRE = 1;
+    /** Coût d'une lecture des attributs du fichier sur le disque. */
+    public static final int COUT_ATTRIBUTS = 20;
+    /** Coût d'une lecture des premiers octets du fichier (type, dimensions). */
+    public static final int COUT_ENTETE = 200;
+    /** Coût d'une analyse complète des métadonnées (EXIF, GPS). */
+    public static final int COUT_METADONNEES = 2000;
+
+    /**
+     * Teste si un fichier satisfait le critère.
+     *
+     * @param fichier Le fichier à tester.
+     * @return true si le fichier satisfait le critère.
+     */
+    @Override
+    public abstract boolean test(Fichier fichier);
+
+    /**
+     * Retourne le coût estimé d'évaluation du critère pour un fichier.
+     *
+     * @return Le coût, en unités relatives (voir les constantes COUT_*).
+     */
+    public abstract int cout();
+
+    /**
+     * Retourne la proportion estimée de fichiers satisfaisant le critère.
+     *
+     * @return Une valeur entre 0 et 1.
+     */
+    public double selectivite() {
+        return 0.5;
+    }
+
+    /**
+     * Fournit les candidats à partir d'un index du catalogue.
+     *
+     * @param catalogue Le catalogue interrogé.
+     * @return Les fichiers candidats, ou null si aucun index n'est disponible.
+     */
+    List<Fichier> candidats(Catalogue catalogue) {
+        return null;
+    }
+
+    /**
+     * Indique si les candidats fournis par {@link #candidats(Catalogue)} satisfont
+     * tous le critère (sans vérification supplémentaire).
+     *
+     * @return true si les candidats sont exacts.
+     */
+    boolean candidatsExacts() {
+        return true;
+    }
+
+    /**
+     * Rang d'évaluation dans une conjonction : les critères peu coûteux et qui
+     * éliminent beaucoup de fichiers passent en premier.
+     */
+    double rangConjonction() {
+        return cout() / Math.max(1e-6, 1 - selectivite());
+    }
+
+    /**
+     * Rang d'évaluation dans une disjonction : les critères peu coûteux et qui
+     * acceptent beaucoup de fichiers passent en premier.
+     */
+    double rangDisjonction() {
+        return cout() / Math.max(1e-6, selectivite());
+    }
+
+    // ---- Fabriques ----
+
+    /**
+     * Critère satisfait par tous les fichiers.
+     *
+     * @return Le critère.
+     */
+    public static Critere tous() {
+        return new Tous();
+    }
+
+    /**
+     * Nom contenant un fragment, sans tenir compte de la casse.
+     *
+     * @param fragment Le fragment recherché.
+     * @return Le critère.
+     */
+    public static Critere nom(String fragment) {
+        if (fragment == null) {
+            throw new IllegalArgumentException("Le fragment recherché ne peut pas être null.");
+        }
+        return new Nom(fragment, false);
+    }
+
+    /**
+     * Nom égal à un texte, sans tenir compte de la casse.
+     *
+     * @param nom Le nom recherché.
+     * @return Le critère.
+     */
+    public static Critere nomEgal(String nom) {
+        if (nom == null) {
+            throw new IllegalArgumentException("Le nom recherché ne peut pas être null.");
+        }
+        return new Nom(nom, true);
+    }
+
+    /**
+     * Nom proche d'un texte : au plus distanceMax insertions, suppressions ou
+     * substitutions de caractères, sans tenir compte de la casse ni de
+     * l'extension (voir {@link IndexFlou}).
+     *
+     * @param texte Le nom recherché.
+     * @param distanceMax La distance d'édition maximale.
+     * @return Le critère.
+     */
+    public static Critere nomApproche(String texte, int distanceMax) {
+        if (texte == null || distanceMax < 0) {
+            throw new IllegalArgumentException("Le texte ne peut pas être null et la distance doit être positive.");
+        }
+        return new NomApproche(texte, distanceMax);
+    }
+
+    /**
+     * Dernière modification pendant une année.
+     *
+     * @param annee L'année.
+     * @return Le critère.
+     */
+    public static Critere annee(int annee) {
+        return new Dates(IndexDates.debutAnnee(annee), IndexDates.debutAnnee(annee + 1), "annee=" + annee);
+    }
+
+    /**
+     * Dernière modification pendant un mois.
+     *
+     * @param annee L'année.
+     * @param mois Le mois (de 1 à 12).
+     * @return Le critère.
+     */
+    public static Critere mois(int annee, int mois) {
+        if (mois < 1 || mois > 12) {
+            throw new IllegalArgumentException("Le mois doit être compris entre 1 et 12.");
+        }
+        return new Dates(IndexDates.debutMois(annee, mois), IndexDates.debutMois(annee, mois + 1),
+                "mois=" + annee + "-" + mois);
+    }
+
+    /**
+     * Dernière modification dans un intervalle de dates.
+     *
+     * @param debut Début en millisecondes (inclus).
+     * @param fin Fin en millisecondes (exclue).
+     * @return Le critère.
+     */
+    public static Critere dates(long debut, long fin) {
+        return new Dates(debut, fin, "date=[" + debut + ", " + fin + "[");
+    }
+
+    /**
+     * Taille comprise dans un intervalle.
+     *
+     * @param min Taille minimale en octets (incluse).
+     * @param max Taille maximale en octets (incluse).
+     * @return Le critère.
+     */
+    public static Critere taille(long min, long max) {
+        if (min < 0 || max < min) {
+            throw new IllegalArgumentException("L'intervalle de tailles est invalide : [" + min + ", " + max + "].");
+        }
+        return new Taille(min, max);
+    }
+
+    /**
+     * Type MIME exact (par exemple image/png).
+     *
+     * @param typeMime Le type recherché.
+     * @return Le critère.
+     */
+    public static Critere typeMime(String typeMime) {
+        if (typeMime == null) {
+            throw new IllegalArgumentException("Le type MIME ne peut pas être null.");
+        }
+        return new TypeMime(typeMime);
+    }
+
+    /**
+     * Dimensions dans une plage.
+     *
+     * @param plage La plage de dimensions.
+     * @return Le critère.
+     */
+    public static Critere dimensions(PlageDimensions plage) {
+        if (plage == null) {
+            throw new IllegalArgumentException("La plage de dimensions ne peut pas être nulle.");
+        }
+        if (plage.estVide()) {
+            return non(tous()); // Aucun en-tête à lire pour une plage que rien ne satisfait
+        }
+        return new Dimensions(plage);
+    }
+
+    /**
+     * Position GPS dans un rectangle (lonMin > lonMax traverse l'antiméridien).
+     *
+     * @param latMin Latitude minimale.
+     * @param lonMin Longitude minimale.
+     * @param latMax Latitude maximale.
+     * @param lonMax Longitude maximale.
+     * @return Le critère.
+     */
+    public static Critere rectangle(double latMin, double lonMin, double latMax, double lonMax) {
+        if (!MetaDonnees.estPositionValide(latMin, lonMin) || !MetaDonnees.estPositionValide(latMax, lonMax)
+                || latMin > latMax) {
+            throw new IllegalArgumentException("Rectangle de coordonnées invalide.");
+        }
+        return new Rectangle(latMin, lonMin, latMax, lonMax);
+    }
+
+    /**
+     * Position GPS à moins d'une distance d'un point.
+     *
+     * @param latitude Latitude du centre.
+     * @param longitude Longitude du centre.
+     * @param rayonKm Rayon en kilomètres.
+     * @return Le critère.
+     */
+    public static Critere rayon(double latitude, double longitude, double rayonKm) {
+        if (!MetaDonnees.estPositionValide(latitude, longitude) || !(rayonKm >= 0)) {
+            throw new IllegalArgumentException("Centre ou rayon invalide.");
+        }
+        return new Rayon(latitude, longitude, rayonKm);
+    }
+
+    /**
+     * Création du fichier pendant une année (lit les attributs sur le disque).
+     *
+     * @param annee L'année.
+     * @return Le critère.
+     */
+    public static Critere anneeCreation(int annee) {
+        return new AnneeCreation(annee);
+    }
+
+    /**
+     * Conjonction : tous les critères doivent être satisfaits.
+     *
+     * @param criteres Les critères.
+     * @return Le critère.
+     */
+    public static Critere et(Critere... criteres) {
+        return et(Arrays.asList(criteres));
+    }
+
+    /**
+     * Conjonction : tous les critères doivent être satisfaits.
+     *
+     * @param criteres Les critères.
+     * @return Le critère.
+     */
+    public static Critere et(List<Critere> criteres) {
+        List<Critere> termes = new ArrayList<>();
+        for (Critere critere : criteres) {
+            if (critere instanceof Et et) {
+                termes.addAll(et.termes); // Aplatit les conjonctions imbriquées
+            } else if (!(critere instanceof Tous)) {
+                termes.add(critere);
+            }
+        }
+        if (termes.isEmpty()) {
+            return tous();
+        }
+        return termes.size() == 1 ? termes.get(0) : new Et(termes);
+    }
+
+    /**
+     * Disjonction : au moins un des critères doit être satisfait.
+     *
+     * @param criteres Les critères.
+     * @return Le critère.
+     */
+    public static Critere ou(Critere... criteres) {
+        return ou(Arrays.asList(criteres));
+    }
+
+    /**
+     * Disjonction : au moins un des critères doit être satisfait.
+     *
+     * @param criteres Les critères.
+     * @return Le critère.
+     */
+    public static Critere ou(List<Critere> criteres) {
+        if (criteres.isEmpty()) {
+            throw new IllegalArgumentException("Une disjonction doit contenir au moins un critère.");
+        }
+        List<Critere> termes = new ArrayList<>();
+        for (Critere critere : criteres) {
+            if (critere instanceof Tous) {
+                return critere;
+            }
+            if (critere instanceof Ou ou) {
+                termes.addAll(ou.termes);
+            } else {
+                termes.add(critere);
+            }
+        }
+        return termes.size() == 1 ? termes.get(0) : new Ou(termes);
+    }
+
+    /**
+     * Négation d'un critère.
+     *
+     * @param critere Le critère à inverser.
+     * @return Le critère.
+     */
+    public static Critere non(Critere critere) {
+        return critere instanceof Non non ? non.critere : new Non(critere);
+    }
+
+    /**
+     * Combine les critères historiques de recherche ; les critères nuls sont ignorés.
+     *
+     * @param nomPartiel Nom ou partie du nom, ou null.
+     * @param annee Année de dernière modification, ou null.
+     * @param dimensions Plage de dimensions, ou null.
+     * @return Le critère.
+     */
+    public static Critere depuis(String nomPartiel, Integer annee, PlageDimensions dimensions) {
+        List<Critere> criteres = new ArrayList<>();
+        if (nomPartiel != null) {
+            criteres.add(nom(nomPartiel));
+        }
+        if (annee != null) {
+            criteres.add(annee(annee));
+        }
+        if (dimensions != null) {
+            criteres.add(dimensions(dimensions));
+        }
+        return et(criteres);
+    }
+
+    // ---- Critères élémentaires ----
+
+    private static final class Tous extends Critere {
+        @Override
+        public boolean test(Fichier fichier) {
+            return true;
+        }
+
+        @Override
+        public int cout() {
+            return 0;
+        }
+
+        @Override
+        public double selectivite() {
+            return 1;
+        }
+
+        @Override
+        public String toString() {
+            return "tous";
+        }
+    }
+
+    private static final class Nom extends Critere {
+        private final String fragment;
+        private final String minuscules;
+        private final boolean exact; // Nom entier plutôt que fragment
+
+        Nom(String fragment, boolean exact) {
+            this.fragment = fragment;
+            this.minuscules = fragment.toLowerCase(Locale.ROOT);
+            this.exact = exact;
+        }
+
+        @Override
+        public boolean test(Fichier fichier) {
+            return exact ? fichier.getNom().equalsIgnoreCase(fragment)
+                    : fichier.getNom().toLowerCase(Locale.ROOT).contains(minuscules);
+        }
+
+        @Override
+        public int cout() {
+            return COUT_MEMOIRE;
+        }
+
+        @Override
+        public double selectivite() {
+            return exact ? 0.001 : 0.1;
+        }
+
+        @Override
+        List<Fichier> candidats(Catalogue catalogue) {
+            IndexNoms<Fichier> index = catalogue.getIndexNoms();
+            return index == null ? null : index.rechercher(fragment);
+        }
+
+        @Override
+        boolean candidatsExacts() {
+            return !exact; // L'index trouve les noms contenant le texte
+        }
+
+        @Override
+        public String toString() {
+            return "nom" + (exact ? "=" : "~") + "\"" + fragment + "\"";
+        }
+    }
+
+    private static final class NomApproche extends Critere {
+        private final String texte;
+        private final String cle;
+        private final int distanceMax;
+
+        NomApproche(String texte, int distanceMax) {
+            this.texte = texte;
+            this.cle = IndexFlou.cle(texte);
+            this.distanceMax = distanceMax;
+        }
+
+        @Override
+        public boolean test(Fichier fichier) {
+            return IndexFlou.distance(cle, IndexFlou.cle(fichier.getNom()), distanceMax) <= distanceMax;
+        }
+
+        @Override
+        public int cout() {
+            return 5 * COUT_MEMOIRE; // Calcul de distance borné sur le nom
+        }
+
+        @Override
+        public double selectivite() {
+            return 0.01;
+        }
+
+        @Override
+        List<Fichier> candidats(Catalogue catalogue) {
+            IndexFlou<Fichier> index = catalogue.getIndexFlou();
+            return index == null ? null : index.rechercher(texte, distanceMax);
+        }
+
+        @Override
+        public String toString() {
+            return "nomProche=\"" + texte + "\" (distance " + distanceMax + ")";
+        }
+    }
+
+    private static final class Dates extends Critere {
+        private final long debut;
+        private final long fin;
+        private final String description;
+
+        Dates(long debut, long fin, String description) {
+            this.debut = debut;
+            this.fin = fin;
+            this.description = description;
+        }
+
+        @Override
+        public boolean test(Fichier fichier) {
+            long date = fichier.getDateModificationMillis();
+            return date >= debut && date < fin;
+        }
+
+        @Override
+        public int cout() {
+            return COUT_MEMOIRE;
+        }
+
+        @Override
+        public double selectivite() {
+            return 0.2;
+        }
+
+        @Override
+        List<Fichier> candidats(Catalogue catalogue) {
+            IndexDates<Fichier> index = catalogue.getIndexDates();
+            return index == null ? null : index.rechercherIntervalle(debut, fin);
+        }
+
+        @Override
+        public String toString() {
+            return description;
+        }
+    }
+
+    private static final class Taille extends Critere {
+        private final long min;
+        private final long max;
+
+        Taille(long min, long max) {
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        public boolean test(Fichier fichier) {
+            long taille = fichier.getTaille();
+            return taille >= min && taille <= max;
+        }
+
+        @Override
+        public int cout() {
+            return COUT_MEMOIRE;
+        }
+
+        @Override
+        public double selectivite() {
+            return 0.3;
+        }
+
+        @Override
+        List<Fichier> candidats(Catalogue catalogue) {
+            IndexTailles<Fichier> index = catalogue.getIndexTailles();
+            return index == null ? null : index.rechercherIntervalle(min, max);
+        }
+
+        @Override
+        public String toString() {
+            return "taille=[" + min + ", " + max + "]";
+        }
+    }
+
+    private static final class TypeMime extends Critere {
+        private final String typeMime;
+
+        TypeMime(String typeMime) {
+            this.typeMime = typeMime.toLowerCase(Locale.ROOT);
+        }
+
+        @Override
+        public boolean test(Fichier fichier) {
+            return typeMime.equals(fichier.getTypeMime());
+        }
+
+        @Override
+        public int cout() {
+            return COUT_ATTRIBUTS; // Le plus souvent détecté lors du parcours
+        }
+
+        @Override
+        public double selectivite() {
+            return 0.4;
+        }
+
+        @Override
+        public String toString() {
+            return "type=" + typeMime;
+        }
+    }
+
+    private static final class Dimensions extends Critere {
+        private final PlageDimensions plage;
+
+        Dimensions(PlageDimensions plage) {
+            this.plage = plage;
+        }
+
+        @Override
+        public boolean test(Fichier fichier) {
+            return plage.contient(fichier.getDimensions());
+        }
+
+        @Override
+        public int cout() {
+            return COUT_ENTETE;
+        }
+
+        @Override
+        public double selectivite() {
+            return 0.3;
+        }
+
+        @Override
+        List<Fichier> candidats(Catalogue catalogue) {
+            IndexDimensions<Fichier> index = catalogue.getIndexDimensions();
+            return index == null ? null : index.rechercher(plage);
+        }
+
+        @Override
+        public String toString() {
+            return "dimensions=" + plage;
+        }
+    }
+
+    private static final class Rectangle extends Critere {
+        private final double latMin;
+        private final double lonMin;
+        private final double latMax;
+        private final double lonMax;
+
+        Rectangle(double latMin, double lonMin, double latMax, double lonMax) {
+            this.latMin = latMin;
+            this.lonMin = lonMin;
+            this.latMax = latMax;
+            this.lonMax = lonMax;
+        }
+
+        @Override
+        public boolean test(Fichier fichier) {
+            MetaDonnees meta = fichier.getMetaDonnees();
+            if (!meta.hasPosition() || meta.getLatitude() < latMin || meta.getLatitude() > latMax) {
+                return false;
+            }
+            double lon = meta.getLongitude();
+            return lonMin <= lonMax ? lon >= lonMin && lon <= lonMax : lon >= lonMin || lon <= lonMax;
+        }
+
+        @Override
+        public int cout() {
+            return COUT_METADONNEES;
+        }
+
+        @Override
+        public double selectivite() {
+            return 0.05;
+        }
+
+        @Override
+        List<Fichier> candidats(Catalogue catalogue) {
+            IndexGeo<Fichier> index = catalogue.getIndexGeo();
+            return index == null ? null : index.rechercherRectangle(latMin, lonMin, latMax, lonMax);
+        }
+
+        @Override
+        public String toString() {
+            return "gps dans [" + latMin + ", " + lonMin + ", " + latMax + ", " + lonMax + "]";
+        }
+    }
+
+    private static final class Rayon extends Critere {
+        private final double latitude;
+        private final double longitude;
+        private final double rayonKm;
+
+        Rayon(double latitude, double longitude, double rayonKm) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.rayonKm = rayonKm;
+        }
+
+        @Override
+        public boolean test(Fichier fichier) {
+            MetaDonnees meta = fichier.getMetaDonnees();
+            return meta.hasPosition()
+                    && IndexGeo.distanceKm(latitude, longitude, meta.getLatitude(), meta.getLongitude()) <= rayonKm;
+        }
+
+        @Override
+        public int cout() {
+            return COUT_METADONNEES;
+        }
+
+        @Override
+        public double selectivite() {
+            return 0.05;
+        }
+
+        @Override
+        List<Fichier> candidats(Catalogue catalogue) {
+            IndexGeo<Fichier> index = catalogue.getIndexGeo();
+            return index == null ? null : index.rechercherRayon(latitude, longitude, rayonKm);
+        }
+
+        @Override
+        public String toString() {
+            return "gps à moins de " + rayonKm + " km de " + latitude + ", " + longitude;
+        }
+    }
+
+    private static final class AnneeCreation extends Critere {
+        private final int annee;
+
+        AnneeCreation(int annee) {
+            this.annee = annee;
+        }
+
+        @Override
+        public boolean test(Fichier fichier) {
+            try {
+                BasicFileAttributes attrs = Files.readAttributes(Paths.get(fichier.getCheminRelatif()),
+                        BasicFileAttributes.class);
+                Instant creation = attrs.creationTime().toInstant();
+                return creation.atZone(ZoneId.systemDefault()).getYear() == annee;
+            } catch (IOException e) {
+                System.err.println("Erreur lors de la lecture des attributs : " + e.getMessage());
+                return false;
+            }
+        }
+
+        @Override
+        public int cout() {
+            return COUT_ATTRIBUTS;
+        }
+
+        @Override
+        public double selectivite() {
+            return 0.2;
+        }
+
+        @Override
+        public String toString() {
+            return "creation=" + annee;
+        }
+    }
+
+    // ---- Combinaisons ----
+
+    static final class Et extends Critere {
+        final List<Critere> termes; // Triés par rang d'évaluation
+
+        Et(List<Critere> termes) {
+            List<Critere> tries = new ArrayList<>(termes);
+            tries.sort(Comparator.comparingDouble(Critere::rangConjonction));
+            this.termes = Collections.unmodifiableList(tries);
+        }
+
+        @Override
+        public boolean test(Fichier fichier) {
+            for (Critere terme : termes) {
+                if (!terme.test(fichier)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Le premier terme est toujours évalué, les suivants seulement pour les fichiers retenus
+        @Override
+        public int cout() {
+            double cout = 0;
+            double proportion = 1;
+            for (Critere terme : termes) {
+                cout += proportion * terme.cout();
+                proportion *= terme.selectivite();
+            }
+            return (int) Math.ceil(cout);
+        }
+
+        @Override
+        public double selectivite() {
+            double selectivite = 1;
+            for (Critere terme : termes) {
+                selectivite *= terme.selectivite();
+            }
+            return selectivite;
+        }
+
+        // Les candidats du terme le plus restrictif ; les autres termes restent à vérifier
+        @Override
+        List<Fichier> candidats(Catalogue catalogue) {
+            List<Fichier> meilleurs = null;
+            for (Critere terme : termes) {
+                List<Fichier> candidats = terme.candidats(catalogue);
+                if (candidats != null && (meilleurs == null || candidats.size() < meilleurs.size())) {
+                    meilleurs = candidats;
+                }
+            }
+            return meilleurs;
+        }
+
+        @Override
+        boolean candidatsExacts() {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return "(" + joindre(termes, " et ") + ")";
+        }
+    }
+
+    static final class Ou extends Critere {
+        final List<Critere> termes; // Triés par rang d'évaluation
+
+        Ou(List<Critere> termes) {
+            List<Critere> tries = new ArrayList<>(termes);
+            tries.sort(Comparator.comparingDouble(Critere::rangDisjonction));
+            this.termes = Collections.unmodifiableList(tries);
+        }
+
+        @Override
+        public boolean test(Fichier fichier) {
+            for (Critere terme : termes) {
+                if (terme.test(fichier)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Le terme suivant n'est évalué que pour les fichiers encore rejetés
+        @Override
+        public int cout() {
+            double cout = 0;
+            double proportion = 1;
+            for (Critere terme : termes) {
+                cout += proportion * terme.cout();
+                proportion *= 1 - terme.selectivite();
+            }
+            return (int) Math.ceil(cout);
+        }
+
+        @Override
+        public double selectivite() {
+            double rejet = 1;
+            for (Critere terme : termes) {
+                rejet *= 1 - terme.selectivite();
+            }
+            return 1 - rejet;
+        }
+
+        // L'union des candidats n'est possible que si chaque terme dispose d'un index
+        @Override
+        List<Fichier> candidats(Catalogue catalogue) {
+            Set<Fichier> vus = Collections.newSetFromMap(new IdentityHashMap<>());
+            List<Fichier> union = new ArrayList<>();
+            for (Critere terme : termes) {
+                List<Fichier> candidats = terme.candidats(catalogue);
+                if (candidats == null) {
+                    return null;
+                }
+                for (Fichier fichier : candidats) {
+                    if (vus.add(fichier)) {
+                        union.add(fichier);
+                    }
+                }
+            }
+            return union;
+        }
+
+        @Override
+        boolean candidatsExacts() {
+            for (Critere terme : termes) {
+                if (!terme.candidatsExacts()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return "(" + joindre(termes, " ou ") + ")";
+        }
+    }
+
+    static final class Non extends Critere {
+        final Critere critere;
+
+        Non(Critere critere) {
+            this.critere = critere;
+        }
+
+        @Override
+        public boolean test(Fichier fichier) {
+            return !critere.test(fichier);
+        }
+
+        @Override
+        public int cout() {
+            return critere.cout();
+        }
+
+        @Override
+        public double selectivite() {
+            return 1 - critere.selectivite();
+        }
+
+        @Override
+        public String toString() {
+            return "non " + critere;
+        }
+    }
+
+    private static String joindre(List<Critere> termes, String separateur) {
+        StringBuilder texte = new StringBuilder();
+        for (Critere terme : termes) {
+            if (texte.length() > 0) {
+                texte.append(separateur);
+            }
+            texte.append(terme);
+        }
+        return texte.toString();
+    }
+}
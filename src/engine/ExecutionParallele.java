@@ -0,0 +1,203 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
+
+/**
+ * Exécution parallèle des filtres et des comptages sur de grandes listes.
+ *
+ * La liste est découpée en tranches traitées par un {@link ForkJoinPool}
+ * (par défaut le pool commun, soit un fil par cœur) ; les résultats de chaque
+ * tranche sont ensuite concaténés dans l'ordre des tranches, de sorte que
+ * l'ordre d'origine des éléments est conservé sans tri.
+ *
+ * Une liste dont le travail estimé (nombre d'éléments multiplié par le coût
+ * unitaire du test, voir {@link Critere#cout()}) reste sous
+ * {@link #SEUIL_PARALLELE} est traitée séquentiellement : le découpage et la
+ * synchronisation coûteraient plus que le gain. Ainsi, quelques centaines de
+ * lectures d'en-têtes sont déjà réparties entre les cœurs, alors qu'un test
+ * sur le nom ne l'est qu'à partir de plusieurs dizaines de milliers de fichiers.
+ *
+ * Les tests doivent pouvoir être appelés depuis plusieurs fils à la fois.
+ *
+ * @author Youmna Saad et Seyda Ann
+ */
+public final class ExecutionParallele {
+
+    /** Travail estimé (éléments x coût unitaire) à partir duquel l'exécution est parallèle. */
+    public static final long SEUIL_PARALLELE = 50_000;
+
+    private static volatile ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    private ExecutionParallele() {
+    }
+
+    /**
+     * Change le pool utilisé pour les exécutions parallèles.
+     *
+     * @param nouveauPool Le pool, ou null pour revenir au pool commun.
+     */
+    public static void setPool(ForkJoinPool nouveauPool) {
+        pool = nouveauPool != null ? nouveauPool : ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Indique si un traitement serait exécuté en parallèle.
+     *
+     * @param taille Le nombre d'éléments.
+     * @param cout Le coût unitaire estimé du test.
+     * @return true si le traitement est découpé en tranches.
+     */
+    public static boolean estParallele(int taille, int cout) {
+        return pool.getParallelism() > 1 && (long) taille * Math.max(1, cout) >= SEUIL_PARALLELE;
+    }
+
+    /**
+     * Retourne les éléments qui satisfont un prédicat, dans leur ordre d'origine.
+     *
+     * @param elements Les éléments à filtrer.
+     * @param predicat Le prédicat à satisfaire.
+     * @param cout Le coût unitaire estimé du prédicat.
+     * @param <T> Le type des éléments.
+     * @return La liste des éléments retenus.
+     */
+    public static <T> ArrayList<T> filtrer(List<? extends T> elements, Predicate<? super T> predicat, int cout) {
+        if (elements == null || predicat == null) {
+            throw new IllegalArgumentException("Les éléments et le prédicat ne peuvent pas être null.");
+        }
+        if (!estParallele(elements.size(), cout)) {
+            ArrayList<T> retenus = new ArrayList<>();
+            for (T element : elements) {
+                if (predicat.test(element)) {
+                    retenus.add(element);
+                }
+            }
+            return retenus;
+        }
+
+        List<? extends T> source = elements instanceof RandomAccess ? elements : new ArrayList<>(elements);
+        int tranche = tailleTranche(source.size(), cout);
+        @SuppressWarnings({"unchecked", "rawtypes"}) // Pas de tableau générique en Java
+        List<T>[] parties = new List[(source.size() + tranche - 1) / tranche];
+        pool.invoke(new Tranches(0, parties.length, tranche, source.size(), (numero, de, a) -> {
+            List<T> retenus = new ArrayList<>();
+            for (int i = de; i < a; i++) {
+                T element = source.get(i);
+                if (predicat.test(element)) {
+                    retenus.add(element);
+                }
+            }
+            parties[numero] = retenus;
+        }));
+
+        int total = 0;
+        for (List<T> partie : parties) {
+            total += partie.size();
+        }
+        ArrayList<T> retenus = new ArrayList<>(total);
+        for (List<T> partie : parties) {
+            retenus.addAll(partie);
+        }
+        return retenus;
+    }
+
+    /**
+     * Compte les éléments qui satisfont un prédicat.
+     *
+     * @param elements Les éléments à examiner.
+     * @param predicat Le prédicat à satisfaire.
+     * @param cout Le coût unitaire estimé du prédicat.
+     * @param <T> Le type des éléments.
+     * @return Le nombre d'éléments qui satisfont le prédicat.
+     */
+    public static <T> int compter(List<? extends T> elements, Predicate<? super T> predicat, int cout) {
+        if (elements == null || predicat == null) {
+            throw new IllegalArgumentException("Les éléments et le prédicat ne peuvent pas être null.");
+        }
+        if (!estParallele(elements.size(), cout)) {
+            int nombre = 0;
+            for (T element : elements) {
+                if (predicat.test(element)) {
+                    nombre++;
+                }
+            }
+            return nombre;
+        }
+
+        List<? extends T> source = elements instanceof RandomAccess ? elements : new ArrayList<>(elements);
+        int tranche = tailleTranche(source.size(), cout);
+        int[] comptes = new int[(source.size() + tranche - 1) / tranche];
+        pool.invoke(new Tranches(0, comptes.length, tranche, source.size(), (numero, de, a) -> {
+            int nombre = 0;
+            for (int i = de; i < a; i++) {
+                if (predicat.test(source.get(i))) {
+                    nombre++;
+                }
+            }
+            comptes[numero] = nombre;
+        }));
+
+        int total = 0;
+        for (int nombre : comptes) {
+            total += nombre;
+        }
+        return total;
+    }
+
+    /**
+     * Choisit la taille des tranches : assez de tranches pour occuper tous les
+     * fils (quatre par fil, pour équilibrer la charge), mais chacune assez
+     * grosse pour amortir le coût de sa tâche.
+     */
+    private static int tailleTranche(int taille, int cout) {
+        long minimum = Math.max(1, SEUIL_PARALLELE / (4L * Math.max(1, cout)));
+        long equilibre = (taille + 4L * pool.getParallelism() - 1) / (4L * pool.getParallelism());
+        return (int) Math.min(taille, Math.max(minimum, equilibre));
+    }
+
+    /**
+     * Traitement d'une tranche [de, a) de la liste, identifiée par son numéro.
+     */
+    @FunctionalInterface
+    private interface TraitementTranche {
+        void traiter(int numero, int de, int a);
+    }
+
+    /**
+     * Tâche qui traite les tranches [premiere, derniere) en les partageant en deux
+     * tant qu'il en reste plusieurs.
+     */
+    private static final class Tranches extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int premiere;
+        private final int derniere;
+        private final int tranche;
+        private final int taille;
+        private final transient TraitementTranche traitement;
+
+        Tranches(int premiere, int derniere, int tranche, int taille, TraitementTranche traitement) {
+            this.premiere = premiere;
+            this.derniere = derniere;
+            this.tranche = tranche;
+            this.taille = taille;
+            this.traitement = traitement;
+        }
+
+        @Override
+        protected void compute() {
+            if (derniere - premiere == 1) {
+                int de = premiere * tranche;
+                traitement.traiter(premiere, de, Math.min(taille, de + tranche));
+                return;
+            }
+            int milieu = (premiere + derniere) >>> 1;
+            invokeAll(new Tranches(premiere, milieu, tranche, taille, traitement),
+                    new Tranches(milieu, derniere, tranche, taille, traitement));
+        }
+    }
+}
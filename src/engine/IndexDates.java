@@ -0,0 +1,106 @@
+package engine;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Index trié des dates de modification pour les recherches par année, par mois
+ * ou par intervalle de dates.
+ *
+ * Les dates (en millisecondes depuis l'époque) sont stockées dans un tableau
+ * primitif trié, accompagné d'un tableau parallèle des identifiants des
+ * éléments. Une recherche se réduit à deux recherches dichotomiques : aucun
+ * objet {@link java.util.Date} n'est créé et aucun fichier n'est relu.
+ *
+ * Les années et les mois sont calculés dans le fuseau horaire du système,
+ * comme l'affichage des dates dans l'application.
+ *
+ * @param <T> Le type des éléments indexés.
+ * @author Youmna Saad et Seyda Ann
+ */
+public class IndexDates<T> extends IndexTrie<T> {
+
+    /**
+     * Construit l'index des éléments donnés.
+     *
+     * @param elements Les éléments à indexer.
+     * @param date Fonction donnant la date de modification (en millisecondes) d'un élément.
+     */
+    public IndexDates(Collection<? extends T> elements, ToLongFunction<? super T> date) {
+        super(elements, date);
+    }
+
+    /**
+     * Recherche les éléments modifiés pendant une année.
+     *
+     * @param annee L'année recherchée.
+     * @return Les éléments correspondants, dans leur ordre d'origine.
+     */
+    public List<T> rechercherAnnee(int annee) {
+        return rechercherIntervalle(debutAnnee(annee), debutAnnee(annee + 1));
+    }
+
+    /**
+     * Recherche les éléments modifiés pendant un mois.
+     *
+     * @param annee L'année recherchée.
+     * @param mois Le mois recherché (de 1 à 12).
+     * @return Les éléments correspondants, dans leur ordre d'origine.
+     */
+    public List<T> rechercherMois(int annee, int mois) {
+        if (mois < 1 || mois > 12) {
+            throw new IllegalArgumentException("Le mois doit être compris entre 1 et 12.");
+        }
+        return rechercherIntervalle(debutMois(annee, mois), debutMois(annee, mois + 1));
+    }
+
+    /**
+     * Recherche les éléments modifiés dans un intervalle de dates.
+     *
+     * @param debut Début de l'intervalle en millisecondes (inclus).
+     * @param fin Fin de l'intervalle en millisecondes (exclue).
+     * @return Les éléments correspondants, dans leur ordre d'origine.
+     */
+    public List<T> rechercherIntervalle(long debut, long fin) {
+        return extraire(premierSuperieurOuEgal(debut), premierSuperieurOuEgal(fin));
+    }
+
+    /**
+     * Compte les éléments modifiés dans un intervalle de dates, sans les extraire.
+     *
+     * @param debut Début de l'intervalle en millisecondes (inclus).
+     * @param fin Fin de l'intervalle en millisecondes (exclue).
+     * @return Le nombre d'éléments correspondants.
+     */
+    public int compterIntervalle(long debut, long fin) {
+        return Math.max(0, premierSuperieurOuEgal(fin) - premierSuperieurOuEgal(debut));
+    }
+
+    /**
+     * Retourne le premier instant d'une année dans le fuseau horaire du système.
+     *
+     * @param annee L'année.
+     * @return Le premier instant de l'année en millisecondes.
+     */
+    public static long debutAnnee(int annee) {
+        return millis(LocalDate.of(annee, 1, 1));
+    }
+
+    /**
+     * Retourne le premier instant d'un mois dans le fuseau horaire du système.
+     *
+     * @param annee L'année.
+     * @param mois Le mois (13 désigne janvier de l'année suivante).
+     * @return Le premier instant du mois en millisecondes.
+     */
+    public static long debutMois(int annee, int mois) {
+        return millis(LocalDate.of(annee, 1, 1).plusMonths(mois - 1));
+    }
+
+    private static long millis(LocalDate jour) {
+        return jour.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
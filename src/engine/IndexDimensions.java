@@ -0,0 +1,270 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+import data.Fichier;
+
+/**
+ * Arbre k-d sur les dimensions (largeur, hauteur) des images.
+ *
+ * L'arbre est implicite : les points sont rangés dans des tableaux primitifs
+ * de sorte que le point médian de chaque tranche sépare ses deux moitiés,
+ * alternativement selon la largeur et la hauteur. Les recherches par plage
+ * ({@link PlageDimensions}, y compris les bandes de rapports) n'explorent que
+ * les sous-arbres dont la région peut contenir des résultats, et les régions
+ * entièrement incluses sont reprises sans test.
+ *
+ * Les éléments dont les dimensions sont inconnues ne sont pas indexés.
+ *
+ * @param <T> Le type des éléments indexés.
+ * @author Youmna Saad et Seyda Ann
+ */
+public class IndexDimensions<T> {
+
+    private final List<T> elements;
+    private final int[] largeurs;
+    private final int[] hauteurs;
+    private final int[] ids;
+
+    /**
+     * Construit l'index des éléments donnés.
+     *
+     * @param elements Les éléments à indexer.
+     * @param dimensions Fonction donnant les dimensions [largeur, hauteur] d'un élément, ou null.
+     */
+    public IndexDimensions(Collection<? extends T> elements, Function<? super T, int[]> dimensions) {
+        if (elements == null || dimensions == null) {
+            throw new IllegalArgumentException("Les éléments et la fonction de dimensions ne peuvent pas être null.");
+        }
+        this.elements = new ArrayList<>(elements);
+        int n = this.elements.size();
+        int[] l = new int[n];
+        int[] h = new int[n];
+        int[] positions = new int[n];
+        int connus = 0;
+        for (int i = 0; i < n; i++) {
+            int[] dims = dimensions.apply(this.elements.get(i));
+            if (dims != null && dims[0] > 0 && dims[1] > 0) {
+                l[connus] = dims[0];
+                h[connus] = dims[1];
+                positions[connus++] = i;
+            }
+        }
+        this.largeurs = Arrays.copyOf(l, connus);
+        this.hauteurs = Arrays.copyOf(h, connus);
+        this.ids = Arrays.copyOf(positions, connus);
+        construire(0, connus, 0);
+    }
+
+    /**
+     * Construit l'index des dimensions d'une liste de fichiers (lecture des en-têtes).
+     *
+     * @param fichiers Les fichiers à indexer.
+     * @return L'index des dimensions.
+     */
+    public static IndexDimensions<Fichier> pourFichiers(Collection<Fichier> fichiers) {
+        return new IndexDimensions<>(fichiers, Fichier::getDimensions);
+    }
+
+    /**
+     * Retourne le nombre d'éléments dont les dimensions sont indexées.
+     *
+     * @return Le nombre d'éléments.
+     */
+    public int taille() {
+        return ids.length;
+    }
+
+    /**
+     * Recherche les éléments dont les dimensions sont dans une plage.
+     *
+     * @param plage Le critère de dimensions.
+     * @return Les éléments correspondants, dans leur ordre d'origine.
+     */
+    public List<T> rechercher(PlageDimensions plage) {
+        if (plage == null) {
+            throw new IllegalArgumentException("La plage de dimensions ne peut pas être nulle.");
+        }
+        int[] trouves = new int[ids.length];
+        int nb = rechercher(plage, 0, ids.length, 0, 1, Integer.MAX_VALUE, 1, Integer.MAX_VALUE, trouves, 0);
+        return extraire(trouves, nb);
+    }
+
+    /**
+     * Recherche les éléments d'au moins L x H.
+     *
+     * @param largeur Largeur minimale.
+     * @param hauteur Hauteur minimale.
+     * @return Les éléments correspondants, dans leur ordre d'origine.
+     */
+    public List<T> auMoins(int largeur, int hauteur) {
+        return rechercher(PlageDimensions.auMoins(largeur, hauteur));
+    }
+
+    /**
+     * Retourne les k éléments dont les dimensions sont les plus proches de L x H
+     * (distance euclidienne dans le plan largeur / hauteur).
+     *
+     * @param largeur La largeur de référence.
+     * @param hauteur La hauteur de référence.
+     * @param k Le nombre d'éléments voulus.
+     * @return Les éléments, du plus proche au plus éloigné.
+     */
+    public List<T> plusProches(int largeur, int hauteur, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Le nombre d'éléments demandés ne peut pas être négatif.");
+        }
+        // Tas max sur la distance : la racine est le moins proche des k retenus
+        PriorityQueue<long[]> tas = new PriorityQueue<>((a, b) -> Long.compare(b[0], a[0]));
+        if (k > 0) {
+            plusProches(largeur, hauteur, k, 0, ids.length, 0, tas);
+        }
+
+        List<long[]> tries = new ArrayList<>(tas);
+        tries.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        List<T> resultats = new ArrayList<>(tries.size());
+        for (long[] entree : tries) {
+            resultats.add(elements.get((int) entree[1]));
+        }
+        return resultats;
+    }
+
+    private void plusProches(int largeur, int hauteur, int k, int de, int a, int axe, PriorityQueue<long[]> tas) {
+        if (de >= a) {
+            return;
+        }
+        int milieu = (de + a) >>> 1;
+        long dl = (long) largeurs[milieu] - largeur;
+        long dh = (long) hauteurs[milieu] - hauteur;
+        long distance = dl * dl + dh * dh;
+        if (tas.size() < k) {
+            tas.add(new long[]{distance, ids[milieu]});
+        } else if (distance < tas.peek()[0]) {
+            tas.poll();
+            tas.add(new long[]{distance, ids[milieu]});
+        }
+
+        long ecart = axe == 0 ? -dl : -dh; // Position de la cible par rapport au plan de coupe
+        boolean gaucheDabord = ecart <= 0;
+        if (gaucheDabord) {
+            plusProches(largeur, hauteur, k, de, milieu, 1 - axe, tas);
+        } else {
+            plusProches(largeur, hauteur, k, milieu + 1, a, 1 - axe, tas);
+        }
+        // L'autre côté n'est visité que s'il peut contenir un point plus proche
+        if (tas.size() < k || ecart * ecart < tas.peek()[0]) {
+            if (gaucheDabord) {
+                plusProches(largeur, hauteur, k, milieu + 1, a, 1 - axe, tas);
+            } else {
+                plusProches(largeur, hauteur, k, de, milieu, 1 - axe, tas);
+            }
+        }
+    }
+
+    /**
+     * Parcourt la tranche [de, a) dont les points sont dans la région [l0, l1] x [h0, h1].
+     *
+     * @return Le nouveau nombre de résultats dans trouves.
+     */
+    private int rechercher(PlageDimensions plage, int de, int a, int axe,
+                           int l0, int l1, int h0, int h1, int[] trouves, int nb) {
+        if (de >= a) {
+            return nb;
+        }
+        // Région disjointe de la plage : rien à chercher
+        if (l1 < plage.getLargeurMin() || l0 > plage.getLargeurMax()
+                || h1 < plage.getHauteurMin() || h0 > plage.getHauteurMax()
+                || (double) l1 / h0 < plage.getRatioMin() || (double) l0 / h1 > plage.getRatioMax()) {
+            return nb;
+        }
+        // Région entièrement incluse : tous les points conviennent
+        if (l0 >= plage.getLargeurMin() && l1 <= plage.getLargeurMax()
+                && h0 >= plage.getHauteurMin() && h1 <= plage.getHauteurMax()
+                && (double) l0 / h1 >= plage.getRatioMin() && (double) l1 / h0 <= plage.getRatioMax()) {
+            System.arraycopy(ids, de, trouves, nb, a - de);
+            return nb + a - de;
+        }
+
+        int milieu = (de + a) >>> 1;
+        if (plage.contient(largeurs[milieu], hauteurs[milieu])) {
+            trouves[nb++] = ids[milieu];
+        }
+        if (axe == 0) {
+            int coupe = largeurs[milieu];
+            nb = rechercher(plage, de, milieu, 1, l0, Math.min(l1, coupe), h0, h1, trouves, nb);
+            nb = rechercher(plage, milieu + 1, a, 1, Math.max(l0, coupe), l1, h0, h1, trouves, nb);
+        } else {
+            int coupe = hauteurs[milieu];
+            nb = rechercher(plage, de, milieu, 0, l0, l1, h0, Math.min(h1, coupe), trouves, nb);
+            nb = rechercher(plage, milieu + 1, a, 0, l0, l1, Math.max(h0, coupe), h1, trouves, nb);
+        }
+        return nb;
+    }
+
+    private List<T> extraire(int[] trouves, int nb) {
+        int[] tries = Arrays.copyOf(trouves, nb);
+        Arrays.sort(tries); // Restitue l'ordre d'origine des éléments
+        List<T> resultats = new ArrayList<>(nb);
+        for (int id : tries) {
+            resultats.add(elements.get(id));
+        }
+        return resultats;
+    }
+
+    /**
+     * Range la tranche [de, a) : le médian selon l'axe sépare les deux moitiés.
+     */
+    private void construire(int de, int a, int axe) {
+        if (a - de <= 1) {
+            return;
+        }
+        int milieu = (de + a) >>> 1;
+        selectionner(de, a - 1, milieu, axe == 0 ? largeurs : hauteurs);
+        construire(de, milieu, 1 - axe);
+        construire(milieu + 1, a, 1 - axe);
+    }
+
+    // Sélection rapide : place en position k la valeur de rang k de la tranche [gauche, droite]
+    private void selectionner(int gauche, int droite, int k, int[] cle) {
+        while (gauche < droite) {
+            int pivot = cle[(gauche + droite) >>> 1];
+            int i = gauche;
+            int j = droite;
+            while (i <= j) {
+                while (cle[i] < pivot) {
+                    i++;
+                }
+                while (cle[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    echanger(i++, j--);
+                }
+            }
+            if (k <= j) {
+                droite = j;
+            } else if (k >= i) {
+                gauche = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void echanger(int i, int j) {
+        int l = largeurs[i];
+        largeurs[i] = largeurs[j];
+        largeurs[j] = l;
+        int h = hauteurs[i];
+        hauteurs[i] = hauteurs[j];
+        hauteurs[j] = h;
+        int id = ids[i];
+        ids[i] = ids[j];
+        ids[j] = id;
+    }
+}
@@ -0,0 +1,300 @@
+package engine;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+import data.Fichier;
+
+/**
+ * Index de recherche approchée des noms (arbre BK sur la distance de Levenshtein).
+ *
+ * Chaque nom distinct (en minuscules, sans extension) est un nœud de l'arbre ;
+ * les enfants d'un nœud sont rangés selon leur distance à celui-ci. Par
+ * l'inégalité triangulaire, une recherche à distance k d'un texte situé à
+ * distance d d'un nœud ne visite que les enfants rangés entre d - k et d + k :
+ * seule une petite partie du dictionnaire est comparée au texte, et les
+ * distances sont calculées avec une borne qui interrompt le calcul dès
+ * qu'elle est dépassée.
+ *
+ * Les noms de fichiers générés par les appareils partagent souvent leur
+ * extension et leur préfixe : l'extension est ignorée, des deux côtés.
+ *
+ * @param <T> Le type des éléments indexés.
+ * @author Youmna Saad et Seyda Ann
+ */
+public class IndexFlou<T> {
+
+    private final Function<? super T, String> nom;
+    private final List<T> elements = new ArrayList<>(); // Indexé par identifiant, null si retiré
+    private final Map<T, Integer> identifiants = new HashMap<>();
+    private final Map<String, Noeud> noeuds = new HashMap<>(); // Nœud de chaque nom distinct
+    private Noeud racine;
+
+    /**
+     * Crée un index contenant les éléments donnés, dans leur ordre.
+     *
+     * @param elements Les éléments à indexer.
+     * @param nom Fonction donnant le nom à indexer d'un élément.
+     */
+    public IndexFlou(Collection<? extends T> elements, Function<? super T, String> nom) {
+        if (elements == null || nom == null) {
+            throw new IllegalArgumentException("Les éléments et la fonction de nom ne peuvent pas être null.");
+        }
+        this.nom = nom;
+        elements.forEach(this::ajouter);
+    }
+
+    /**
+     * Construit l'index des noms d'une liste de fichiers.
+     *
+     * @param fichiers Les fichiers à indexer.
+     * @return L'index des noms.
+     */
+    public static IndexFlou<Fichier> pourFichiers(Collection<Fichier> fichiers) {
+        return new IndexFlou<>(fichiers, Fichier::getNom);
+    }
+
+    /**
+     * Ajoute un élément à l'index. Un élément déjà présent est remplacé.
+     *
+     * @param element L'élément à ajouter.
+     */
+    public synchronized void ajouter(T element) {
+        retirer(element);
+        int id = elements.size();
+        elements.add(element);
+        identifiants.put(element, id);
+
+        String cle = cle(nom.apply(element));
+        Noeud noeud = noeuds.get(cle);
+        if (noeud == null) {
+            noeud = new Noeud(cle);
+            noeuds.put(cle, noeud);
+            inserer(noeud);
+        }
+        noeud.ajouter(id);
+    }
+
+    /**
+     * Retire un élément de l'index. Le nœud de son nom reste dans l'arbre,
+     * même vide, pour guider les recherches.
+     *
+     * @param element L'élément à retirer.
+     * @return true si l'élément était indexé.
+     */
+    public synchronized boolean retirer(T element) {
+        Integer id = identifiants.remove(element);
+        if (id == null) {
+            return false;
+        }
+        noeuds.get(cle(nom.apply(element))).retirer(id);
+        elements.set(id, null);
+        return true;
+    }
+
+    /**
+     * Retourne le nombre d'éléments indexés.
+     *
+     * @return Le nombre d'éléments.
+     */
+    public synchronized int taille() {
+        return identifiants.size();
+    }
+
+    /**
+     * Recherche les éléments dont le nom est à une distance d'édition au plus
+     * distanceMax du texte (insertions, suppressions et substitutions d'un
+     * caractère), sans tenir compte de la casse ni des extensions.
+     *
+     * @param texte Le nom recherché, éventuellement mal orthographié.
+     * @param distanceMax La distance maximale acceptée.
+     * @return Les éléments trouvés, du plus proche au plus éloigné, puis dans leur ordre d'ajout.
+     */
+    public synchronized List<T> rechercher(String texte, int distanceMax) {
+        if (texte == null || distanceMax < 0) {
+            throw new IllegalArgumentException("Le texte ne peut pas être null et la distance doit être positive.");
+        }
+        String requete = cle(texte);
+        List<long[]> trouves = new ArrayList<>(); // [distance, identifiant]
+
+        Deque<Noeud> aVisiter = new ArrayDeque<>();
+        if (racine != null) {
+            aVisiter.push(racine);
+        }
+        while (!aVisiter.isEmpty()) {
+            Noeud noeud = aVisiter.pop();
+            // Au-delà de distanceMax + la plus grande distance d'un enfant, le calcul exact est inutile
+            int borne = distanceMax + noeud.distanceMax;
+            int d = distance(requete, noeud.cle, borne);
+            if (d <= distanceMax) {
+                for (int i = 0; i < noeud.nbIds; i++) {
+                    trouves.add(new long[]{d, noeud.ids[i]});
+                }
+            }
+            for (int i = 0; i < noeud.nbEnfants; i++) {
+                if (Math.abs(noeud.distances[i] - d) <= distanceMax) {
+                    aVisiter.push(noeud.enfants[i]);
+                }
+            }
+        }
+
+        trouves.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        List<T> resultats = new ArrayList<>(trouves.size());
+        for (long[] trouve : trouves) {
+            resultats.add(elements.get((int) trouve[1]));
+        }
+        return resultats;
+    }
+
+    /**
+     * Trie des éléments du nom le plus proche d'un texte au plus éloigné ;
+     * l'ordre d'origine est conservé à distance égale.
+     *
+     * @param elements Les éléments à trier.
+     * @param nom Fonction donnant le nom d'un élément.
+     * @param texte Le nom recherché.
+     * @param <E> Le type des éléments.
+     */
+    public static <E> void classer(List<E> elements, Function<? super E, String> nom, String texte) {
+        String requete = cle(texte);
+        Map<E, Integer> distances = new HashMap<>();
+        for (E element : elements) {
+            distances.put(element, distance(requete, cle(nom.apply(element)), Integer.MAX_VALUE - 1));
+        }
+        elements.sort(Comparator.comparingInt(distances::get));
+    }
+
+    /**
+     * Retourne la forme d'un nom comparée par l'index : en minuscules, sans extension.
+     *
+     * @param nom Le nom.
+     * @return La clé de comparaison.
+     */
+    public static String cle(String nom) {
+        int point = nom.lastIndexOf('.');
+        return (point > 0 ? nom.substring(0, point) : nom).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Calcule la distance de Levenshtein entre deux textes, en s'arrêtant dès
+     * qu'elle dépasse une borne.
+     *
+     * @param a Le premier texte.
+     * @param b Le second texte.
+     * @param borne La distance au-delà de laquelle le calcul peut s'arrêter.
+     * @return La distance, ou une valeur supérieure à la borne si elle est dépassée.
+     */
+    public static int distance(String a, String b, int borne) {
+        if (Math.abs(a.length() - b.length()) > borne) {
+            return borne + 1;
+        }
+        if (a.length() < b.length()) {
+            String t = a;
+            a = b;
+            b = t;
+        }
+        int[] precedente = new int[b.length() + 1];
+        int[] courante = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            precedente[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            courante[0] = i;
+            int minimumLigne = i;
+            char c = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = precedente[j - 1] + (c == b.charAt(j - 1) ? 0 : 1);
+                courante[j] = Math.min(substitution, Math.min(precedente[j], courante[j - 1]) + 1);
+                minimumLigne = Math.min(minimumLigne, courante[j]);
+            }
+            if (minimumLigne > borne) {
+                return borne + 1; // Aucune ligne suivante ne peut redescendre sous la borne
+            }
+            int[] t = precedente;
+            precedente = courante;
+            courante = t;
+        }
+        return precedente[b.length()];
+    }
+
+    private void inserer(Noeud nouveau) {
+        if (racine == null) {
+            racine = nouveau;
+            return;
+        }
+        Noeud noeud = racine;
+        while (true) {
+            int d = distance(nouveau.cle, noeud.cle, Integer.MAX_VALUE - 1);
+            Noeud enfant = noeud.enfant(d);
+            if (enfant == null) {
+                noeud.ajouterEnfant(d, nouveau);
+                return;
+            }
+            noeud = enfant;
+        }
+    }
+
+    /**
+     * Nœud de l'arbre : un nom distinct, les éléments qui le portent et les
+     * enfants rangés par distance.
+     */
+    private static final class Noeud {
+        private final String cle;
+        private int[] ids = new int[1];
+        private int nbIds;
+        private int[] distances = new int[0];
+        private Noeud[] enfants = new Noeud[0];
+        private int nbEnfants;
+        private int distanceMax; // Plus grande distance d'un enfant
+
+        Noeud(String cle) {
+            this.cle = cle;
+        }
+
+        void ajouter(int id) {
+            if (nbIds == ids.length) {
+                ids = Arrays.copyOf(ids, nbIds * 2);
+            }
+            ids[nbIds++] = id;
+        }
+
+        void retirer(int id) {
+            for (int i = 0; i < nbIds; i++) {
+                if (ids[i] == id) {
+                    System.arraycopy(ids, i + 1, ids, i, nbIds - i - 1);
+                    nbIds--;
+                    return;
+                }
+            }
+        }
+
+        Noeud enfant(int distance) {
+            for (int i = 0; i < nbEnfants; i++) {
+                if (distances[i] == distance) {
+                    return enfants[i];
+                }
+            }
+            return null;
+        }
+
+        void ajouterEnfant(int distance, Noeud enfant) {
+            if (nbEnfants == enfants.length) {
+                int capacite = Math.max(2, nbEnfants * 2);
+                distances = Arrays.copyOf(distances, capacite);
+                enfants = Arrays.copyOf(enfants, capacite);
+            }
+            distances[nbEnfants] = distance;
+            enfants[nbEnfants++] = enfant;
+            distanceMax = Math.max(distanceMax, distance);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import data.Fichier;
+import data.MetaDonnees;
+
+/**
+ * Index géographique des positions GPS, par cellules d'une grille.
+ *
+ * La surface du globe est découpée en 2^14 bandes de latitude et 2^15 bandes
+ * de longitude (cellules d'environ 1,2 km). Chaque élément est rangé selon la
+ * clé de sa cellule, ligne par ligne : les cellules d'une même ligne sont
+ * contiguës dans le tableau trié. Un rectangle se résout donc par deux
+ * recherches dichotomiques par ligne de cellules couverte, puis par une
+ * vérification exacte des coordonnées. Une recherche par rayon passe par le
+ * rectangle englobant, puis filtre selon la distance sur la sphère.
+ *
+ * Les éléments sans position ne sont pas indexés.
+ *
+ * @param <T> Le type des éléments indexés.
+ * @author Youmna Saad et Seyda Ann
+ */
+public class IndexGeo<T> extends IndexTrie<T> {
+
+    /** Rayon moyen de la Terre, en kilomètres. */
+    public static final double RAYON_TERRE_KM = 6371.0088;
+
+    private static final int LIGNES = 1 << 14;
+    private static final int COLONNES = 1 << 15;
+
+    private final double[] latitudes;  // Dans l'ordre du tableau trié
+    private final double[] longitudes;
+
+    /**
+     * Construit l'index des éléments donnés.
+     *
+     * @param elements Les éléments à indexer.
+     * @param position Fonction donnant la position [latitude, longitude] en degrés d'un élément, ou null.
+     */
+    public IndexGeo(Collection<? extends T> elements, Function<? super T, double[]> position) {
+        super(avecPosition(elements, position), e -> cellule(position.apply(e)));
+        latitudes = new double[ids.length];
+        longitudes = new double[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            double[] coordonnees = position.apply(this.elements.get(ids[i]));
+            latitudes[i] = coordonnees[0];
+            longitudes[i] = coordonnees[1];
+        }
+    }
+
+    /**
+     * Construit l'index des positions GPS d'une liste de fichiers.
+     *
+     * Les métadonnées de chaque fichier sont extraites si elles ne l'ont pas
+     * déjà été : pour un grand catalogue, il vaut mieux les charger au préalable
+     * avec {@link PipelineMetaDonnees} et le cache de métadonnées.
+     *
+     * @param fichiers Les fichiers à indexer.
+     * @return L'index des positions.
+     */
+    public static IndexGeo<Fichier> pourFichiers(Collection<Fichier> fichiers) {
+        return new IndexGeo<>(fichiers, f -> {
+            MetaDonnees meta = f.getMetaDonnees();
+            return meta.hasPosition() ? new double[]{meta.getLatitude(), meta.getLongitude()} : null;
+        });
+    }
+
+    /**
+     * Recherche les éléments situés dans un rectangle de coordonnées.
+     *
+     * Si lonMin est supérieure à lonMax, le rectangle traverse l'antiméridien
+     * (par exemple de 170 à -170).
+     *
+     * @param latMin Latitude minimale (incluse).
+     * @param lonMin Longitude minimale (incluse).
+     * @param latMax Latitude maximale (incluse).
+     * @param lonMax Longitude maximale (incluse).
+     * @return Les éléments correspondants, dans leur ordre d'origine.
+     */
+    public List<T> rechercherRectangle(double latMin, double lonMin, double latMax, double lonMax) {
+        if (!MetaDonnees.estPositionValide(latMin, lonMin) || !MetaDonnees.estPositionValide(latMax, lonMax)
+                || latMin > latMax) {
+            throw new IllegalArgumentException("Rectangle de coordonnées invalide.");
+        }
+        int[] trouves = new int[ids.length];
+        int nb;
+        if (lonMin <= lonMax) {
+            nb = parcourir(latMin, latMax, lonMin, lonMax, trouves, 0);
+        } else {
+            nb = parcourir(latMin, latMax, lonMin, 180, trouves, 0);
+            nb = parcourir(latMin, latMax, -180, lonMax, trouves, nb);
+        }
+        int[] tries = new int[nb];
+        for (int i = 0; i < nb; i++) {
+            tries[i] = ids[trouves[i]];
+        }
+        Arrays.sort(tries); // Restitue l'ordre d'origine des éléments
+        List<T> resultats = new ArrayList<>(nb);
+        for (int id : tries) {
+            resultats.add(elements.get(id));
+        }
+        return resultats;
+    }
+
+    /**
+     * Recherche les éléments situés à moins d'une distance d'un point.
+     *
+     * @param latitude Latitude du centre.
+     * @param longitude Longitude du centre.
+     * @param rayonKm Rayon en kilomètres.
+     * @return Les éléments correspondants, du plus proche au plus éloigné.
+     */
+    public List<T> rechercherRayon(double latitude, double longitude, double rayonKm) {
+        if (!MetaDonnees.estPositionValide(latitude, longitude) || !(rayonKm >= 0)) {
+            throw new IllegalArgumentException("Centre ou rayon invalide.");
+        }
+
+        // Rectangle englobant le cercle, élargi à toutes les longitudes près des pôles
+        double deltaLat = Math.toDegrees(rayonKm / RAYON_TERRE_KM);
+        double latMin = Math.max(-90, latitude - deltaLat);
+        double latMax = Math.min(90, latitude + deltaLat);
+        int[] trouves = new int[ids.length];
+        int nb;
+        double cosLat = Math.cos(Math.toRadians(Math.max(Math.abs(latMin), Math.abs(latMax))));
+        double deltaLon = cosLat <= 0 ? 360 : Math.toDegrees(rayonKm / (RAYON_TERRE_KM * cosLat));
+        if (deltaLon >= 180) {
+            nb = parcourir(latMin, latMax, -180, 180, trouves, 0);
+        } else {
+            double lonMin = longitude - deltaLon;
+            double lonMax = longitude + deltaLon;
+            if (lonMin < -180) {
+                nb = parcourir(latMin, latMax, lonMin + 360, 180, trouves, 0);
+                nb = parcourir(latMin, latMax, -180, lonMax, trouves, nb);
+            } else if (lonMax > 180) {
+                nb = parcourir(latMin, latMax, lonMin, 180, trouves, 0);
+                nb = parcourir(latMin, latMax, -180, lonMax - 360, trouves, nb);
+            } else {
+                nb = parcourir(latMin, latMax, lonMin, lonMax, trouves, 0);
+            }
+        }
+
+        // Filtrage sur la distance exacte
+        List<double[]> proches = new ArrayList<>();
+        for (int i = 0; i < nb; i++) {
+            int position = trouves[i];
+            double distance = distanceKm(latitude, longitude, latitudes[position], longitudes[position]);
+            if (distance <= rayonKm) {
+                proches.add(new double[]{distance, ids[position]});
+            }
+        }
+        proches.sort(Comparator.comparingDouble(p -> p[0]));
+        List<T> resultats = new ArrayList<>(proches.size());
+        for (double[] proche : proches) {
+            resultats.add(elements.get((int) proche[1]));
+        }
+        return resultats;
+    }
+
+    /**
+     * Calcule la distance entre deux points sur la sphère terrestre (formule de haversine).
+     *
+     * @param lat1 Latitude du premier point.
+     * @param lon1 Longitude du premier point.
+     * @param lat2 Latitude du second point.
+     * @param lon2 Longitude du second point.
+     * @return La distance en kilomètres.
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * RAYON_TERRE_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Ajoute à trouves les positions, dans le tableau trié, des éléments du
+     * rectangle (avec lonMin <= lonMax).
+     *
+     * @return Le nouveau nombre de positions dans trouves.
+     */
+    private int parcourir(double latMin, double latMax, double lonMin, double lonMax, int[] trouves, int nb) {
+        int ligneMin = ligne(latMin);
+        int ligneMax = ligne(latMax);
+        int colonneMin = colonne(lonMin);
+        int colonneMax = colonne(lonMax);
+        for (int l = ligneMin; l <= ligneMax; l++) {
+            long base = (long) l * COLONNES;
+            int de = premierSuperieurOuEgal(base + colonneMin);
+            int a = premierSuperieur(base + colonneMax);
+            for (int i = de; i < a; i++) {
+                double lat = latitudes[i];
+                double lon = longitudes[i];
+                if (lat >= latMin && lat <= latMax && lon >= lonMin && lon <= lonMax) {
+                    trouves[nb++] = i;
+                }
+            }
+        }
+        return nb;
+    }
+
+    private static <T> List<T> avecPosition(Collection<? extends T> elements, Function<? super T, double[]> position) {
+        if (elements == null || position == null) {
+            throw new IllegalArgumentException("Les éléments et la fonction de position ne peuvent pas être null.");
+        }
+        List<T> retenus = new ArrayList<>();
+        for (T element : elements) {
+            double[] coordonnees = position.apply(element);
+            if (coordonnees != null && MetaDonnees.estPositionValide(coordonnees[0], coordonnees[1])) {
+                retenus.add(element);
+            }
+        }
+        return retenus;
+    }
+
+    private static long cellule(double[] coordonnees) {
+        return (long) ligne(coordonnees[0]) * COLONNES + colonne(coordonnees[1]);
+    }
+
+    private static int ligne(double latitude) {
+        return Math.min(LIGNES - 1, (int) ((latitude + 90) / 180 * LIGNES));
+    }
+
+    private static int colonne(double longitude) {
+        return Math.min(COLONNES - 1, (int) ((longitude + 180) / 360 * COLONNES));
+    }
+}
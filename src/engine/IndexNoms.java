@@ -0,0 +1,266 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+import data.EcouteurRepertoire;
+import data.Fichier;
+import data.Repertoire;
+
+/**
+ * Index inversé de trigrammes pour la recherche de fragments de noms.
+ *
+ * Chaque élément reçoit un identifiant croissant ; chaque suite de trois
+ * caractères (en minuscules) de son nom pointe vers la liste triée des
+ * identifiants qui la contiennent. Une recherche intersecte les listes des
+ * trigrammes du fragment, en commençant par la plus courte, puis vérifie
+ * chaque candidat avec {@link String#contains}. Les fragments de moins de
+ * trois caractères sont vérifiés directement sur les noms en minuscules.
+ *
+ * La recherche est insensible à la casse et l'index peut être mis à jour
+ * élément par élément.
+ *
+ * @param <T> Le type des éléments indexés.
+ * @author Youmna Saad et Seyda Ann
+ */
+public class IndexNoms<T> {
+
+    private final Function<? super T, String> nom;
+    private final List<T> elements = new ArrayList<>(); // Indexé par identifiant, null si retiré
+    private final List<String> noms = new ArrayList<>(); // Noms en minuscules, null si retiré
+    private final Map<T, Integer> identifiants = new HashMap<>();
+    private final Map<Long, ListeIds> postings = new HashMap<>();
+
+    /**
+     * Crée un index vide.
+     *
+     * @param nom Fonction donnant le nom à indexer d'un élément.
+     */
+    public IndexNoms(Function<? super T, String> nom) {
+        if (nom == null) {
+            throw new IllegalArgumentException("La fonction de nom ne peut pas être nulle.");
+        }
+        this.nom = nom;
+    }
+
+    /**
+     * Crée un index contenant les éléments donnés, dans leur ordre.
+     *
+     * @param elements Les éléments à indexer.
+     * @param nom Fonction donnant le nom à indexer d'un élément.
+     */
+    public IndexNoms(Collection<? extends T> elements, Function<? super T, String> nom) {
+        this(nom);
+        elements.forEach(this::ajouter);
+    }
+
+    /**
+     * Crée un index des fichiers d'une arborescence et le maintient à jour
+     * lorsque le répertoire est modifié (voir {@link data.SurveillanceRepertoire}).
+     *
+     * @param repertoire Le répertoire racine déjà parcouru.
+     * @return L'index des noms de fichiers.
+     */
+    public static IndexNoms<Fichier> suivre(Repertoire repertoire) {
+        IndexNoms<Fichier> index = new IndexNoms<>(Fichier::getNom);
+        repertoire.ajouterEcouteur(new EcouteurRepertoire() {
+            @Override
+            public void fichierAjoute(Fichier fichier) {
+                index.ajouter(fichier);
+            }
+
+            @Override
+            public void fichierRetire(Fichier fichier) {
+                index.retirer(fichier);
+            }
+        });
+        repertoire.getTousFichiers().forEach(index::ajouter);
+        return index;
+    }
+
+    /**
+     * Ajoute un élément à l'index. Un élément déjà présent est remplacé.
+     *
+     * @param element L'élément à ajouter.
+     */
+    public synchronized void ajouter(T element) {
+        retirer(element);
+        String nomMinuscule = nom.apply(element).toLowerCase(Locale.ROOT);
+        int id = elements.size();
+        elements.add(element);
+        noms.add(nomMinuscule);
+        identifiants.put(element, id);
+        for (long trigramme : trigrammes(nomMinuscule)) {
+            postings.computeIfAbsent(trigramme, t -> new ListeIds()).ajouter(id);
+        }
+    }
+
+    /**
+     * Retire un élément de l'index.
+     *
+     * @param element L'élément à retirer.
+     * @return true si l'élément était indexé.
+     */
+    public synchronized boolean retirer(T element) {
+        Integer id = identifiants.remove(element);
+        if (id == null) {
+            return false;
+        }
+        for (long trigramme : trigrammes(noms.get(id))) {
+            ListeIds liste = postings.get(trigramme);
+            if (liste != null && liste.retirer(id) && liste.taille == 0) {
+                postings.remove(trigramme);
+            }
+        }
+        elements.set(id, null);
+        noms.set(id, null);
+        if (elements.size() > 1024 && identifiants.size() < elements.size() / 2) {
+            reconstruire();
+        }
+        return true;
+    }
+
+    /**
+     * Réattribue des identifiants contigus lorsque trop d'éléments ont été retirés.
+     */
+    private void reconstruire() {
+        List<T> restants = new ArrayList<>(identifiants.size());
+        for (T element : elements) {
+            if (element != null) {
+                restants.add(element);
+            }
+        }
+        elements.clear();
+        noms.clear();
+        identifiants.clear();
+        postings.clear();
+        restants.forEach(this::ajouter);
+    }
+
+    /**
+     * Recherche les éléments dont le nom contient un fragment, sans tenir compte de la casse.
+     *
+     * @param fragment Nom complet ou fragment de nom à rechercher.
+     * @return Les éléments correspondants, dans leur ordre d'ajout.
+     */
+    public synchronized List<T> rechercher(String fragment) {
+        if (fragment == null) {
+            throw new IllegalArgumentException("Le fragment recherché ne peut pas être null.");
+        }
+        String requete = fragment.toLowerCase(Locale.ROOT);
+        List<T> resultats = new ArrayList<>();
+
+        long[] cles = trigrammes(requete);
+        if (cles.length == 0) {
+            // Fragment trop court pour l'index : vérification directe des noms
+            for (int id = 0; id < noms.size(); id++) {
+                String n = noms.get(id);
+                if (n != null && n.contains(requete)) {
+                    resultats.add(elements.get(id));
+                }
+            }
+            return resultats;
+        }
+
+        ListeIds[] listes = new ListeIds[cles.length];
+        for (int i = 0; i < cles.length; i++) {
+            listes[i] = postings.get(cles[i]);
+            if (listes[i] == null) {
+                return resultats; // Un trigramme absent : aucun résultat possible
+            }
+        }
+        Arrays.sort(listes, Comparator.comparingInt(l -> l.taille));
+
+        int[] candidats = Arrays.copyOf(listes[0].ids, listes[0].taille);
+        int nbCandidats = candidats.length;
+        for (int i = 1; i < listes.length && nbCandidats > 0; i++) {
+            nbCandidats = listes[i].intersecter(candidats, nbCandidats);
+        }
+
+        // Les trigrammes ne garantissent pas l'ordre ni la contiguïté : on vérifie
+        for (int i = 0; i < nbCandidats; i++) {
+            int id = candidats[i];
+            if (noms.get(id).contains(requete)) {
+                resultats.add(elements.get(id));
+            }
+        }
+        return resultats;
+    }
+
+    /**
+     * Retourne le nombre d'éléments indexés.
+     *
+     * @return Le nombre d'éléments.
+     */
+    public synchronized int taille() {
+        return identifiants.size();
+    }
+
+    /**
+     * Calcule les trigrammes distincts d'un nom, encodés sur 48 bits.
+     */
+    private static long[] trigrammes(String texte) {
+        if (texte.length() < 3) {
+            return new long[0];
+        }
+        long[] cles = new long[texte.length() - 2];
+        for (int i = 0; i < cles.length; i++) {
+            cles[i] = ((long) texte.charAt(i) << 32) | ((long) texte.charAt(i + 1) << 16) | texte.charAt(i + 2);
+        }
+        return Arrays.stream(cles).distinct().toArray();
+    }
+
+    /**
+     * Liste triée d'identifiants, stockée dans un tableau primitif extensible.
+     */
+    private static final class ListeIds {
+        private int[] ids = new int[4];
+        private int taille;
+
+        // Les identifiants sont attribués dans l'ordre croissant : l'ajout reste trié
+        void ajouter(int id) {
+            if (taille == ids.length) {
+                ids = Arrays.copyOf(ids, taille * 2);
+            }
+            ids[taille++] = id;
+        }
+
+        boolean retirer(int id) {
+            int position = Arrays.binarySearch(ids, 0, taille, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, taille - position - 1);
+            taille--;
+            return true;
+        }
+
+        /**
+         * Conserve dans candidats (trié) les seuls identifiants présents dans cette liste.
+         *
+         * @return Le nouveau nombre de candidats.
+         */
+        int intersecter(int[] candidats, int nbCandidats) {
+            int conserves = 0;
+            int j = 0;
+            for (int i = 0; i < nbCandidats && j < taille; i++) {
+                int id = candidats[i];
+                int position = Arrays.binarySearch(ids, j, taille, id);
+                if (position >= 0) {
+                    candidats[conserves++] = id;
+                    j = position + 1;
+                } else {
+                    j = -position - 1;
+                }
+            }
+            return conserves;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+import data.Fichier;
+
+/**
+ * Index trié des tailles de fichiers pour les recherches par intervalle et les
+ * requêtes « les N plus gros » ou « les N plus petits ».
+ *
+ * Les tailles sont des {@code long} : les fichiers de plus de 2 Go sont pris en
+ * compte sans débordement. Un intervalle se trouve par recherche dichotomique,
+ * et les N plus gros (ou plus petits) se lisent directement à l'extrémité de
+ * la tranche triée correspondante.
+ *
+ * @param <T> Le type des éléments indexés.
+ * @author Youmna Saad et Seyda Ann
+ */
+public class IndexTailles<T> extends IndexTrie<T> {
+
+    /**
+     * Construit l'index des éléments donnés.
+     *
+     * @param elements Les éléments à indexer.
+     * @param taille Fonction donnant la taille en octets d'un élément.
+     */
+    public IndexTailles(Collection<? extends T> elements, ToLongFunction<? super T> taille) {
+        super(elements, taille);
+    }
+
+    /**
+     * Construit l'index des tailles d'une liste de fichiers.
+     *
+     * @param fichiers Les fichiers à indexer.
+     * @return L'index des tailles.
+     */
+    public static IndexTailles<Fichier> pourFichiers(Collection<Fichier> fichiers) {
+        return new IndexTailles<>(fichiers, Fichier::getTaille);
+    }
+
+    /**
+     * Recherche les éléments dont la taille est comprise dans un intervalle.
+     *
+     * @param min Taille minimale en octets (incluse).
+     * @param max Taille maximale en octets (incluse).
+     * @return Les éléments correspondants, dans leur ordre d'origine.
+     */
+    public List<T> rechercherIntervalle(long min, long max) {
+        verifierIntervalle(min, max);
+        return extraire(premierSuperieurOuEgal(min), premierSuperieur(max));
+    }
+
+    /**
+     * Retourne les N plus gros éléments.
+     *
+     * @param n Le nombre d'éléments voulus.
+     * @return Les éléments, du plus gros au plus petit.
+     */
+    public List<T> plusGrands(int n) {
+        return plusGrands(n, 0, Long.MAX_VALUE, e -> true);
+    }
+
+    /**
+     * Retourne les N plus gros éléments d'un intervalle de tailles satisfaisant un filtre.
+     *
+     * Les éléments sont examinés du plus gros au plus petit : le filtre n'est
+     * appliqué qu'au strict nécessaire.
+     *
+     * @param n Le nombre d'éléments voulus.
+     * @param min Taille minimale en octets (incluse).
+     * @param max Taille maximale en octets (incluse).
+     * @param filtre Critère supplémentaire.
+     * @return Les éléments, du plus gros au plus petit.
+     */
+    public List<T> plusGrands(int n, long min, long max, Predicate<? super T> filtre) {
+        verifierNombre(n);
+        verifierIntervalle(min, max);
+        List<T> resultats = new ArrayList<>(Math.min(n, cles.length));
+        int de = premierSuperieurOuEgal(min);
+        for (int i = premierSuperieur(max) - 1; i >= de && resultats.size() < n; i--) {
+            T element = elements.get(ids[i]);
+            if (filtre.test(element)) {
+                resultats.add(element);
+            }
+        }
+        return resultats;
+    }
+
+    /**
+     * Retourne les N plus petits éléments.
+     *
+     * @param n Le nombre d'éléments voulus.
+     * @return Les éléments, du plus petit au plus gros.
+     */
+    public List<T> plusPetits(int n) {
+        return plusPetits(n, 0, Long.MAX_VALUE, e -> true);
+    }
+
+    /**
+     * Retourne les N plus petits éléments d'un intervalle de tailles satisfaisant un filtre.
+     *
+     * @param n Le nombre d'éléments voulus.
+     * @param min Taille minimale en octets (incluse).
+     * @param max Taille maximale en octets (incluse).
+     * @param filtre Critère supplémentaire.
+     * @return Les éléments, du plus petit au plus gros.
+     */
+    public List<T> plusPetits(int n, long min, long max, Predicate<? super T> filtre) {
+        verifierNombre(n);
+        verifierIntervalle(min, max);
+        List<T> resultats = new ArrayList<>(Math.min(n, cles.length));
+        int a = premierSuperieur(max);
+        for (int i = premierSuperieurOuEgal(min); i < a && resultats.size() < n; i++) {
+            T element = elements.get(ids[i]);
+            if (filtre.test(element)) {
+                resultats.add(element);
+            }
+        }
+        return resultats;
+    }
+
+    /**
+     * Retourne la somme des tailles d'un intervalle, sans extraire les éléments.
+     *
+     * @param min Taille minimale en octets (incluse).
+     * @param max Taille maximale en octets (incluse).
+     * @return La taille cumulée en octets.
+     */
+    public long tailleCumulee(long min, long max) {
+        verifierIntervalle(min, max);
+        long total = 0;
+        for (int i = premierSuperieurOuEgal(min), a = premierSuperieur(max); i < a; i++) {
+            total += cles[i];
+        }
+        return total;
+    }
+
+    private static void verifierNombre(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Le nombre de fichiers demandés ne peut pas être négatif.");
+        }
+    }
+
+    private static void verifierIntervalle(long min, long max) {
+        if (min < 0 || max < min) {
+            throw new IllegalArgumentException("L'intervalle de tailles est invalide : [" + min + ", " + max + "].");
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Base des index triés sur une clé numérique (date, taille...).
+ *
+ * Les clés sont stockées dans un tableau primitif trié, accompagné d'un tableau
+ * parallèle des positions des éléments dans leur collection d'origine. Les
+ * recherches par intervalle se réduisent à deux recherches dichotomiques.
+ *
+ * @param <T> Le type des éléments indexés.
+ * @author Youmna Saad et Seyda Ann
+ */
+abstract class IndexTrie<T> {
+
+    protected final List<T> elements;
+    protected final long[] cles; // Triées par ordre croissant
+    protected final int[] ids;   // ids[i] : position dans elements de la clé cles[i]
+
+    /**
+     * Construit l'index des éléments donnés.
+     *
+     * @param elements Les éléments à indexer.
+     * @param cle Fonction donnant la clé d'un élément.
+     */
+    protected IndexTrie(Collection<? extends T> elements, ToLongFunction<? super T> cle) {
+        if (elements == null || cle == null) {
+            throw new IllegalArgumentException("Les éléments et la fonction de clé ne peuvent pas être null.");
+        }
+        this.elements = new ArrayList<>(elements);
+        int n = this.elements.size();
+        long[] valeurs = new long[n];
+        int[] positions = new int[n];
+        for (int i = 0; i < n; i++) {
+            valeurs[i] = cle.applyAsLong(this.elements.get(i));
+            positions[i] = i;
+        }
+        trier(valeurs, positions);
+        this.cles = valeurs;
+        this.ids = positions;
+    }
+
+    /**
+     * Retourne le nombre d'éléments indexés.
+     *
+     * @return Le nombre d'éléments.
+     */
+    public int taille() {
+        return cles.length;
+    }
+
+    // Position de la première clé >= valeur (cles.length si aucune)
+    protected int premierSuperieurOuEgal(long valeur) {
+        int bas = 0;
+        int haut = cles.length;
+        while (bas < haut) {
+            int milieu = (bas + haut) >>> 1;
+            if (cles[milieu] < valeur) {
+                bas = milieu + 1;
+            } else {
+                haut = milieu;
+            }
+        }
+        return bas;
+    }
+
+    // Position de la première clé > valeur (cles.length si aucune)
+    protected int premierSuperieur(long valeur) {
+        return valeur == Long.MAX_VALUE ? cles.length : premierSuperieurOuEgal(valeur + 1);
+    }
+
+    /**
+     * Extrait les éléments des positions [de, a) du tableau trié, dans leur ordre d'origine.
+     */
+    protected List<T> extraire(int de, int a) {
+        if (a <= de) {
+            return new ArrayList<>();
+        }
+        int[] trouves = Arrays.copyOfRange(ids, de, a);
+        Arrays.sort(trouves); // Restitue l'ordre d'origine des éléments
+        List<T> resultats = new ArrayList<>(trouves.length);
+        for (int id : trouves) {
+            resultats.add(elements.get(id));
+        }
+        return resultats;
+    }
+
+    /**
+     * Trie les clés en déplaçant les positions avec elles (tri fusion stable).
+     */
+    private static void trier(long[] valeurs, int[] positions) {
+        int n = valeurs.length;
+        long[] valeursTmp = new long[n];
+        int[] positionsTmp = new int[n];
+        for (int largeur = 1; largeur < n; largeur *= 2) {
+            for (int gauche = 0; gauche < n - largeur; gauche += 2 * largeur) {
+                int milieu = gauche + largeur;
+                int droite = Math.min(gauche + 2 * largeur, n);
+                if (valeurs[milieu - 1] <= valeurs[milieu]) {
+                    continue; // Déjà dans l'ordre
+                }
+                int i = gauche;
+                int j = milieu;
+                int k = gauche;
+                while (i < milieu && j < droite) {
+                    if (valeurs[j] < valeurs[i]) {
+                        valeursTmp[k] = valeurs[j];
+                        positionsTmp[k++] = positions[j++];
+                    } else {
+                        valeursTmp[k] = valeurs[i];
+                        positionsTmp[k++] = positions[i++];
+                    }
+                }
+                while (i < milieu) {
+                    valeursTmp[k] = valeurs[i];
+                    positionsTmp[k++] = positions[i++];
+                }
+                while (j < droite) {
+                    valeursTmp[k] = valeurs[j];
+                    positionsTmp[k++] = positions[j++];
+                }
+                System.arraycopy(valeursTmp, gauche, valeurs, gauche, droite - gauche);
+                System.arraycopy(positionsTmp, gauche, positions, gauche, droite - gauche);
+            }
+        }
+    }
+}
@@ -0,0 +1,477 @@
+package engine;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Langage d'expressions de recherche, compilé en {@link Critere}.
+ *
+ * L'expression est analysée une seule fois et traduite en un arbre de
+ * critères spécialisés (intervalles de dates et de tailles, plages de
+ * dimensions...) : son évaluation sur chaque fichier ne repasse pas par le
+ * texte, et le {@link MoteurRequete} peut ordonner les termes et utiliser
+ * les index comme pour une requête construite par programme.
+ *
+ * Grammaire :
+ * <pre>
+ * expression  := terme (("or" | "ou" | "||") terme)*
+ * terme       := facteur (("and" | "et" | "&amp;&amp;") facteur)*
+ * facteur     := ("not" | "non" | "!") facteur | "(" expression ")" | fonction | comparaison
+ * fonction    := "near" "(" lat "," lon "," km ")" | "bbox" "(" latMin "," lonMin "," latMax "," lonMax ")"
+ * comparaison := champ operateur valeur
+ * </pre>
+ * Champs : {@code name} (opérateurs {@code ~}, {@code !~}, {@code =}, {@code !=}),
+ * {@code type} ({@code =}, {@code !=} ; {@code png} ou {@code image/png}),
+ * {@code year}, {@code date} ({@code 2023}, {@code 2023-05} ou {@code 2023-05-14}),
+ * {@code size} (suffixes K, M, G), {@code width}, {@code height} et
+ * {@code ratio}, avec {@code =}, {@code !=}, {@code <}, {@code <=}, {@code >}
+ * et {@code >=}. Les noms français (nom, annee, taille, largeur, hauteur)
+ * sont aussi acceptés. Les valeurs contenant des espaces ou des opérateurs
+ * s'écrivent entre guillemets.
+ *
+ * Exemple : {@code year>=2019 and width>3000 and name~"IMG_"}.
+ *
+ * @author Youmna Saad et Seyda Ann
+ */
+public final class LangageRequete {
+
+    private final String texte;
+    private final List<Jeton> jetons;
+    private int position; // Indice du prochain jeton
+
+    private LangageRequete(String texte) {
+        this.texte = texte;
+        this.jetons = decouper(texte);
+    }
+
+    /**
+     * Compile une expression de recherche.
+     *
+     * @param texte L'expression, par exemple {@code year>=2019 and name~"IMG_"}.
+     * @return Le critère équivalent.
+     * @throws IllegalArgumentException Si l'expression est invalide.
+     */
+    public static Critere compiler(String texte) {
+        if (texte == null || texte.isBlank()) {
+            throw new IllegalArgumentException("La requête ne peut pas être vide.");
+        }
+        LangageRequete analyseur = new LangageRequete(texte);
+        Critere critere = analyseur.expression();
+        if (analyseur.position < analyseur.jetons.size()) {
+            throw analyseur.erreur("fin de la requête attendue");
+        }
+        return critere;
+    }
+
+    /**
+     * Lit une taille en octets, avec un suffixe facultatif K, M ou G (puissances de 1024).
+     *
+     * @param texte La taille, par exemple 500K ou 2G.
+     * @return La taille en octets.
+     * @throws IllegalArgumentException Si la taille est invalide.
+     */
+    public static long lireTaille(String texte) {
+        String valeur = texte.trim().toUpperCase(Locale.ROOT);
+        long multiplicateur = 1;
+        if (valeur.endsWith("K")) {
+            multiplicateur = 1024L;
+        } else if (valeur.endsWith("M")) {
+            multiplicateur = 1024L * 1024;
+        } else if (valeur.endsWith("G")) {
+            multiplicateur = 1024L * 1024 * 1024;
+        }
+        if (multiplicateur > 1) {
+            valeur = valeur.substring(0, valeur.length() - 1);
+        }
+        try {
+            long taille = Long.parseLong(valeur);
+            if (taille < 0) {
+                throw new IllegalArgumentException("Taille négative : " + texte);
+            }
+            return Math.multiplyExact(taille, multiplicateur);
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("Taille invalide : " + texte);
+        }
+    }
+
+    // ---- Analyse syntaxique ----
+
+    private Critere expression() {
+        List<Critere> termes = new ArrayList<>();
+        termes.add(terme());
+        while (motCle("or", "ou", "||")) {
+            termes.add(terme());
+        }
+        return termes.size() == 1 ? termes.get(0) : Critere.ou(termes);
+    }
+
+    private Critere terme() {
+        List<Critere> facteurs = new ArrayList<>();
+        facteurs.add(facteur());
+        while (motCle("and", "et", "&&")) {
+            facteurs.add(facteur());
+        }
+        return facteurs.size() == 1 ? facteurs.get(0) : Critere.et(facteurs);
+    }
+
+    private Critere facteur() {
+        if (motCle("not", "non", "!")) {
+            return Critere.non(facteur());
+        }
+        if (symbole("(")) {
+            Critere critere = expression();
+            attendre(")");
+            return critere;
+        }
+        Jeton champ = suivant("nom de champ");
+        if (champ.type != Type.MOT) {
+            throw erreur(champ, "nom de champ attendu");
+        }
+        String nom = champ.texte.toLowerCase(Locale.ROOT);
+        if ((nom.equals("near") || nom.equals("bbox")) && symbole("(")) {
+            return fonction(nom, champ);
+        }
+        Jeton operateur = suivant("opérateur");
+        if (operateur.type != Type.OPERATEUR) {
+            throw erreur(operateur, "opérateur attendu après « " + champ.texte + " »");
+        }
+        Jeton valeur = suivant("valeur");
+        if (valeur.type != Type.MOT && valeur.type != Type.CHAINE) {
+            throw erreur(valeur, "valeur attendue après « " + operateur.texte + " »");
+        }
+        try {
+            return comparaison(nom, operateur.texte, valeur.texte);
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw erreur(champ, e.getMessage());
+        }
+    }
+
+    private Critere fonction(String nom, Jeton debut) {
+        List<Double> arguments = new ArrayList<>();
+        do {
+            Jeton argument = suivant("nombre");
+            try {
+                arguments.add(Double.parseDouble(argument.texte));
+            } catch (NumberFormatException e) {
+                throw erreur(argument, "nombre attendu");
+            }
+        } while (symbole(","));
+        attendre(")");
+
+        int attendus = nom.equals("near") ? 3 : 4;
+        if (arguments.size() != attendus) {
+            throw erreur(debut, nom + " attend " + attendus + " arguments");
+        }
+        try {
+            return nom.equals("near")
+                    ? Critere.rayon(arguments.get(0), arguments.get(1), arguments.get(2))
+                    : Critere.rectangle(arguments.get(0), arguments.get(1), arguments.get(2), arguments.get(3));
+        } catch (IllegalArgumentException e) {
+            throw erreur(debut, e.getMessage());
+        }
+    }
+
+    // ---- Compilation des comparaisons ----
+
+    private static Critere comparaison(String champ, String operateur, String valeur) {
+        switch (champ) {
+            case "name":
+            case "nom":
+                return nom(operateur, valeur);
+            case "type":
+                return type(operateur, valeur);
+            case "year":
+            case "annee":
+                int annee = Integer.parseInt(valeur);
+                return dates(operateur, IndexDates.debutAnnee(annee), IndexDates.debutAnnee(annee + 1));
+            case "date":
+                return date(operateur, valeur);
+            case "size":
+            case "taille":
+                return taille(operateur, lireTaille(valeur));
+            case "width":
+            case "largeur":
+                return dimension(operateur, Integer.parseInt(valeur), true);
+            case "height":
+            case "hauteur":
+                return dimension(operateur, Integer.parseInt(valeur), false);
+            case "ratio":
+                return ratio(operateur, lireRatio(valeur));
+            default:
+                throw new IllegalArgumentException("champ inconnu « " + champ + " »");
+        }
+    }
+
+    private static Critere nom(String operateur, String valeur) {
+        switch (operateur) {
+            case "~":
+                return Critere.nom(valeur);
+            case "!~":
+                return Critere.non(Critere.nom(valeur));
+            case "=":
+                return Critere.nomEgal(valeur);
+            case "!=":
+                return Critere.non(Critere.nomEgal(valeur));
+            default:
+                throw new IllegalArgumentException("opérateur « " + operateur + " » impossible sur le nom");
+        }
+    }
+
+    private static Critere type(String operateur, String valeur) {
+        String typeMime = valeur.contains("/") ? valeur : "image/" + (valeur.equalsIgnoreCase("jpg") ? "jpeg" : valeur);
+        switch (operateur) {
+            case "=":
+                return Critere.typeMime(typeMime);
+            case "!=":
+                return Critere.non(Critere.typeMime(typeMime));
+            default:
+                throw new IllegalArgumentException("opérateur « " + operateur + " » impossible sur le type");
+        }
+    }
+
+    // Une date désigne l'intervalle [debut, fin[ d'une année, d'un mois ou d'un jour
+    private static Critere date(String operateur, String valeur) {
+        String[] parties = valeur.split("-");
+        LocalDate debut;
+        LocalDate fin;
+        if (parties.length == 1) {
+            debut = LocalDate.of(Integer.parseInt(parties[0]), 1, 1);
+            fin = debut.plusYears(1);
+        } else if (parties.length == 2) {
+            debut = LocalDate.of(Integer.parseInt(parties[0]), Integer.parseInt(parties[1]), 1);
+            fin = debut.plusMonths(1);
+        } else {
+            debut = LocalDate.parse(valeur);
+            fin = debut.plusDays(1);
+        }
+        ZoneId zone = ZoneId.systemDefault();
+        return dates(operateur, debut.atStartOfDay(zone).toInstant().toEpochMilli(),
+                fin.atStartOfDay(zone).toInstant().toEpochMilli());
+    }
+
+    private static Critere dates(String operateur, long debut, long fin) {
+        switch (operateur) {
+            case "=":
+                return Critere.dates(debut, fin);
+            case "!=":
+                return Critere.non(Critere.dates(debut, fin));
+            case "<":
+                return Critere.dates(Long.MIN_VALUE, debut);
+            case "<=":
+                return Critere.dates(Long.MIN_VALUE, fin);
+            case ">":
+                return Critere.dates(fin, Long.MAX_VALUE);
+            case ">=":
+                return Critere.dates(debut, Long.MAX_VALUE);
+            default:
+                throw new IllegalArgumentException("opérateur « " + operateur + " » impossible sur une date");
+        }
+    }
+
+    private static Critere taille(String operateur, long taille) {
+        switch (operateur) {
+            case "=":
+                return Critere.taille(taille, taille);
+            case "!=":
+                return Critere.non(Critere.taille(taille, taille));
+            case "<":
+                return taille == 0 ? Critere.non(Critere.tous()) : Critere.taille(0, taille - 1);
+            case "<=":
+                return Critere.taille(0, taille);
+            case ">":
+                return taille == Long.MAX_VALUE ? Critere.non(Critere.tous()) : Critere.taille(taille + 1, Long.MAX_VALUE);
+            case ">=":
+                return Critere.taille(taille, Long.MAX_VALUE);
+            default:
+                throw new IllegalArgumentException("opérateur « " + operateur + " » impossible sur la taille");
+        }
+    }
+
+    // Les dimensions inconnues (0) ne satisfont aucune comparaison
+    private static Critere dimension(String operateur, int valeur, boolean largeur) {
+        long min;
+        long max;
+        switch (operateur) {
+            case "=":
+            case "!=":
+                min = valeur;
+                max = valeur;
+                break;
+            case "<":
+                min = 1;
+                max = valeur - 1L;
+                break;
+            case "<=":
+                min = 1;
+                max = valeur;
+                break;
+            case ">":
+                min = valeur + 1L;
+                max = Integer.MAX_VALUE;
+                break;
+            case ">=":
+                min = valeur;
+                max = Integer.MAX_VALUE;
+                break;
+            default:
+                throw new IllegalArgumentException("opérateur « " + operateur + " » impossible sur une dimension");
+        }
+        min = Math.max(1, min);
+        if (min > max) {
+            return operateur.equals("!=") ? Critere.dimensions(PlageDimensions.auMoins(1, 1)) : Critere.non(Critere.tous());
+        }
+        PlageDimensions plage = largeur
+                ? PlageDimensions.entre((int) min, (int) max, 1, Integer.MAX_VALUE)
+                : PlageDimensions.entre(1, Integer.MAX_VALUE, (int) min, (int) max);
+        if (operateur.equals("!=")) {
+            return Critere.et(Critere.dimensions(PlageDimensions.auMoins(1, 1)), Critere.non(Critere.dimensions(plage)));
+        }
+        return Critere.dimensions(plage);
+    }
+
+    private static Critere ratio(String operateur, double ratio) {
+        switch (operateur) {
+            case "=":
+                return Critere.dimensions(PlageDimensions.ratio(ratio * 0.99, ratio * 1.01));
+            case "!=":
+                return Critere.et(Critere.dimensions(PlageDimensions.auMoins(1, 1)),
+                        Critere.non(Critere.dimensions(PlageDimensions.ratio(ratio * 0.99, ratio * 1.01))));
+            case "<":
+                return Critere.dimensions(PlageDimensions.ratio(0, Math.nextDown(ratio)));
+            case "<=":
+                return Critere.dimensions(PlageDimensions.ratio(0, ratio));
+            case ">":
+                return Critere.dimensions(PlageDimensions.ratio(Math.nextUp(ratio), Double.MAX_VALUE));
+            case ">=":
+                return Critere.dimensions(PlageDimensions.ratio(ratio, Double.MAX_VALUE));
+            default:
+                throw new IllegalArgumentException("opérateur « " + operateur + " » impossible sur le rapport");
+        }
+    }
+
+    // Rapport écrit 16:9 ou 1.78
+    private static double lireRatio(String valeur) {
+        int separateur = valeur.indexOf(':');
+        double ratio = separateur < 0 ? Double.parseDouble(valeur)
+                : Double.parseDouble(valeur.substring(0, separateur)) / Double.parseDouble(valeur.substring(separateur + 1));
+        if (!(ratio > 0) || Double.isInfinite(ratio)) {
+            throw new IllegalArgumentException("rapport invalide : " + valeur);
+        }
+        return ratio;
+    }
+
+    // ---- Lecture des jetons ----
+
+    private boolean motCle(String mot, String motFrancais, String symbole) {
+        if (position < jetons.size()) {
+            Jeton jeton = jetons.get(position);
+            if ((jeton.type == Type.MOT && (jeton.texte.equalsIgnoreCase(mot) || jeton.texte.equalsIgnoreCase(motFrancais)))
+                    || (jeton.type == Type.SYMBOLE && jeton.texte.equals(symbole))) {
+                position++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean symbole(String symbole) {
+        if (position < jetons.size() && jetons.get(position).type == Type.SYMBOLE
+                && jetons.get(position).texte.equals(symbole)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void attendre(String symbole) {
+        if (!symbole(symbole)) {
+            throw erreur("« " + symbole + " » attendu");
+        }
+    }
+
+    private Jeton suivant(String attendu) {
+        if (position >= jetons.size()) {
+            throw erreur(attendu + " attendu");
+        }
+        return jetons.get(position++);
+    }
+
+    private IllegalArgumentException erreur(String message) {
+        int colonne = position < jetons.size() ? jetons.get(position).colonne : texte.length();
+        return new IllegalArgumentException("Requête invalide (colonne " + (colonne + 1) + ") : " + message);
+    }
+
+    private IllegalArgumentException erreur(Jeton jeton, String message) {
+        return new IllegalArgumentException("Requête invalide (colonne " + (jeton.colonne + 1) + ") : " + message);
+    }
+
+    /**
+     * Découpe le texte en jetons : mots, chaînes entre guillemets, opérateurs
+     * de comparaison et symboles (parenthèses, virgules, &amp;&amp;, ||, !).
+     */
+    private static List<Jeton> decouper(String texte) {
+        List<Jeton> jetons = new ArrayList<>();
+        int i = 0;
+        while (i < texte.length()) {
+            char c = texte.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '"' || c == '\'') {
+                StringBuilder chaine = new StringBuilder();
+                int debut = i++;
+                while (i < texte.length() && texte.charAt(i) != c) {
+                    if (texte.charAt(i) == '\\' && i + 1 < texte.length()) {
+                        i++;
+                    }
+                    chaine.append(texte.charAt(i++));
+                }
+                if (i >= texte.length()) {
+                    throw new IllegalArgumentException("Requête invalide (colonne " + (debut + 1) + ") : guillemet non fermé");
+                }
+                i++;
+                jetons.add(new Jeton(Type.CHAINE, chaine.toString(), debut));
+            } else if (texte.startsWith("<=", i) || texte.startsWith(">=", i) || texte.startsWith("!=", i)
+                    || texte.startsWith("!~", i) || texte.startsWith("==", i)) {
+                String operateur = texte.substring(i, i + 2);
+                jetons.add(new Jeton(Type.OPERATEUR, operateur.equals("==") ? "=" : operateur, i));
+                i += 2;
+            } else if (c == '<' || c == '>' || c == '=' || c == '~') {
+                jetons.add(new Jeton(Type.OPERATEUR, String.valueOf(c), i++));
+            } else if (texte.startsWith("&&", i) || texte.startsWith("||", i)) {
+                jetons.add(new Jeton(Type.SYMBOLE, texte.substring(i, i + 2), i));
+                i += 2;
+            } else if (c == '(' || c == ')' || c == ',' || c == '!') {
+                jetons.add(new Jeton(Type.SYMBOLE, String.valueOf(c), i++));
+            } else {
+                int debut = i;
+                while (i < texte.length() && !Character.isWhitespace(texte.charAt(i))
+                        && "\"'()<>=!~,&|".indexOf(texte.charAt(i)) < 0) {
+                    i++;
+                }
+                if (i == debut) {
+                    throw new IllegalArgumentException("Requête invalide (colonne " + (i + 1) + ") : caractère inattendu « " + c + " »");
+                }
+                jetons.add(new Jeton(Type.MOT, texte.substring(debut, i), debut));
+            }
+        }
+        return jetons;
+    }
+
+    private enum Type { MOT, CHAINE, OPERATEUR, SYMBOLE }
+
+    private static final class Jeton {
+        private final Type type;
+        private final String texte;
+        private final int colonne;
+
+        Jeton(Type type, String texte, int colonne) {
+            this.type = type;
+            this.texte = texte;
+            this.colonne = colonne;
+        }
+    }
+}
@@ -1,9 +1,9 @@
 package engine;
 
-import java.util.Date;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
+import data.Fichier;
 import data.ImageFile;
 
 /**
@@ -18,6 +18,7 @@ import data.ImageFile;
 public class ModeRech {
 
     private List<ImageFile> imageFiles; // Liste des fichiers image disponibles
+    private MoteurRequete moteur; // Construit à la première recherche
 
     /**
      * Constructeur pour initialiser la liste des fichiers image à analyser.
@@ -39,14 +40,21 @@ public class ModeRech {
      * @return Une liste de fichiers correspondant aux critères.
      */
     public List<ImageFile> findByName(String partialName) {
-        return imageFiles.stream()
-                .filter(file -> {
-                    String name = file.getFileName().toLowerCase();
-                    return name.contains(partialName.toLowerCase()) ||
-                           (name.contains(partialName.toLowerCase()) &&
-                           (name.endsWith(".jpeg") || name.endsWith(".jpg")));
-                })
-                .collect(Collectors.toList());
+        return find(Critere.nom(partialName));
+    }
+
+    /**
+     * Recherche des images dont le nom est proche d'un texte, malgré des fautes
+     * de frappe (distance d'édition, sans tenir compte de la casse ni de l'extension).
+     *
+     * @param name Nom recherché, éventuellement mal orthographié.
+     * @param maxDistance Nombre maximal de caractères insérés, supprimés ou remplacés.
+     * @return Les fichiers trouvés, du nom le plus proche au plus éloigné.
+     */
+    public List<ImageFile> findByApproximateName(String name, int maxDistance) {
+        List<ImageFile> results = find(Critere.nomApproche(name, maxDistance));
+        IndexFlou.classer(results, ImageFile::getFileName, name);
+        return results;
     }
 
     /**
@@ -56,12 +64,53 @@ public class ModeRech {
      * @return Une liste de fichiers correspondant à l'année donnée.
      */
     public List<ImageFile> findByYear(int year) {
-        return imageFiles.stream()
-                .filter(file -> {
-                    Date lastModified = file.getLastModified();
-                    return lastModified.getYear() + 1900 == year; // Ajout de 1900 pour une année correcte
-                })
-                .collect(Collectors.toList());
+        return find(Critere.annee(year));
+    }
+
+    /**
+     * Recherche des images par mois de dernière modification.
+     *
+     * @param year Année de dernière modification.
+     * @param month Mois de dernière modification (de 1 à 12).
+     * @return Une liste de fichiers correspondant au mois donné.
+     */
+    public List<ImageFile> findByMonth(int year, int month) {
+        return find(Critere.mois(year, month));
+    }
+
+    /**
+     * Recherche des images modifiées dans un intervalle de dates.
+     *
+     * @param from Début de l'intervalle en millisecondes (inclus).
+     * @param to Fin de l'intervalle en millisecondes (exclue).
+     * @return Une liste de fichiers modifiés dans l'intervalle.
+     */
+    public List<ImageFile> findByDateRange(long from, long to) {
+        return find(Critere.dates(from, to));
+    }
+
+    /**
+     * Recherche des images satisfaisant un critère quelconque du moteur de requêtes.
+     *
+     * @param critere Le critère à satisfaire.
+     * @return Une liste de fichiers correspondant au critère, dans l'ordre d'origine.
+     */
+    public List<ImageFile> find(Critere critere) {
+        if (moteur == null) {
+            // Les fichiers sont convertis une fois, dans le même ordre : la position relie les deux listes
+            List<Fichier> fichiers = new ArrayList<>(imageFiles.size());
+            for (ImageFile imageFile : imageFiles) {
+                fichiers.add(imageFile.versFichier());
+            }
+            moteur = new MoteurRequete(new Catalogue(fichiers, true));
+        }
+
+        Catalogue catalogue = moteur.getCatalogue();
+        List<ImageFile> resultats = new ArrayList<>();
+        for (Fichier fichier : moteur.executer(critere)) {
+            resultats.add(imageFiles.get(catalogue.position(fichier)));
+        }
+        return resultats;
     }
 
     /**
@@ -0,0 +1,373 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import data.Fichier;
+
+/**
+ * Exécute des {@link Critere} sur un {@link Catalogue}.
+ *
+ * Pour une conjonction, le moteur choisit parmi les termes disposant d'un
+ * index celui qui fournit le moins de candidats, puis applique les autres
+ * termes étape par étape, du moins coûteux et plus sélectif au plus coûteux :
+ * les lectures d'en-têtes et de métadonnées ne concernent que les fichiers
+ * ayant passé les critères précédents. Avant une étape qui exige les
+ * métadonnées complètes, celles des candidats restants peuvent être extraites
+ * en parallèle par un {@link PipelineMetaDonnees}.
+ *
+ * Sur un grand catalogue, chaque étape est exécutée en parallèle par
+ * {@link ExecutionParallele}, selon le nombre de candidats et le coût du
+ * critère. Les résultats sont rendus dans l'ordre du catalogue.
+ *
+ * @author Youmna Saad et Seyda Ann
+ */
+public class MoteurRequete {
+
+    private static final int LOT_INITIAL = 64;
+    private static final int LOT_MAXIMAL = 8192;
+
+    private final Catalogue catalogue;
+    private PipelineMetaDonnees pipeline; // Facultatif : préchargement des métadonnées
+    private boolean parallele = true;
+
+    /**
+     * Crée un moteur de requêtes sur un catalogue.
+     *
+     * @param catalogue Le catalogue à interroger.
+     */
+    public MoteurRequete(Catalogue catalogue) {
+        if (catalogue == null) {
+            throw new IllegalArgumentException("Le catalogue ne peut pas être null.");
+        }
+        this.catalogue = catalogue;
+    }
+
+    /**
+     * Utilise un pipeline pour extraire en parallèle les métadonnées des candidats
+     * avant les critères qui en ont besoin.
+     *
+     * @param pipeline Le pipeline d'extraction, ou null pour extraire au fil de l'eau.
+     * @return Ce moteur.
+     */
+    public MoteurRequete avecPipeline(PipelineMetaDonnees pipeline) {
+        this.pipeline = pipeline;
+        return this;
+    }
+
+    /**
+     * Active ou désactive l'exécution parallèle des étapes. Lorsqu'elle est
+     * active, seules les étapes assez coûteuses sont découpées en tranches.
+     *
+     * @param parallele false pour tout exécuter dans le fil appelant.
+     * @return Ce moteur.
+     */
+    public MoteurRequete avecParallelisme(boolean parallele) {
+        this.parallele = parallele;
+        return this;
+    }
+
+    /**
+     * Retourne le catalogue interrogé.
+     *
+     * @return Le catalogue.
+     */
+    public Catalogue getCatalogue() {
+        return catalogue;
+    }
+
+    /**
+     * Exécute une requête.
+     *
+     * @param requete Le critère à satisfaire.
+     * @return Les fichiers correspondants, dans l'ordre du catalogue.
+     */
+    public List<Fichier> executer(Critere requete) {
+        Plan plan = planifier(requete);
+
+        List<Fichier> tous = catalogue.getFichiers();
+        List<Fichier> candidats = filtrer(plan.source != null ? trier(plan.candidats) : tous, plan.etapes);
+        return candidats == tous ? new ArrayList<>(candidats) : candidats;
+    }
+
+    /**
+     * Exécute une requête et ne retourne qu'une page de résultats.
+     *
+     * L'évaluation s'arrête dès que la page est remplie : les candidats sont
+     * examinés par lots de taille croissante, dans l'ordre du catalogue. Une
+     * requête peu sélective n'utilise pas d'index (qui produirait tous les
+     * candidats avant le premier résultat) : sa première page ne coûte que
+     * l'examen des premiers fichiers du catalogue.
+     *
+     * @param requete Le critère à satisfaire.
+     * @param decalage Nombre de résultats à sauter.
+     * @param limite Nombre maximal de résultats de la page.
+     * @return La page, avec un jeton pour la page suivante s'il reste des fichiers à examiner.
+     */
+    public PageResultats executer(Critere requete, int decalage, int limite) {
+        if (decalage < 0 || limite <= 0) {
+            throw new IllegalArgumentException("Le décalage doit être positif et la limite strictement positive.");
+        }
+        return page(requete, 0, decalage, limite);
+    }
+
+    /**
+     * Exécute une requête au fil d'un flux de fichiers, sans catalogue ni index,
+     * et ne retourne qu'une page de résultats.
+     *
+     * Convient à une requête ponctuelle : chaque fichier est testé dès qu'il est
+     * produit et la lecture du flux s'arrête dès que la page est remplie. Le
+     * jeton rendu vaut pour un moteur dont le catalogue fixe contient les mêmes
+     * fichiers, dans l'ordre du flux.
+     *
+     * @param fichiers Le flux des fichiers à examiner.
+     * @param requete Le critère à satisfaire.
+     * @param decalage Nombre de résultats à sauter.
+     * @param limite Nombre maximal de résultats de la page.
+     * @return La page, avec un jeton pour la page suivante s'il reste des fichiers à examiner.
+     */
+    public static PageResultats executer(Stream<Fichier> fichiers, Critere requete, int decalage, int limite) {
+        if (fichiers == null || requete == null) {
+            throw new IllegalArgumentException("Le flux et la requête ne peuvent pas être null.");
+        }
+        if (decalage < 0 || limite <= 0) {
+            throw new IllegalArgumentException("Le décalage doit être positif et la limite strictement positive.");
+        }
+        long voulus = (long) decalage + limite;
+        Iterator<Fichier> iterateur = fichiers.iterator();
+        List<Fichier> retenus = new ArrayList<>();
+        int position = 0; // Position du prochain fichier du flux
+        while (retenus.size() < voulus && iterateur.hasNext()) {
+            Fichier fichier = iterateur.next();
+            position++;
+            if (requete.test(fichier)) {
+                retenus.add(fichier);
+            }
+        }
+
+        String jeton = retenus.size() == voulus && iterateur.hasNext() ? creerJeton(0, requete, position) : null;
+        List<Fichier> page = decalage >= retenus.size() ? new ArrayList<>()
+                : new ArrayList<>(retenus.subList(decalage, retenus.size()));
+        return new PageResultats(page, jeton);
+    }
+
+    /**
+     * Retourne la page suivante d'une requête, à partir du jeton d'une page précédente.
+     *
+     * @param requete Le critère de la page précédente.
+     * @param jeton Le jeton de suite de la page précédente.
+     * @param limite Nombre maximal de résultats de la page.
+     * @return La page suivante.
+     * @throws IllegalArgumentException Si le jeton est invalide, provient d'une
+     *                                  autre requête ou si le catalogue a changé depuis.
+     */
+    public PageResultats continuer(Critere requete, String jeton, int limite) {
+        if (limite <= 0) {
+            throw new IllegalArgumentException("La limite doit être strictement positive.");
+        }
+        return page(requete, lireJeton(jeton, requete), 0, limite);
+    }
+
+    /**
+     * Décrit le plan d'exécution d'une requête, sans l'exécuter.
+     *
+     * @param requete Le critère à satisfaire.
+     * @return La description du plan.
+     */
+    public String expliquer(Critere requete) {
+        Plan plan = planifier(requete);
+        StringBuilder texte = new StringBuilder();
+        if (plan.source != null) {
+            texte.append("Index : ").append(plan.source)
+                    .append(" (").append(plan.candidats.size()).append(" candidats)\n");
+        } else {
+            texte.append("Parcours : ").append(catalogue.taille()).append(" fichiers\n");
+        }
+        for (Critere etape : plan.etapes) {
+            texte.append("Filtre : ").append(etape).append(" (coût ").append(etape.cout())
+                    .append(", sélectivité ").append(etape.selectivite()).append(")\n");
+
+        }
+        return texte.toString();
+    }
+
+    private Plan planifier(Critere requete) {
+        return planifier(requete, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Planifie une requête dont seuls les premiers résultats sont voulus.
+     * Si le parcours du catalogue doit, d'après la sélectivité estimée, les
+     * trouver dans son premier quart, aucun index n'est consulté.
+     */
+    private Plan planifier(Critere requete, long voulus) {
+        List<Critere> termes = requete instanceof Critere.Et et ? et.termes : List.of(requete);
+
+        Plan plan = new Plan();
+        boolean parcoursCourt = voulus / Math.max(1e-6, requete.selectivite()) <= catalogue.taille() / 4.0;
+        for (Critere terme : parcoursCourt ? List.<Critere>of() : termes) {
+            List<Fichier> candidats = terme.candidats(catalogue);
+            if (candidats != null && (plan.candidats == null || candidats.size() < plan.candidats.size())) {
+                plan.source = terme;
+                plan.candidats = candidats;
+            }
+        }
+
+        for (Critere terme : termes) {
+            if (terme != plan.source || !terme.candidatsExacts()) {
+                plan.etapes.add(terme);
+            }
+        }
+        plan.etapes.sort(Comparator.comparingDouble(Critere::rangConjonction));
+        return plan;
+    }
+
+    private PageResultats page(Critere requete, int debut, int decalage, int limite) {
+        long voulus = (long) decalage + limite;
+        Plan plan = planifier(requete, voulus);
+        List<Fichier> source;
+        int i;
+        if (plan.source != null) {
+            source = trier(plan.candidats);
+            i = premierCandidat(source, debut);
+        } else {
+            source = catalogue.getFichiers();
+            i = Math.min(debut, source.size());
+        }
+
+        // Lots croissants : peu de travail pour une première page, peu de lots pour une page lointaine
+        List<Fichier> retenus = new ArrayList<>();
+        int lot = LOT_INITIAL;
+        int debutLot = i;
+        while (i < source.size() && retenus.size() < voulus) {
+            int fin = (int) Math.min(source.size(), (long) i + lot);
+            debutLot = i;
+            retenus.addAll(filtrer(source.subList(i, fin), plan.etapes));
+            i = fin;
+            lot = Math.min(LOT_MAXIMAL, lot * 2);
+        }
+
+        String jeton = null;
+        if (retenus.size() > voulus) {
+            retenus = retenus.subList(0, (int) voulus);
+        }
+        if (retenus.size() == voulus) {
+            // Le dernier résultat retenu est dans le dernier lot examiné
+            Fichier dernier = retenus.get(retenus.size() - 1);
+            int j = i - 1;
+            while (j > debutLot && source.get(j) != dernier) {
+                j--;
+            }
+            if (j + 1 < source.size()) {
+                // En parcours, l'indice dans la source est la position dans le catalogue
+                jeton = creerJeton(requete, plan.source != null ? catalogue.position(dernier) + 1 : j + 1);
+            }
+        }
+        List<Fichier> fichiers = decalage >= retenus.size() ? new ArrayList<>()
+                : new ArrayList<>(retenus.subList(decalage, retenus.size()));
+        return new PageResultats(fichiers, jeton);
+    }
+
+    /**
+     * Applique les étapes d'un plan à des candidats.
+     */
+    private List<Fichier> filtrer(List<Fichier> candidats, List<Critere> etapes) {
+        for (Critere etape : etapes) {
+            if (candidats.isEmpty()) {
+                break;
+            }
+            if (etape.cout() >= Critere.COUT_METADONNEES) {
+                precharger(candidats);
+            }
+            if (parallele) {
+                candidats = ExecutionParallele.filtrer(candidats, etape, etape.cout());
+            } else {
+                List<Fichier> retenus = new ArrayList<>();
+                for (Fichier fichier : candidats) {
+                    if (etape.test(fichier)) {
+                        retenus.add(fichier);
+                    }
+                }
+                candidats = retenus;
+            }
+        }
+        return candidats;
+    }
+
+    // Premier candidat (triés dans l'ordre du catalogue) situé à la position debut ou après
+    private int premierCandidat(List<Fichier> candidats, int debut) {
+        int bas = 0;
+        int haut = candidats.size();
+        while (bas < haut) {
+            int milieu = (bas + haut) >>> 1;
+            if (catalogue.position(candidats.get(milieu)) < debut) {
+                bas = milieu + 1;
+            } else {
+                haut = milieu;
+            }
+        }
+        return bas;
+    }
+
+    /**
+     * Jeton de suite : version du catalogue, empreinte de la requête et
+     * position du prochain fichier à examiner, en base 36.
+     */
+    private String creerJeton(Critere requete, int position) {
+        return creerJeton(catalogue.getVersion(), requete, position);
+    }
+
+    // La version d'un catalogue fixe reste 0
+    private static String creerJeton(int version, Critere requete, int position) {
+        return Integer.toString(version, 36) + "." + Integer.toString(requete.toString().hashCode(), 36)
+                + "." + Integer.toString(position, 36);
+    }
+
+    private int lireJeton(String jeton, Critere requete) {
+        String[] parties = jeton == null ? new String[0] : jeton.split("\\.");
+        try {
+            if (parties.length == 3 && Integer.parseInt(parties[1], 36) == requete.toString().hashCode()) {
+                if (Integer.parseInt(parties[0], 36) != catalogue.getVersion()) {
+                    throw new IllegalArgumentException("Le catalogue a changé depuis la page précédente.");
+                }
+                int position = Integer.parseInt(parties[2], 36);
+                if (position >= 0) {
+                    return position;
+                }
+            }
+        } catch (NumberFormatException e) {
+            // Jeton mal formé : signalé ci-dessous
+        }
+        throw new IllegalArgumentException("Jeton de suite invalide pour cette requête : " + jeton);
+    }
+
+    // Remet les candidats d'un index dans l'ordre du catalogue
+    private List<Fichier> trier(List<Fichier> candidats) {
+        List<Fichier> tries = new ArrayList<>(candidats);
+        tries.sort(Comparator.comparingInt(catalogue::position));
+        return tries;
+    }
+
+    private void precharger(List<Fichier> candidats) {
+        if (pipeline == null || candidats.size() < 2) {
+            return;
+        }
+        try {
+            pipeline.executer(candidats.iterator(), Fichier::getMetaDonnees, false, (fichier, meta) -> { });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Plan d'exécution : source des candidats et filtres à appliquer, dans l'ordre.
+     */
+    private static final class Plan {
+        private Critere source; // Terme fournissant les candidats (null : tout le catalogue)
+        private List<Fichier> candidats;
+        private final List<Critere> etapes = new ArrayList<>();
+    }
+}
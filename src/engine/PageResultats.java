@@ -0,0 +1,53 @@
+package engine;
+
+import java.util.Collections;
+import java.util.List;
+
+import data.Fichier;
+
+/**
+ * Page de résultats d'une requête, rendue par {@link MoteurRequete#executer(Critere, int, int)}.
+ *
+ * Le jeton de suite permet de demander la page suivante avec
+ * {@link MoteurRequete#continuer(Critere, String, int)} sans réexaminer les
+ * fichiers déjà parcourus.
+ *
+ * @author Youmna Saad et Seyda Ann
+ */
+public final class PageResultats {
+
+    private final List<Fichier> fichiers;
+    private final String jetonSuite;
+
+    PageResultats(List<Fichier> fichiers, String jetonSuite) {
+        this.fichiers = Collections.unmodifiableList(fichiers);
+        this.jetonSuite = jetonSuite;
+    }
+
+    /**
+     * Retourne les fichiers de la page, dans l'ordre du catalogue.
+     *
+     * @return La liste (non modifiable) des fichiers.
+     */
+    public List<Fichier> getFichiers() {
+        return fichiers;
+    }
+
+    /**
+     * Retourne le jeton à passer pour obtenir la page suivante.
+     *
+     * @return Le jeton, ou null si c'est la dernière page.
+     */
+    public String getJetonSuite() {
+        return jetonSuite;
+    }
+
+    /**
+     * Indique s'il peut rester des résultats après cette page.
+     *
+     * @return true si une page suivante peut être demandée.
+     */
+    public boolean aSuite() {
+        return jetonSuite != null;
+    }
+}
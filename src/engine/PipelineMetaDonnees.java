@@ -0,0 +1,230 @@
+package engine;
+
+import data.Fichier;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Pipeline d'extraction des métadonnées exécutant les lectures de fichiers en parallèle.
+ *
+ * Les lectures sont bloquantes : sur un stockage à forte latence, le temps est
+ * dominé par l'attente des entrées/sorties. Le pipeline garde donc jusqu'à
+ * {@code concurrence} lectures en vol, sur des threads virtuels lorsque la JVM
+ * les propose, sinon sur un pool de threads borné. Les résultats sont livrés
+ * sur le thread appelant, dans l'ordre de soumission ou dans l'ordre de fin.
+ */
+public class PipelineMetaDonnees implements AutoCloseable {
+
+    /**
+     * Nombre de lectures simultanées par défaut.
+     */
+    public static final int CONCURRENCE_PAR_DEFAUT = 64;
+
+    private final int concurrence; // Nombre maximal de lectures en vol
+    private final ExecutorService executeur; // Exécuteur des lectures
+
+    /**
+     * Crée un pipeline avec la concurrence par défaut.
+     */
+    public PipelineMetaDonnees() {
+        this(CONCURRENCE_PAR_DEFAUT);
+    }
+
+    /**
+     * Crée un pipeline avec une limite de lectures simultanées.
+     *
+     * @param concurrence Nombre maximal de lectures en vol.
+     * @throws IllegalArgumentException Si la concurrence n'est pas strictement positive.
+     */
+    public PipelineMetaDonnees(int concurrence) {
+        if (concurrence <= 0) {
+            throw new IllegalArgumentException("La concurrence doit être strictement positive.");
+        }
+        this.concurrence = concurrence;
+        this.executeur = creerExecuteur(concurrence);
+    }
+
+    /**
+     * Utilise les threads virtuels s'ils sont disponibles (Java 21+), sinon un pool borné.
+     */
+    private static ExecutorService creerExecuteur(int concurrence) {
+        try {
+            Method virtuels = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) virtuels.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(concurrence, tache -> {
+                Thread thread = new Thread(tache, "extraction-metadonnees");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Crée les objets {@link Fichier} d'une collection de fichiers en parallèle.
+     *
+     * @param fichiers Les fichiers à analyser.
+     * @param ordonne true pour conserver l'ordre de la collection.
+     * @return La liste des fichiers analysés.
+     * @throws InterruptedException Si le thread appelant est interrompu.
+     */
+    public List<Fichier> extraire(Collection<File> fichiers, boolean ordonne) throws InterruptedException {
+        if (fichiers == null) {
+            throw new IllegalArgumentException("La liste des fichiers ne peut pas être null.");
+        }
+        List<Fichier> resultats = new ArrayList<>(fichiers.size());
+        executer(fichiers.iterator(), file -> {
+            Fichier fichier = new Fichier(file);
+            fichier.getMetaDonnees(); // Les métadonnées sont paresseuses : on force la lecture ici
+            return fichier;
+        }, ordonne, (source, fichier) -> resultats.add(fichier));
+        return resultats;
+    }
+
+    /**
+     * Applique un traitement bloquant à chaque source en gardant au plus
+     * {@code concurrence} traitements en vol.
+     *
+     * Les sources ne sont consommées qu'au rythme des traitements terminés, ce qui
+     * borne la mémoire utilisée. Le consommateur est toujours appelé sur le thread
+     * appelant et n'a donc pas besoin d'être thread-safe.
+     *
+     * @param sources Les sources à traiter.
+     * @param traitement Le traitement bloquant à appliquer à chaque source.
+     * @param ordonne true pour livrer les résultats dans l'ordre des sources,
+     *                false pour les livrer dès qu'ils sont prêts.
+     * @param consommateur Reçoit chaque source et son résultat.
+     * @param <T> Le type des sources.
+     * @param <R> Le type des résultats.
+     * @throws InterruptedException Si le thread appelant est interrompu.
+     */
+    public <T, R> void executer(Iterator<T> sources, Function<T, R> traitement, boolean ordonne,
+                                BiConsumer<T, R> consommateur) throws InterruptedException {
+        Lot<T, R> lot = ouvrirLot(traitement, ordonne, consommateur);
+        while (sources.hasNext()) {
+            lot.soumettre(sources.next());
+        }
+        lot.terminer();
+    }
+
+    /**
+     * Ouvre un lot auquel les sources sont soumises une à une, au fur et à
+     * mesure qu'elles sont produites (par exemple pendant un parcours
+     * récursif qui ne se prête pas à un itérateur).
+     *
+     * @param traitement Le traitement bloquant à appliquer à chaque source.
+     * @param ordonne true pour livrer les résultats dans l'ordre de soumission,
+     *                false pour les livrer dès qu'ils sont prêts.
+     * @param consommateur Reçoit chaque source et son résultat.
+     * @param <T> Le type des sources.
+     * @param <R> Le type des résultats.
+     * @return Le lot, à terminer par {@link Lot#terminer()}.
+     */
+    public <T, R> Lot<T, R> ouvrirLot(Function<T, R> traitement, boolean ordonne, BiConsumer<T, R> consommateur) {
+        if (traitement == null || consommateur == null) {
+            throw new IllegalArgumentException("Le traitement et le consommateur ne peuvent pas être null.");
+        }
+        return new Lot<>(traitement, ordonne, consommateur);
+    }
+
+    /**
+     * Sources soumises au pipeline, dont au plus {@code concurrence} sont en
+     * cours de traitement. Un lot n'est utilisable que depuis le thread qui l'a ouvert.
+     *
+     * @param <T> Le type des sources.
+     * @param <R> Le type des résultats.
+     */
+    public final class Lot<T, R> {
+        private final Function<T, R> traitement;
+        private final boolean ordonne;
+        private final BiConsumer<T, R> consommateur;
+        private final CompletionService<R> termines = new ExecutorCompletionService<>(executeur);
+        private final Deque<EnVol<T, R>> fileOrdonnee = new ArrayDeque<>(); // Traitements dans l'ordre des sources
+        private final Map<Future<R>, T> sourcesParTache = new HashMap<>(); // Traitements livrés dans l'ordre de fin
+
+        private Lot(Function<T, R> traitement, boolean ordonne, BiConsumer<T, R> consommateur) {
+            this.traitement = traitement;
+            this.ordonne = ordonne;
+            this.consommateur = consommateur;
+        }
+
+        /**
+         * Soumet une source. Si {@code concurrence} traitements sont déjà en vol,
+         * attend d'abord que l'un d'eux soit livré.
+         *
+         * @param source La source à traiter.
+         * @throws InterruptedException Si le thread appelant est interrompu.
+         */
+        public void soumettre(T source) throws InterruptedException {
+            if (fileOrdonnee.size() + sourcesParTache.size() >= concurrence) {
+                livrer();
+            }
+            if (ordonne) {
+                fileOrdonnee.add(new EnVol<>(source, executeur.submit(() -> traitement.apply(source))));
+            } else {
+                sourcesParTache.put(termines.submit(() -> traitement.apply(source)), source);
+            }
+        }
+
+        /**
+         * Attend et livre tous les traitements en vol.
+         *
+         * @throws InterruptedException Si le thread appelant est interrompu.
+         */
+        public void terminer() throws InterruptedException {
+            while (!fileOrdonnee.isEmpty() || !sourcesParTache.isEmpty()) {
+                livrer();
+            }
+        }
+
+        private void livrer() throws InterruptedException {
+            T source;
+            Future<R> tache;
+            if (ordonne) {
+                EnVol<T, R> premier = fileOrdonnee.poll();
+                source = premier.source();
+                tache = premier.tache();
+            } else {
+                tache = termines.take();
+                source = sourcesParTache.remove(tache);
+            }
+
+            try {
+                consommateur.accept(source, tache.get());
+            } catch (ExecutionException e) {
+                System.err.println("Erreur lors de l'extraction des métadonnées : " + e.getCause().getMessage());
+            }
+        }
+    }
+
+    /**
+     * Traitement en cours associé à sa source.
+     */
+    private record EnVol<T, R>(T source, Future<R> tache) {
+    }
+
+    /**
+     * Arrête les threads du pipeline.
+     */
+    @Override
+    public void close() {
+        executeur.shutdown();
+    }
+}
@@ -0,0 +1,246 @@
+package engine;
+
+/**
+ * Critère sur les dimensions d'une image : intervalle de largeurs, intervalle
+ * de hauteurs et bande de rapports largeur / hauteur.
+ *
+ * Syntaxe acceptée par {@link #analyser(String)} :
+ * <ul>
+ *   <li>{@code 1920x1080} : dimensions exactes ;</li>
+ *   <li>{@code 1920x1080+} : au moins 1920 de large et 1080 de haut ;</li>
+ *   <li>{@code 1280x720-3840x2160} : entre les deux tailles (bornes incluses).</li>
+ * </ul>
+ * et par {@link #analyserRatio(String)} : {@code 16:9} (à 1 % près) ou
+ * {@code 1.7-1.8} (bornes incluses).
+ *
+ * @author Youmna Saad et Seyda Ann
+ */
+public final class PlageDimensions {
+
+    // Satisfaite par aucune dimension : intersection de plages disjointes
+    private static final PlageDimensions VIDE = new PlageDimensions();
+
+    private final int largeurMin;
+    private final int largeurMax;
+    private final int hauteurMin;
+    private final int hauteurMax;
+    private final double ratioMin;
+    private final double ratioMax;
+
+    /**
+     * Crée un critère sur les dimensions.
+     *
+     * @param largeurMin Largeur minimale (incluse).
+     * @param largeurMax Largeur maximale (incluse).
+     * @param hauteurMin Hauteur minimale (incluse).
+     * @param hauteurMax Hauteur maximale (incluse).
+     * @param ratioMin Rapport largeur / hauteur minimal (inclus).
+     * @param ratioMax Rapport largeur / hauteur maximal (inclus).
+     */
+    public PlageDimensions(int largeurMin, int largeurMax, int hauteurMin, int hauteurMax,
+                           double ratioMin, double ratioMax) {
+        if (largeurMin > largeurMax || hauteurMin > hauteurMax || ratioMin > ratioMax) {
+            throw new IllegalArgumentException("La plage de dimensions est vide.");
+        }
+        this.largeurMin = largeurMin;
+        this.largeurMax = largeurMax;
+        this.hauteurMin = hauteurMin;
+        this.hauteurMax = hauteurMax;
+        this.ratioMin = ratioMin;
+        this.ratioMax = ratioMax;
+    }
+
+    private PlageDimensions() {
+        this.largeurMin = 1;
+        this.largeurMax = 0;
+        this.hauteurMin = 1;
+        this.hauteurMax = 0;
+        this.ratioMin = 1;
+        this.ratioMax = 0;
+    }
+
+    /**
+     * Crée un critère sur des intervalles de largeurs et de hauteurs, sans contrainte de rapport.
+     *
+     * @param largeurMin Largeur minimale (incluse).
+     * @param largeurMax Largeur maximale (incluse).
+     * @param hauteurMin Hauteur minimale (incluse).
+     * @param hauteurMax Hauteur maximale (incluse).
+     * @return Le critère.
+     */
+    public static PlageDimensions entre(int largeurMin, int largeurMax, int hauteurMin, int hauteurMax) {
+        return new PlageDimensions(largeurMin, largeurMax, hauteurMin, hauteurMax, 0, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Crée un critère « au moins L x H ».
+     *
+     * @param largeur Largeur minimale.
+     * @param hauteur Hauteur minimale.
+     * @return Le critère.
+     */
+    public static PlageDimensions auMoins(int largeur, int hauteur) {
+        return entre(largeur, Integer.MAX_VALUE, hauteur, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Crée un critère sur une bande de rapports largeur / hauteur.
+     *
+     * @param ratioMin Rapport minimal (inclus).
+     * @param ratioMax Rapport maximal (inclus).
+     * @return Le critère.
+     */
+    public static PlageDimensions ratio(double ratioMin, double ratioMax) {
+        return new PlageDimensions(0, Integer.MAX_VALUE, 0, Integer.MAX_VALUE, ratioMin, ratioMax);
+    }
+
+    /**
+     * Analyse une plage de dimensions : {@code LxH}, {@code LxH+} ou {@code LxH-LxH}.
+     *
+     * @param texte Le texte à analyser.
+     * @return Le critère correspondant.
+     * @throws IllegalArgumentException Si la syntaxe est invalide.
+     */
+    public static PlageDimensions analyser(String texte) {
+        String valeur = texte.trim().toLowerCase();
+        try {
+            if (valeur.endsWith("+")) {
+                int[] min = lireTaille(valeur.substring(0, valeur.length() - 1));
+                return auMoins(min[0], min[1]);
+            }
+            int tiret = valeur.indexOf('-');
+            if (tiret >= 0) {
+                int[] min = lireTaille(valeur.substring(0, tiret));
+                int[] max = lireTaille(valeur.substring(tiret + 1));
+                return entre(min[0], max[0], min[1], max[1]);
+            }
+            int[] exacte = lireTaille(valeur);
+            return entre(exacte[0], exacte[0], exacte[1], exacte[1]);
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Dimensions invalides : " + texte
+                    + " (attendu LxH, LxH+ ou LxH-LxH)");
+        }
+    }
+
+    /**
+     * Analyse une bande de rapports : {@code 16:9} (à 1 % près) ou {@code 1.7-1.8}.
+     *
+     * @param texte Le texte à analyser.
+     * @return Le critère correspondant.
+     * @throws IllegalArgumentException Si la syntaxe est invalide.
+     */
+    public static PlageDimensions analyserRatio(String texte) {
+        String valeur = texte.trim();
+        try {
+            int deuxPoints = valeur.indexOf(':');
+            if (deuxPoints >= 0) {
+                double ratio = Double.parseDouble(valeur.substring(0, deuxPoints))
+                        / Double.parseDouble(valeur.substring(deuxPoints + 1));
+                return ratio(ratio * 0.99, ratio * 1.01);
+            }
+            int tiret = valeur.indexOf('-');
+            if (tiret >= 0) {
+                return ratio(Double.parseDouble(valeur.substring(0, tiret)),
+                        Double.parseDouble(valeur.substring(tiret + 1)));
+            }
+            double ratio = Double.parseDouble(valeur);
+            return ratio(ratio * 0.99, ratio * 1.01);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Rapport invalide : " + texte + " (attendu 16:9 ou 1.7-1.8)");
+        }
+    }
+
+    /**
+     * Combine ce critère avec un autre (intersection).
+     *
+     * @param autre L'autre critère.
+     * @return Un critère satisfait seulement si les deux le sont (vide si les plages sont disjointes).
+     */
+    public PlageDimensions et(PlageDimensions autre) {
+        int largeurMin = Math.max(this.largeurMin, autre.largeurMin);
+        int largeurMax = Math.min(this.largeurMax, autre.largeurMax);
+        int hauteurMin = Math.max(this.hauteurMin, autre.hauteurMin);
+        int hauteurMax = Math.min(this.hauteurMax, autre.hauteurMax);
+        double ratioMin = Math.max(this.ratioMin, autre.ratioMin);
+        double ratioMax = Math.min(this.ratioMax, autre.ratioMax);
+        if (largeurMin > largeurMax || hauteurMin > hauteurMax || ratioMin > ratioMax) {
+            return VIDE;
+        }
+        return new PlageDimensions(largeurMin, largeurMax, hauteurMin, hauteurMax, ratioMin, ratioMax);
+    }
+
+    /**
+     * Indique si aucune dimension ne peut satisfaire ce critère.
+     *
+     * @return true pour l'intersection de plages disjointes.
+     */
+    public boolean estVide() {
+        return this == VIDE;
+    }
+
+    /**
+     * Vérifie si des dimensions satisfont le critère.
+     *
+     * @param largeur La largeur.
+     * @param hauteur La hauteur.
+     * @return true si les dimensions sont dans la plage.
+     */
+    public boolean contient(int largeur, int hauteur) {
+        if (largeur < largeurMin || largeur > largeurMax || hauteur < hauteurMin || hauteur > hauteurMax) {
+            return false;
+        }
+        if (ratioMin <= 0 && ratioMax == Double.POSITIVE_INFINITY) {
+            return true;
+        }
+        double ratio = hauteur == 0 ? Double.POSITIVE_INFINITY : (double) largeur / hauteur;
+        return ratio >= ratioMin && ratio <= ratioMax;
+    }
+
+    /**
+     * Vérifie si des dimensions satisfont le critère.
+     *
+     * @param dimensions Les dimensions [largeur, hauteur], ou null.
+     * @return true si les dimensions sont connues et dans la plage.
+     */
+    public boolean contient(int[] dimensions) {
+        return dimensions != null && contient(dimensions[0], dimensions[1]);
+    }
+
+    public int getLargeurMin() {
+        return largeurMin;
+    }
+
+    public int getLargeurMax() {
+        return largeurMax;
+    }
+
+    public int getHauteurMin() {
+        return hauteurMin;
+    }
+
+    public int getHauteurMax() {
+        return hauteurMax;
+    }
+
+    public double getRatioMin() {
+        return ratioMin;
+    }
+
+    public double getRatioMax() {
+        return ratioMax;
+    }
+
+    private static int[] lireTaille(String texte) {
+        String[] parties = texte.trim().split("x");
+        return new int[]{Integer.parseInt(parties[0].trim()), Integer.parseInt(parties[1].trim())};
+    }
+
+    @Override
+    public String toString() {
+        if (estVide()) {
+            return "PlageDimensions { vide }";
+        }
+        return "PlageDimensions { largeur=[" + largeurMin + ", " + largeurMax + "], hauteur=["
+                + hauteurMin + ", " + hauteurMax + "], ratio=[" + ratioMin + ", " + ratioMax + "] }";
+    }
+}
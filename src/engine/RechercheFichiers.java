@@ -3,12 +3,12 @@ package engine;
 import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
-import java.nio.file.Files;
-import java.nio.file.attribute.BasicFileAttributes;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.List;
 
+import data.Fichier;
+import data.FiltreParcours;
+
 /**
  * Classe pour effectuer une recherche dans un répertoire selon des critères.
  */
@@ -25,42 +25,58 @@ public class RechercheFichiers  implements Serializable {
      * @throws IOException En cas d'erreur de lecture des fichiers.
      */
     public static List<File> rechercherFichiers(File repertoire, String nomPartiel, Integer anneeCreation) throws IOException {
-        List<File> resultats = new ArrayList<>();
+        return rechercherFichiers(repertoire, nomPartiel, anneeCreation, new FiltreParcours());
+    }
 
+    /**
+     * Recherche des fichiers selon les critères spécifiés, sans descendre dans les
+     * répertoires exclus par le filtre.
+     *
+     * @param repertoire   Le répertoire à parcourir.
+     * @param nomPartiel   Nom ou partie du nom à rechercher (peut être null).
+     * @param anneeCreation Année de création à rechercher (peut être null).
+     * @param filtre       Règles d'inclusion et d'exclusion du parcours.
+     * @return Liste des fichiers correspondant aux critères.
+     * @throws IOException En cas d'erreur de lecture des fichiers.
+     */
+    public static List<File> rechercherFichiers(File repertoire, String nomPartiel, Integer anneeCreation,
+                                                FiltreParcours filtre) throws IOException {
         if (!repertoire.exists() || !repertoire.isDirectory()) {
             throw new IllegalArgumentException("Le chemin spécifié n'est pas un répertoire valide.");
         }
 
-        // Parcourt récursivement le répertoire
-        for (File fichier : repertoire.listFiles()) {
-            if (fichier.isDirectory()) {
-                // Recherche dans les sous-dossiers
-                resultats.addAll(rechercherFichiers(fichier, nomPartiel, anneeCreation));
-            } else if (fichier.isFile()) {
-                boolean correspond = true;
-
-                // Vérifie le critère du nom (contient la chaîne)
-                if (nomPartiel != null && !fichier.getName().toLowerCase().contains(nomPartiel.toLowerCase())) {
-                    correspond = false;
-                }
+        // Le nom est vérifié avant l'année de création, qui exige de lire les attributs
+        List<Critere> criteres = new ArrayList<>();
+        if (nomPartiel != null) {
+            criteres.add(Critere.nom(nomPartiel));
+        }
+        if (anneeCreation != null) {
+            criteres.add(Critere.anneeCreation(anneeCreation));
+        }
+        List<File> resultats = new ArrayList<>();
+        rechercher(repertoire, Critere.et(criteres), filtre, resultats);
+        return resultats;
+    }
 
-                // Vérifie le critère de l'année de création
-                if (anneeCreation != null) {
-                    BasicFileAttributes attrs = Files.readAttributes(fichier.toPath(), BasicFileAttributes.class);
-                    long creationTime = attrs.creationTime().toMillis();
-                    String anneeFichier = new SimpleDateFormat("yyyy").format(creationTime);
-                    if (!anneeFichier.equals(anneeCreation.toString())) {
-                        correspond = false;
-                    }
-                }
+    private static void rechercher(File repertoire, Critere critere, FiltreParcours filtre, List<File> resultats) {
+        File[] contenu = repertoire.listFiles();
+        if (contenu == null) {
+            System.err.println("Erreur lors de l'accès à " + repertoire);
+            return;
+        }
 
-                if (correspond) {
-                    resultats.add(fichier);
+        // Parcourt récursivement le répertoire
+        for (File fichier : contenu) {
+            if (fichier.isDirectory()) {
+                // Recherche dans les sous-dossiers non exclus
+                if (filtre.accepterRepertoire(fichier.toPath())) {
+                    rechercher(fichier, critere, filtre, resultats);
                 }
+            } else if (fichier.isFile() && filtre.accepterFichier(fichier.toPath())
+                    && critere.test(new Fichier(fichier))) {
+                resultats.add(fichier);
             }
         }
-
-        return resultats;
     }
 }
 
@@ -1,6 +1,7 @@
 package engine;
 
 import java.util.List;
+import data.AccumulateurStatistiques;
 import data.ImageFile;
 
 /**
@@ -20,6 +21,11 @@ public class StatR {
      */
     private List<ImageFile> imageFiles;
 
+    /**
+     * Statistiques calculées en un seul passage, au premier accès.
+     */
+    private AccumulateurStatistiques statistiques;
+
     /**
      * Constructeur pour initialiser la liste des fichiers image à analyser.
      *
@@ -43,14 +49,12 @@ public class StatR {
     }
 
     /**
-     * Retourne le nombre total de fichiers image.
+     * Retourne le nombre total de fichiers image (.png, .jpeg, .jpg et .webp).
      *
      * @return Le nombre total de fichiers image.
      */
     public int countImages() {
-        return (int) imageFiles.stream()
-                .filter(f -> f.getFileName().endsWith(".png") || f.getFileName().endsWith(".jpeg") || f.getFileName().endsWith(".webp"))
-                .count();
+        return (int) getStatistics().getNombreImagesValides();
     }
 
     /**
@@ -60,27 +64,38 @@ public class StatR {
      * @return Le nombre de fichiers du format donné.
      */
     public int countImagesByFormat(String extension) {
-        return (int) imageFiles.stream()
-                .filter(f -> {
-                    String fileName = f.getFileName().toLowerCase();
-                    if (extension.equals(".jpeg") || extension.equals(".jpg")) {
-                        return fileName.endsWith(".jpeg") || fileName.endsWith(".jpg");
-                    }
-                    return fileName.endsWith(extension);
-                })
-                .count();
+        AccumulateurStatistiques stats = getStatistics();
+        if (extension.equalsIgnoreCase(".jpeg") || extension.equalsIgnoreCase(".jpg")) {
+            return (int) stats.getNombreJpeg();
+        }
+        return (int) stats.getNombreParExtension(extension);
+    }
+
+    /**
+     * Retourne les statistiques des fichiers, calculées en un seul passage lors du premier appel.
+     *
+     * @return L'accumulateur des statistiques.
+     */
+    public synchronized AccumulateurStatistiques getStatistics() {
+        if (statistiques == null) {
+            statistiques = AccumulateurStatistiques.pourImages(imageFiles);
+        }
+        return statistiques;
     }
 
     /**
      * Génère un rapport statistique global sur les fichiers du répertoire.
      */
     public void generateReport() {
+        AccumulateurStatistiques stats = getStatistics();
         System.out.println("Rapport statistique du dossier :");
         System.out.println("Total de fichiers : " + countAllFiles());
-        System.out.println("Total d'images : " + countImages());
-        System.out.println("Images PNG : " + countImagesByFormat(".png"));
-        System.out.println("Images JPEG : " + countImagesByFormat(".jpeg"));
-        System.out.println("Images WEBP : " + countImagesByFormat(".webp"));
+        System.out.println("Total d'images : " + stats.getNombreImagesValides());
+        System.out.println("Images PNG : " + stats.getNombreParExtension(".png"));
+        System.out.println("Images JPEG : " + stats.getNombreJpeg());
+        System.out.println("Images WEBP : " + stats.getNombreParExtension(".webp"));
+        System.out.println("Taille totale : " + stats.getTailleTotale() + " octets");
+        System.out.print(stats.decrireDistributions());
     }
 
     /**
@@ -89,7 +104,7 @@ public class StatR {
     public void listNonImageFiles() {
         System.out.println("Fichiers non reconnus comme images :");
         imageFiles.stream()
-                .filter(f -> !f.getFileName().endsWith(".png") && !f.getFileName().endsWith(".jpeg") && !f.getFileName().endsWith(".webp"))
+                .filter(f -> !AccumulateurStatistiques.estExtensionImage(AccumulateurStatistiques.extension(f.getFileName())))
                 .forEach(f -> System.out.println("Nom : " + f.getFileName() + " - Format non supporté"));
     }
 }
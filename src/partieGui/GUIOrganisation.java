@@ -25,8 +25,11 @@ import java.util.stream.Collectors;
  * @author Youmna Saad et Seyda Ann
  */
 public class GUIOrganisation {
+    private static final int DISTANCE_APPROCHEE = 2; // Erreurs tolérées par une recherche ~
+
     private DefaultTableModel tableModel;
     private List<ImageFile> imageFiles;
+    private ModeRech search; // Réutilisé d'une recherche à l'autre pour garder ses index
 
     /**
      * Initialise le gestionnaire avec le modèle de table.
@@ -47,6 +50,7 @@ public class GUIOrganisation {
             Repertoire manager = new Repertoire();
             manager.scanDirectory(directory);
             imageFiles = manager.getImageFiles();
+            search = new ModeRech(imageFiles);
             refreshTable(imageFiles);
         } catch (IOException e) {
             JOptionPane.showMessageDialog(null,
@@ -57,8 +61,10 @@ public class GUIOrganisation {
 
     /**
      * Recherche des fichiers par nom ou année, et met à jour la table.
+     * Un texte commençant par ~ cherche les noms proches, fautes de frappe
+     * comprises : ~IMG_1234 accepte deux erreurs, ~1:IMG_1234 une seule.
      *
-     * @param query Texte de recherche (nom ou année).
+     * @param query Texte de recherche (nom, ~nom approché ou année).
      */
     public void searchFiles(String query) {
         if (imageFiles == null || imageFiles.isEmpty()) {
@@ -68,14 +74,23 @@ public class GUIOrganisation {
             return;
         }
 
-        ModeRech search = new ModeRech(imageFiles);
         List<ImageFile> filteredFiles;
 
-        try {
-            int year = Integer.parseInt(query);
-            filteredFiles = search.findByYear(year);
-        } catch (NumberFormatException ex) {
-            filteredFiles = search.findByName(query);
+        if (query.startsWith("~")) {
+            String nom = query.substring(1);
+            int distance = DISTANCE_APPROCHEE;
+            if (nom.matches("\\d+:.+")) {
+                distance = Integer.parseInt(nom.substring(0, nom.indexOf(':')));
+                nom = nom.substring(nom.indexOf(':') + 1);
+            }
+            filteredFiles = search.findByApproximateName(nom, distance);
+        } else {
+            try {
+                int year = Integer.parseInt(query);
+                filteredFiles = search.findByYear(year);
+            } catch (NumberFormatException ex) {
+                filteredFiles = search.findByName(query);
+            }
         }
 
         refreshTable(filteredFiles);